@@ -0,0 +1,23 @@
+package mil.army.cop.message.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Timeout for asynchronous MVC requests. The only ones in this service are channel
+ * exports, which stream for as long as the channel takes to read; without this they fall
+ * back to the container default (30 s on Tomcat) and long channels are cut off mid-file.
+ */
+@Configuration
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    @Value("${app.messages.history.export-timeout-ms:1800000}")
+    private long exportTimeoutMs;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(exportTimeoutMs);
+    }
+}
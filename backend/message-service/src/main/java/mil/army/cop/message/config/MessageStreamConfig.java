@@ -0,0 +1,25 @@
+package mil.army.cop.message.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class MessageStreamConfig {
+
+    // Broadcasts and acknowledges written messages off the writer thread; a single thread keeps them in commit order
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService messageBroadcastExecutor() {
+        return Executors.newSingleThreadExecutor(new CustomizableThreadFactory("message-broadcast-"));
+    }
+
+    // Drains OutboundSession queues; socket writes to slow clients block here, not on the broadcast thread
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService messageDeliveryExecutor(@Value("${app.messages.session.delivery-threads:8}") int deliveryThreads) {
+        return Executors.newFixedThreadPool(deliveryThreads, new CustomizableThreadFactory("message-delivery-"));
+    }
+}
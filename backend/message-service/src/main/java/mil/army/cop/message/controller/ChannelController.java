@@ -0,0 +1,31 @@
+package mil.army.cop.message.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import mil.army.cop.message.dto.ChannelHeadDto;
+import mil.army.cop.message.service.MessageHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/messages/operation/{operationId}/channels")
+@Tag(name = "Channels", description = "Channels of an operation")
+public class ChannelController {
+
+    @Autowired
+    private MessageHistoryService messageHistoryService;
+
+    @GetMapping
+    @Operation(summary = "The operation's channels the caller can read, each with its newest message")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT') or hasRole('OBSERVER')")
+    public ResponseEntity<List<ChannelHeadDto>> getChannelHeads(@PathVariable UUID operationId,
+                                                                Authentication authentication) {
+        return ResponseEntity.ok(messageHistoryService.getChannelHeads(operationId, authentication.getName()));
+    }
+}
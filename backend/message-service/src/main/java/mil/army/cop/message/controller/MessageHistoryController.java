@@ -0,0 +1,62 @@
+package mil.army.cop.message.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import mil.army.cop.message.dto.MessageHistoryPageDto;
+import mil.army.cop.message.service.MessageHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/messages/channels/{channelId}/messages")
+@Tag(name = "Message History", description = "Cursor-paged channel history and streaming exports")
+public class MessageHistoryController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private MessageHistoryService messageHistoryService;
+
+    @GetMapping
+    @Operation(summary = "A page of channel history: newest first, older pages with before=nextCursor, newer messages with after=latestCursor, then after=nextCursor")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT') or hasRole('OBSERVER')")
+    public ResponseEntity<MessageHistoryPageDto> getHistory(
+            @PathVariable UUID channelId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication authentication) {
+        return messageHistoryService.getPage(channelId, authentication.getName(), before, after, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "The whole channel as newline-delimited JSON, oldest first, streamed as it is read")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT') or hasRole('OBSERVER')")
+    public ResponseEntity<StreamingResponseBody> exportHistory(@PathVariable UUID channelId,
+                                                               Authentication authentication) {
+        if (!messageHistoryService.canRead(channelId, authentication.getName())) {
+            return ResponseEntity.notFound().build();
+        }
+        // Streams on the MVC async executor for up to app.messages.history.export-timeout-ms (AsyncRequestConfig)
+        StreamingResponseBody body = out -> messageHistoryService.export(channelId, out);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"channel-" + channelId + ".ndjson\"")
+                .body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidParameter(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,36 @@
+package mil.army.cop.message.dto;
+
+import java.util.UUID;
+
+/**
+ * A channel a user can read, with its newest message ({@code null} for an empty channel).
+ */
+public class ChannelHeadDto {
+    private UUID channelId;
+    private String name;
+    private String type;
+    private MessageDto latestMessage;
+
+    // Constructors
+    public ChannelHeadDto() {}
+
+    public ChannelHeadDto(UUID channelId, String name, String type, MessageDto latestMessage) {
+        this.channelId = channelId;
+        this.name = name;
+        this.type = type;
+        this.latestMessage = latestMessage;
+    }
+
+    // Getters and Setters
+    public UUID getChannelId() { return channelId; }
+    public void setChannelId(UUID channelId) { this.channelId = channelId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public MessageDto getLatestMessage() { return latestMessage; }
+    public void setLatestMessage(MessageDto latestMessage) { this.latestMessage = latestMessage; }
+}
@@ -0,0 +1,46 @@
+package mil.army.cop.message.dto;
+
+import java.util.List;
+
+/**
+ * One page of a channel's history.
+ *
+ * Paging back ({@code before}) returns messages newest first and a {@code nextCursor} for
+ * the next older page, {@code null} once the start of the channel is reached, plus a
+ * {@code latestCursor} at the channel's newest committed message when the page was read.
+ * Paging forward ({@code after}) returns messages in commit order and always a
+ * {@code nextCursor}, so a client can keep polling from where it stopped: a message still
+ * being written when a poll runs turns up in a later poll, never behind the cursor.
+ * Within one commit, commit order is creation order; across commits it can differ by the
+ * write delay. To catch up after a reconnect, a client reads the newest page and then
+ * polls with {@code after=latestCursor} from that first page.
+ */
+public class MessageHistoryPageDto {
+    private List<MessageDto> messages;
+    private String nextCursor;
+    private String latestCursor;
+
+    // Constructors
+    public MessageHistoryPageDto() {}
+
+    public MessageHistoryPageDto(List<MessageDto> messages, String nextCursor) {
+        this.messages = messages;
+        this.nextCursor = nextCursor;
+    }
+
+    public MessageHistoryPageDto(List<MessageDto> messages, String nextCursor, String latestCursor) {
+        this.messages = messages;
+        this.nextCursor = nextCursor;
+        this.latestCursor = latestCursor;
+    }
+
+    // Getters and Setters
+    public List<MessageDto> getMessages() { return messages; }
+    public void setMessages(List<MessageDto> messages) { this.messages = messages; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public String getLatestCursor() { return latestCursor; }
+    public void setLatestCursor(String latestCursor) { this.latestCursor = latestCursor; }
+}
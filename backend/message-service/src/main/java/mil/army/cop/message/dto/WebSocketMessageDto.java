@@ -1,9 +1,11 @@
 package mil.army.cop.message.dto;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 public class WebSocketMessageDto {
     private String type;
+    private UUID channelId;
     private String senderId;
     private String senderName;
     private String content;
@@ -17,6 +19,9 @@ public class WebSocketMessageDto {
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
 
+    public UUID getChannelId() { return channelId; }
+    public void setChannelId(UUID channelId) { this.channelId = channelId; }
+
     public String getSenderId() { return senderId; }
     public void setSenderId(String senderId) { this.senderId = senderId; }
 
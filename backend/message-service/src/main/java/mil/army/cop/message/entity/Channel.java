@@ -12,6 +12,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "channels", schema = "messages")
+@EntityListeners(ChannelCacheInvalidator.class)
 public class Channel {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -47,6 +48,10 @@ public class Channel {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // Operation as last loaded or saved, so a move also invalidates the old operation's cached channels
+    @Transient
+    private UUID savedOperationId;
+
     // Constructors
     public Channel() {}
 
@@ -91,6 +96,9 @@ public class Channel {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public UUID getSavedOperationId() { return savedOperationId; }
+    public void setSavedOperationId(UUID savedOperationId) { this.savedOperationId = savedOperationId; }
+
     public enum ChannelType {
         GENERAL, COMMAND, UNIT, DIRECT
     }
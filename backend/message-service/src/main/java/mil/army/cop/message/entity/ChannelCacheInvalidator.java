@@ -0,0 +1,63 @@
+package mil.army.cop.message.entity;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import mil.army.cop.message.service.ChannelCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Drops cached channel metadata whenever a channel is created, changed or deleted,
+ * whichever code path saved it. These JPA callbacks only see changes to the channel row;
+ * member changes alone arrive through {@link ChannelMembersListener}.
+ *
+ * Invalidation waits for the transaction to commit, so a lookup in between cannot
+ * cache the old state. A channel moved to another operation is dropped under both.
+ */
+@Component
+public class ChannelCacheInvalidator {
+
+    // Lazy because the cache needs the repositories, which need the entity manager factory that creates this listener
+    @Autowired
+    @Lazy
+    private ChannelCache channelCache;
+
+    @PostLoad
+    public void rememberOperation(Channel channel) {
+        channel.setSavedOperationId(channel.getOperationId());
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Channel channel) {
+        UUID channelId = channel.getId();
+        UUID operationId = channel.getOperationId();
+        UUID savedOperationId = channel.getSavedOperationId();
+        channel.setSavedOperationId(operationId);
+
+        Runnable invalidate = () -> {
+            channelCache.invalidate(channelId, operationId);
+            if (savedOperationId != null && !savedOperationId.equals(operationId)) {
+                channelCache.invalidate(null, savedOperationId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate.run();
+                }
+            });
+        } else {
+            invalidate.run();
+        }
+    }
+}
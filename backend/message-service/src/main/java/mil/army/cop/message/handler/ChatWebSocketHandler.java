@@ -6,10 +6,12 @@ import mil.army.cop.message.service.MessageStreamService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
 
-import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 import java.util.UUID;
@@ -21,6 +23,7 @@ public class ChatWebSocketHandler implements WebSocketHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(ChatWebSocketHandler.class);
     private static final Pattern OPERATION_ID_PATTERN = Pattern.compile("/ws/([^/]+)");
+    private static final String USER_ID_ATTRIBUTE = "userId";
 
     @Autowired
     private MessageStreamService messageStreamService;
@@ -28,6 +31,9 @@ public class ChatWebSocketHandler implements WebSocketHandler {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         if (!validateWebSocketAuth(session)) {
@@ -38,7 +44,7 @@ public class ChatWebSocketHandler implements WebSocketHandler {
 
         UUID operationId = extractOperationId(session);
         if (operationId != null) {
-            messageStreamService.addSession(operationId, session);
+            messageStreamService.addSession(operationId, session, (String) session.getAttributes().get(USER_ID_ATTRIBUTE));
             logger.info("WebSocket connection established for operation: {}, session: {}", 
                        operationId, session.getId());
             
@@ -66,8 +72,16 @@ public class ChatWebSocketHandler implements WebSocketHandler {
             String payload = message.getPayload().toString();
             WebSocketMessageDto messageDto = objectMapper.readValue(payload, WebSocketMessageDto.class);
             
-            // Process the message through the service
-            messageStreamService.processMessage(operationId, session, messageDto);
+            if ("subscribe".equals(messageDto.getType())) {
+                messageStreamService.subscribe(session, messageDto.getChannelId());
+                sendMessage(session, channelNotice("subscribed", messageDto.getChannelId()));
+            } else if ("unsubscribe".equals(messageDto.getType())) {
+                messageStreamService.unsubscribe(session, messageDto.getChannelId());
+                sendMessage(session, channelNotice("unsubscribed", messageDto.getChannelId()));
+            } else {
+                // Process the message through the service
+                messageStreamService.processMessage(operationId, session, messageDto);
+            }
             
         } catch (Exception e) {
             logger.error("Error processing WebSocket message: {}", e.getMessage());
@@ -120,24 +134,31 @@ public class ChatWebSocketHandler implements WebSocketHandler {
         return null;
     }
 
+    private WebSocketMessageDto channelNotice(String type, UUID channelId) {
+        WebSocketMessageDto notice = new WebSocketMessageDto();
+        notice.setType(type);
+        notice.setChannelId(channelId);
+        notice.setTimestamp(java.time.LocalDateTime.now());
+        return notice;
+    }
+
     private void sendMessage(WebSocketSession session, WebSocketMessageDto message) {
-        try {
-            String json = objectMapper.writeValueAsString(message);
-            session.sendMessage(new TextMessage(json));
-        } catch (IOException e) {
-            logger.error("Failed to send WebSocket message: {}", e.getMessage());
-        }
+        // Through the session's outbound queue, so it never overlaps a broadcast
+        messageStreamService.send(session, message);
     }
 
     private boolean validateWebSocketAuth(WebSocketSession session) {
         try {
             // Extract JWT token from query parameters or headers
             String token = extractTokenFromSession(session);
-            if (token != null) {
-                // In a real implementation, you would validate the JWT token here
-                // For now, we'll accept any non-empty token
-                return !token.isEmpty();
+            if (token != null && !token.isEmpty()) {
+                // The subject is who channel membership is checked against
+                Jwt jwt = jwtDecoder.decode(token);
+                session.getAttributes().put(USER_ID_ATTRIBUTE, jwt.getSubject());
+                return true;
             }
+        } catch (JwtException e) {
+            logger.warn("Rejected WebSocket token: {}", e.getMessage());
         } catch (Exception e) {
             logger.error("Error validating WebSocket authentication: {}", e.getMessage());
         }
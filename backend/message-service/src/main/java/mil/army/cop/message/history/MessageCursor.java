@@ -0,0 +1,47 @@
+package mil.army.cop.message.history;
+
+import mil.army.cop.message.dto.MessageDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * A position in a channel's history: the {@code (created_at, id)} and commit sequence of
+ * the last message a client has seen, handed out as an opaque URL-safe token. Paging back
+ * uses {@code (created_at, id)}, where the id breaks ties between messages created in the
+ * same microsecond; paging forward uses {@code seq}, which follows commit order.
+ */
+public record MessageCursor(LocalDateTime createdAt, UUID id, long seq) {
+
+    /**
+     * Before every message: polling forward from it reads the channel from the start.
+     */
+    public static final MessageCursor START = new MessageCursor(LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0, 0), 0);
+
+    public static MessageCursor of(MessageDto message, long seq) {
+        return new MessageCursor(message.getCreatedAt(), message.getId(), seq);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id + "|" + seq).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static MessageCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new MessageCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]), Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package mil.army.cop.message.repository;
+
+import mil.army.cop.message.dto.MessageDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Plain JDBC inserts into {@code messages.messages} for the group-commit write path.
+ *
+ * Ids and creation times are assigned by the caller before the insert, so a whole batch
+ * goes out as one JDBC batch (rewritten into multi-row inserts by the driver's
+ * {@code reWriteBatchedInserts}) without reading anything back per row.
+ *
+ * Each row's {@code seq} is assigned by a trigger under a per-channel advisory lock held
+ * until the caller's transaction commits (see V4__Lock_message_seq_per_channel.sql), so a
+ * channel's messages become visible in {@code seq} order across writer threads and
+ * instances; history polling relies on that. Rows are inserted in lock key order so that
+ * two batches sharing channels take their locks in the same order and cannot deadlock.
+ */
+@Repository
+public class MessageBatchRepository {
+
+    private static final String INSERT = "INSERT INTO messages.messages "
+            + "(id, channel_id, sender_id, sender_name, content, type, priority, is_edited, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Same order as the trigger's lock keys; stable, so each channel keeps its queue order
+    private static final Comparator<MessageDto> LOCK_ORDER =
+            Comparator.comparingLong(message -> message.getChannelId().getMostSignificantBits());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Must run inside the caller's transaction; the channel locks are released when it ends.
+     */
+    public void insert(List<MessageDto> messages) {
+        List<MessageDto> ordered = messages.stream().sorted(LOCK_ORDER).toList();
+        jdbcTemplate.batchUpdate(INSERT, ordered, ordered.size(), (statement, message) -> {
+            statement.setObject(1, message.getId(), Types.OTHER);
+            statement.setObject(2, message.getChannelId(), Types.OTHER);
+            statement.setString(3, message.getSenderId());
+            statement.setString(4, message.getSenderName());
+            statement.setString(5, message.getContent());
+            statement.setString(6, message.getType().name());
+            statement.setString(7, message.getPriority().name());
+            statement.setBoolean(8, Boolean.TRUE.equals(message.getIsEdited()));
+            statement.setTimestamp(9, Timestamp.valueOf(message.getCreatedAt()));
+        });
+    }
+}
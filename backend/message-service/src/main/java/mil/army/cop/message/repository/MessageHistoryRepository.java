@@ -0,0 +1,138 @@
+package mil.army.cop.message.repository;
+
+import mil.army.cop.message.dto.MessageDto;
+import mil.army.cop.message.entity.Message;
+import mil.army.cop.message.history.MessageCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC reads of a channel's history in {@code (created_at, id)} order.
+ *
+ * Pages are found by keyset on {@code idx_messages_channel_created_id}, so reading
+ * further back costs the same as reading the newest page, and there is no count query.
+ * Reading forward goes by {@code seq} on {@code idx_messages_channel_seq} instead: a
+ * message can commit after a newer one, but never after one in the same channel with a
+ * higher {@code seq}.
+ * Exports use a server-side cursor (a fetch size inside a transaction) so rows are
+ * handed over as they arrive rather than collected.
+ */
+@Repository
+public class MessageHistoryRepository {
+
+    private static final String COLUMNS = "id, channel_id, sender_id, sender_name, content, type, priority, "
+            + "is_edited, edited_at, created_at";
+
+    /**
+     * A history row with the commit sequence its cursor needs.
+     */
+    public record Entry(MessageDto message, long seq) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Up to {@code limit} messages older than the cursor (or the newest ones without one), newest first.
+     */
+    public List<Entry> findBefore(UUID channelId, MessageCursor before, int limit) {
+        if (before == null) {
+            return jdbcTemplate.query("SELECT " + COLUMNS + ", seq FROM messages.messages WHERE channel_id = ? "
+                    + "ORDER BY created_at DESC, id DESC LIMIT ?", MessageHistoryRepository::toEntry, channelId, limit);
+        }
+        return jdbcTemplate.query("SELECT " + COLUMNS + ", seq FROM messages.messages WHERE channel_id = ? "
+                        + "AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC LIMIT ?",
+                MessageHistoryRepository::toEntry,
+                channelId, Timestamp.valueOf(before.createdAt()), before.id(), limit);
+    }
+
+    /**
+     * Up to {@code limit} messages committed after the cursor's, in commit order.
+     */
+    public List<Entry> findAfter(UUID channelId, MessageCursor after, int limit) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + ", seq FROM messages.messages WHERE channel_id = ? "
+                        + "AND seq > ? ORDER BY seq LIMIT ?",
+                MessageHistoryRepository::toEntry,
+                channelId, after.seq(), limit);
+    }
+
+    /**
+     * The channel's most recently committed message, if it has any. Anything that commits
+     * after this is read gets a higher {@code seq}.
+     */
+    public Optional<Entry> findHead(UUID channelId) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + ", seq FROM messages.messages WHERE channel_id = ? "
+                        + "ORDER BY seq DESC LIMIT 1", MessageHistoryRepository::toEntry, channelId)
+                .stream().findFirst();
+    }
+
+    /**
+     * The newest message of each channel that has any, one index probe per channel.
+     */
+    public Map<UUID, MessageDto> findLatest(Collection<UUID> channelIds) {
+        Map<UUID, MessageDto> latest = new HashMap<>();
+        if (channelIds.isEmpty()) {
+            return latest;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT m.* FROM unnest(?) AS c(id) "
+                    + "CROSS JOIN LATERAL (SELECT " + COLUMNS + " FROM messages.messages WHERE channel_id = c.id "
+                    + "ORDER BY created_at DESC, id DESC LIMIT 1) m");
+            statement.setArray(1, connection.createArrayOf("uuid", channelIds.toArray()));
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            MessageDto message = toMessage(rs, rs.getRow());
+            latest.put(message.getChannelId(), message);
+        });
+        return latest;
+    }
+
+    /**
+     * Hands every message in the channel to {@code consumer}, oldest first, as rows are
+     * fetched. Must run inside a transaction for the fetch size to take effect.
+     */
+    public void streamChannel(UUID channelId, int fetchSize, Consumer<MessageDto> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT " + COLUMNS
+                    + " FROM messages.messages WHERE channel_id = ? ORDER BY created_at, id");
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, channelId, Types.OTHER);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(toMessage(rs, rs.getRow())));
+    }
+
+    private static Entry toEntry(ResultSet rs, int rowNum) throws SQLException {
+        return new Entry(toMessage(rs, rowNum), rs.getLong("seq"));
+    }
+
+    private static MessageDto toMessage(ResultSet rs, int rowNum) throws SQLException {
+        MessageDto message = new MessageDto();
+        message.setId(rs.getObject("id", UUID.class));
+        message.setChannelId(rs.getObject("channel_id", UUID.class));
+        message.setSenderId(rs.getString("sender_id"));
+        message.setSenderName(rs.getString("sender_name"));
+        message.setContent(rs.getString("content"));
+        message.setType(Message.MessageType.valueOf(rs.getString("type")));
+        message.setPriority(Message.MessagePriority.valueOf(rs.getString("priority")));
+        message.setIsEdited(rs.getBoolean("is_edited"));
+        Timestamp editedAt = rs.getTimestamp("edited_at");
+        message.setEditedAt(editedAt != null ? editedAt.toLocalDateTime() : null);
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        message.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        return message;
+    }
+}
@@ -0,0 +1,130 @@
+package mil.army.cop.message.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import mil.army.cop.message.entity.Channel;
+import mil.army.cop.message.repository.ChannelRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Channel metadata, so sending a message does not query {@code messages.channels}.
+ *
+ * Channels are cached by ID and by operation and type as immutable
+ * {@link CachedChannel}s, members included, and dropped by
+ * {@link mil.army.cop.message.entity.ChannelCacheInvalidator} whenever a channel or its
+ * member list is saved or deleted through JPA on this replica. Changes made by other
+ * replicas, or by SQL, are only picked up when entries expire, so membership seen here
+ * can be up to {@code app.messages.channel-cache.max-age-s} stale.
+ */
+@Component
+public class ChannelCache {
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.messages.channel-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.messages.channel-cache.max-age-s:60}")
+    private long maxAgeSeconds;
+
+    private Cache<UUID, Optional<CachedChannel>> byId;
+    private Cache<OperationChannels, List<CachedChannel>> byOperationAndType;
+    private TransactionTemplate readOnly;
+    private final List<Consumer<UUID>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The parts of a channel that message handling needs.
+     */
+    public record CachedChannel(UUID id, UUID operationId, Channel.ChannelType type, String name, Set<String> members) {
+
+        /**
+         * Whether the user may read and post in the channel: anyone in the operation for
+         * {@code GENERAL} channels, members only for every other type.
+         */
+        public boolean admits(String userId) {
+            return type == Channel.ChannelType.GENERAL || (userId != null && members.contains(userId));
+        }
+
+        static CachedChannel of(Channel channel) {
+            return new CachedChannel(channel.getId(), channel.getOperationId(), channel.getType(), channel.getName(),
+                    channel.getMembers() != null ? Set.copyOf(channel.getMembers()) : Set.of());
+        }
+    }
+
+    private record OperationChannels(UUID operationId, Channel.ChannelType type) {}
+
+    @PostConstruct
+    void init() {
+        byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(maxAgeSeconds))
+                .recordStats()
+                .build();
+        byOperationAndType = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(maxAgeSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "messages.channels.id");
+        CaffeineCacheMetrics.monitor(meterRegistry, byOperationAndType, "messages.channels.operation");
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    public Optional<CachedChannel> get(UUID channelId) {
+        return byId.get(channelId, id -> readOnly.execute(status ->
+                channelRepository.findById(id).map(CachedChannel::of)));
+    }
+
+    public List<CachedChannel> getByOperationAndType(UUID operationId, Channel.ChannelType type) {
+        return byOperationAndType.get(new OperationChannels(operationId, type), key -> readOnly.execute(status ->
+                channelRepository.findByOperationIdAndType(key.operationId(), key.type()).stream()
+                        .map(CachedChannel::of)
+                        .collect(Collectors.toUnmodifiableList())));
+    }
+
+    /**
+     * Registers a callback for the ID of every channel that is saved or deleted, run on
+     * the committing thread after the cache entries are dropped.
+     */
+    public void onInvalidate(Consumer<UUID> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    public void invalidate(UUID channelId, UUID operationId) {
+        if (channelId != null) {
+            byId.invalidate(channelId);
+        }
+        if (operationId != null) {
+            for (Channel.ChannelType type : Channel.ChannelType.values()) {
+                byOperationAndType.invalidate(new OperationChannels(operationId, type));
+            }
+        }
+        if (channelId != null) {
+            invalidationListeners.forEach(listener -> listener.accept(channelId));
+        }
+    }
+}
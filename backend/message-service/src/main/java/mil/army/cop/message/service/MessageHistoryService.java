@@ -0,0 +1,152 @@
+package mil.army.cop.message.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import mil.army.cop.message.dto.ChannelHeadDto;
+import mil.army.cop.message.dto.MessageDto;
+import mil.army.cop.message.dto.MessageHistoryPageDto;
+import mil.army.cop.message.entity.Channel;
+import mil.army.cop.message.history.MessageCursor;
+import mil.army.cop.message.repository.MessageHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Channel history for clients scrolling back or catching up after a reconnect, the
+ * newest message per channel for operation overviews, and whole-channel exports. Only users admitted to a channel can read it; to everyone else
+ * it does not exist.
+ */
+@Service
+public class MessageHistoryService {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    @Autowired
+    private MessageHistoryRepository messageHistoryRepository;
+
+    @Autowired
+    private ChannelCache channelCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.messages.history.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${app.messages.history.export-fetch-size:1000}")
+    private int exportFetchSize;
+
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    void init() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    public boolean canRead(UUID channelId, String userId) {
+        return channelCache.get(channelId).filter(channel -> channel.admits(userId)).isPresent();
+    }
+
+    /**
+     * @param before cursor to page back from; with neither cursor, the newest messages
+     * @param after cursor to page forward from
+     * @return empty if the channel does not exist or the user is not admitted to it
+     */
+    public Optional<MessageHistoryPageDto> getPage(UUID channelId, String userId, String before, String after, int limit) {
+        if (before != null && after != null) {
+            throw new IllegalArgumentException("Use either before or after, not both");
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        if (!canRead(channelId, userId)) {
+            return Optional.empty();
+        }
+
+        if (after != null) {
+            MessageCursor cursor = MessageCursor.decode(after);
+            List<MessageHistoryRepository.Entry> entries = messageHistoryRepository.findAfter(channelId, cursor, limit);
+            MessageCursor next = entries.isEmpty() ? cursor : cursorOf(entries.get(entries.size() - 1));
+            return Optional.of(new MessageHistoryPageDto(messagesOf(entries), next.encode()));
+        }
+
+        // Read before the page, so whatever commits in between is still ahead of it
+        String latest = messageHistoryRepository.findHead(channelId)
+                .map(MessageHistoryService::cursorOf)
+                .orElse(MessageCursor.START)
+                .encode();
+        // One extra row says whether there is an older page, without a count
+        List<MessageHistoryRepository.Entry> entries = messageHistoryRepository.findBefore(channelId,
+                before != null ? MessageCursor.decode(before) : null, limit + 1);
+        if (entries.size() <= limit) {
+            return Optional.of(new MessageHistoryPageDto(messagesOf(entries), null, latest));
+        }
+        List<MessageHistoryRepository.Entry> page = entries.subList(0, limit);
+        return Optional.of(new MessageHistoryPageDto(messagesOf(page), cursorOf(page.get(limit - 1)).encode(), latest));
+    }
+
+    /**
+     * The operation's channels the user is admitted to, with their newest messages, in
+     * channel type order.
+     */
+    public List<ChannelHeadDto> getChannelHeads(UUID operationId, String userId) {
+        List<ChannelCache.CachedChannel> channels = new ArrayList<>();
+        for (Channel.ChannelType type : Channel.ChannelType.values()) {
+            channelCache.getByOperationAndType(operationId, type).stream()
+                    .filter(channel -> channel.admits(userId))
+                    .forEach(channels::add);
+        }
+        Map<UUID, MessageDto> latest = messageHistoryRepository.findLatest(
+                channels.stream().map(ChannelCache.CachedChannel::id).toList());
+        return channels.stream()
+                .map(channel -> new ChannelHeadDto(channel.id(), channel.name(), channel.type().name(),
+                        latest.get(channel.id())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes every message in the channel to {@code out} as newline-delimited JSON, oldest
+     * first, each row as soon as it is read. Access must have been checked with {@link #canRead}.
+     */
+    public void export(UUID channelId, OutputStream out) throws IOException {
+        try {
+            readOnly.executeWithoutResult(status -> messageHistoryRepository.streamChannel(channelId, exportFetchSize, message -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(message));
+                    out.write(NEWLINE);
+                } catch (IOException e) {
+                    // Client went away; abandons the query
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    private static MessageCursor cursorOf(MessageHistoryRepository.Entry entry) {
+        return MessageCursor.of(entry.message(), entry.seq());
+    }
+
+    private static List<MessageDto> messagesOf(List<MessageHistoryRepository.Entry> entries) {
+        return entries.stream().map(MessageHistoryRepository.Entry::message).collect(Collectors.toList());
+    }
+}
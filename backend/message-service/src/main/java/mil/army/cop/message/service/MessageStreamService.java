@@ -1,114 +1,252 @@
 package mil.army.cop.message.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
 import mil.army.cop.message.dto.WebSocketMessageDto;
 import mil.army.cop.message.dto.MessageDto;
 import mil.army.cop.message.entity.Channel;
 import mil.army.cop.message.entity.Message;
-import mil.army.cop.message.repository.ChannelRepository;
-import mil.army.cop.message.repository.MessageRepository;
+import mil.army.cop.message.stream.OutboundSession;
 import mil.army.cop.shared.exception.CopException;
+import mil.army.cop.shared.stream.SubscriberRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Chat sessions and message fan-out.
+ *
+ * Sessions join an operation and then subscribe to individual channels; new messages go
+ * only to the sessions subscribed to their channel, looked up by channel ID. Whether a
+ * session may subscribe is decided once, at subscribe time, from the cached channel
+ * membership, and re-checked for every subscriber when the channel changes, so a session
+ * never receives a members-only channel its user does not belong to. Every session is
+ * subscribed to its operation's {@code GENERAL} channels on connect.
+ *
+ * Nothing here writes to a socket: every frame for a session goes through its
+ * {@link OutboundSession} queue, which disconnects the session when it overflows, and
+ * sessions whose current write has been blocked for longer than the send time limit are
+ * disconnected by {@link #checkSessions()}.
+ */
 @Service
 public class MessageStreamService {
 
     private static final Logger logger = LoggerFactory.getLogger(MessageStreamService.class);
 
     @Autowired
-    private ChannelRepository channelRepository;
+    private ChannelCache channelCache;
 
     @Autowired
-    private MessageRepository messageRepository;
+    private MessageWriter messageWriter;
+
+    @Autowired
+    private ExecutorService messageBroadcastExecutor;
+
+    @Autowired
+    private ExecutorService messageDeliveryExecutor;
 
     @Autowired
     private ObjectMapper objectMapper;
 
-    // Store active WebSocket sessions by operation ID
-    private final Map<UUID, CopyOnWriteArrayList<WebSocketSession>> operationSessions = new ConcurrentHashMap<>();
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.messages.session.buffer-size-limit-bytes:524288}")
+    private int bufferSizeLimit;
+
+    @Value("${app.messages.session.send-time-limit-ms:10000}")
+    private long sendTimeLimitMs;
+
+    // Broadcast as soon as the message is queued and acknowledge the sender after commit,
+    // trading a possible broadcast of a message that then fails for lower latency
+    @Value("${app.messages.write.broadcast-before-commit:false}")
+    private boolean broadcastBeforeCommit;
+
+    // Store active WebSocket sessions by operation ID, for system messages
+    private final SubscriberRegistry<UUID, OutboundSession> operationSessions = new SubscriberRegistry<>();
+
+    // Subscribed sessions by channel ID, for chat messages
+    private final SubscriberRegistry<UUID, OutboundSession> channelSessions = new SubscriberRegistry<>();
+
+    private final Map<WebSocketSession, SessionChannels> sessionChannels = new ConcurrentHashMap<>();
 
-    public void addSession(UUID operationId, WebSocketSession session) {
-        operationSessions.computeIfAbsent(operationId, k -> new CopyOnWriteArrayList<>()).add(session);
+    private Counter overflowDisconnects;
+    private Counter stalledDisconnects;
+    private MultiGauge maxSessionQueues;
+    private MultiGauge totalSessionQueues;
+
+    /**
+     * The authenticated user behind a session, the channels it is subscribed to and its outbound queue.
+     */
+    private record SessionChannels(UUID operationId, String userId, Set<UUID> channelIds, OutboundSession outbound) {}
+
+    @PostConstruct
+    void init() {
+        overflowDisconnects = Counter.builder("messages.session.disconnected")
+                .tag("reason", "overflow")
+                .description("Sessions disconnected for falling behind their outbound buffer limit or send time limit")
+                .register(meterRegistry);
+        stalledDisconnects = Counter.builder("messages.session.disconnected")
+                .tag("reason", "stalled")
+                .description("Sessions disconnected for falling behind their outbound buffer limit or send time limit")
+                .register(meterRegistry);
+        // Per operation, not per session: session ids would add a time series for every connection ever made
+        maxSessionQueues = MultiGauge.builder("messages.session.queued.max")
+                .description("Longest session outbound queue in each operation, refreshed every session check")
+                .register(meterRegistry);
+        totalSessionQueues = MultiGauge.builder("messages.session.queued.total")
+                .description("Messages waiting in all of each operation's session outbound queues, refreshed every session check")
+                .register(meterRegistry);
+        // Off the committing thread, and in order with the broadcasts
+        channelCache.onInvalidate(channelId -> messageBroadcastExecutor.execute(() -> revalidate(channelId)));
+    }
+
+    /**
+     * @param userId the subject of the session's token, which channel membership is checked against
+     */
+    public void addSession(UUID operationId, WebSocketSession session, String userId) {
+        OutboundSession outbound = new OutboundSession(session, messageDeliveryExecutor, bufferSizeLimit);
+        sessionChannels.put(session, new SessionChannels(operationId, userId, ConcurrentHashMap.newKeySet(), outbound));
+        operationSessions.add(operationId, outbound);
+        for (ChannelCache.CachedChannel channel : channelCache.getByOperationAndType(operationId, Channel.ChannelType.GENERAL)) {
+            subscribe(session, channel.id());
+        }
         logger.info("Added WebSocket session for operation {}: {}", operationId, session.getId());
     }
 
     public void removeSession(UUID operationId, WebSocketSession session) {
-        CopyOnWriteArrayList<WebSocketSession> sessions = operationSessions.get(operationId);
-        if (sessions != null) {
-            sessions.remove(session);
-            if (sessions.isEmpty()) {
-                operationSessions.remove(operationId);
-            }
+        SessionChannels channels = sessionChannels.remove(session);
+        if (channels != null) {
+            channels.channelIds().forEach(channelId -> channelSessions.remove(channelId, channels.outbound()));
+            operationSessions.remove(operationId, channels.outbound());
         }
         logger.info("Removed WebSocket session for operation {}: {}", operationId, session.getId());
     }
 
-    public void processMessage(UUID operationId, WebSocketSession senderSession, WebSocketMessageDto messageDto) {
-        try {
-            // Find the appropriate channel (for now, use general channel)
-            Channel channel = channelRepository.findByOperationIdAndType(operationId, Channel.ChannelType.GENERAL)
-                    .stream()
-                    .findFirst()
-                    .orElseThrow(() -> new CopException("No general channel found for operation", "CHANNEL_NOT_FOUND"));
+    /**
+     * Subscribes the session to a channel of its operation that its user is admitted to.
+     */
+    public void subscribe(WebSocketSession session, UUID channelId) {
+        SessionChannels channels = sessionChannels.get(session);
+        if (channels == null) {
+            throw new CopException("Session is not connected to an operation", "SESSION_NOT_FOUND");
+        }
+        ChannelCache.CachedChannel channel = accessibleChannel(channels, channelId);
+        channels.channelIds().add(channel.id());
+        channelSessions.add(channel.id(), channels.outbound());
+        if (!sessionChannels.containsKey(session)) {
+            // Closed while subscribing
+            channelSessions.remove(channel.id(), channels.outbound());
+        }
+    }
 
-            // Create and save the message
-            Message message = new Message(
-                    channel,
-                    messageDto.getSenderId(),
-                    messageDto.getSenderName(),
-                    messageDto.getContent(),
-                    Message.MessageType.TEXT,
-                    Message.MessagePriority.NORMAL
-            );
+    public void unsubscribe(WebSocketSession session, UUID channelId) {
+        SessionChannels channels = sessionChannels.get(session);
+        if (channels != null && channels.channelIds().remove(channelId)) {
+            channelSessions.remove(channelId, channels.outbound());
+        }
+    }
 
-            Message savedMessage = messageRepository.save(message);
+    public void processMessage(UUID operationId, WebSocketSession senderSession, WebSocketMessageDto messageDto) {
+        try {
+            ChannelCache.CachedChannel channel = targetChannel(operationId, senderSession, messageDto.getChannelId());
 
-            // Create response DTO
-            MessageDto responseDto = convertToMessageDto(savedMessage);
+            // Id and timestamp are assigned here so the message is complete before it reaches the database
+            MessageDto message = new MessageDto();
+            message.setId(UUID.randomUUID());
+            message.setChannelId(channel.id());
+            message.setSenderId(messageDto.getSenderId());
+            message.setSenderName(messageDto.getSenderName());
+            message.setContent(messageDto.getContent());
+            message.setType(Message.MessageType.TEXT);
+            message.setPriority(Message.MessagePriority.NORMAL);
+            message.setIsEdited(false);
+            // Microseconds, as stored, so live and history copies of a message match
+            message.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
 
-            // Broadcast to all sessions in this operation
-            broadcastToOperation(operationId, "new_message", responseDto);
+            CompletableFuture<MessageDto> persisted = messageWriter.write(message);
+            if (broadcastBeforeCommit) {
+                broadcastToChannel(channel.id(), "new_message", message);
+                persisted.whenCompleteAsync((saved, error) ->
+                        acknowledge(senderSession, message, error), messageBroadcastExecutor);
+            } else {
+                persisted.whenCompleteAsync((saved, error) -> {
+                    if (error == null) {
+                        broadcastToChannel(channel.id(), "new_message", saved);
+                    } else {
+                        acknowledge(senderSession, message, error);
+                    }
+                }, messageBroadcastExecutor);
+            }
 
+        } catch (CopException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to process message for operation {}: {}", operationId, e.getMessage());
             throw new CopException("Failed to process message", "MESSAGE_PROCESSING_FAILED");
         }
     }
 
+    /**
+     * Sends to the sessions subscribed to the channel whose users the cached channel still
+     * admits. Membership can change without this replica being told (another replica, SQL),
+     * so it is checked on every send rather than only when a subscription is made; sessions
+     * no longer admitted are unsubscribed.
+     */
+    public void broadcastToChannel(UUID channelId, String eventType, Object data) {
+        List<OutboundSession> sessions = channelSessions.get(channelId);
+        if (sessions.isEmpty()) {
+            return;
+        }
+        Optional<ChannelCache.CachedChannel> channel = channelCache.get(channelId);
+        List<OutboundSession> admitted = new ArrayList<>(sessions.size());
+        for (OutboundSession outbound : sessions) {
+            if (admits(channel, outbound)) {
+                admitted.add(outbound);
+            }
+        }
+        if (admitted.size() < sessions.size()) {
+            revalidate(channelId);
+        }
+        if (!admitted.isEmpty()) {
+            send(admitted, eventType, data);
+        }
+    }
+
+    /**
+     * Sends to every session in the operation, whatever it is subscribed to; for system
+     * notices only, never for channel content.
+     */
     public void broadcastToOperation(UUID operationId, String eventType, Object data) {
-        CopyOnWriteArrayList<WebSocketSession> sessions = operationSessions.get(operationId);
-        if (sessions != null && !sessions.isEmpty()) {
-            WebSocketMessageDto broadcastMessage = new WebSocketMessageDto();
-            broadcastMessage.setType(eventType);
-            broadcastMessage.setData(data);
-            broadcastMessage.setTimestamp(LocalDateTime.now());
-
-            sessions.removeIf(session -> {
-                try {
-                    if (session.isOpen()) {
-                        String json = objectMapper.writeValueAsString(broadcastMessage);
-                        session.sendMessage(new TextMessage(json));
-                        return false; // Keep session
-                    } else {
-                        return true; // Remove closed session
-                    }
-                } catch (IOException e) {
-                    logger.warn("Failed to send message to WebSocket session, removing: {}", e.getMessage());
-                    return true; // Remove failed session
-                }
-            });
+        List<OutboundSession> sessions = operationSessions.get(operationId);
+        if (!sessions.isEmpty()) {
+            send(sessions, eventType, data);
         }
     }
 
@@ -121,18 +259,156 @@ public class MessageStreamService {
         broadcastToOperation(operationId, "system_message", systemMessage);
     }
 
-    private MessageDto convertToMessageDto(Message message) {
-        MessageDto dto = new MessageDto();
-        dto.setId(message.getId());
-        dto.setChannelId(message.getChannel().getId());
-        dto.setSenderId(message.getSenderId());
-        dto.setSenderName(message.getSenderName());
-        dto.setContent(message.getContent());
-        dto.setType(message.getType());
-        dto.setPriority(message.getPriority());
-        dto.setIsEdited(message.getIsEdited());
-        dto.setEditedAt(message.getEditedAt());
-        dto.setCreatedAt(message.getCreatedAt());
-        return dto;
+    /**
+     * Queues a frame for one session, or writes it directly if the session has not been
+     * added yet (or is already gone).
+     */
+    public void send(WebSocketSession session, WebSocketMessageDto message) {
+        TextMessage textMessage;
+        try {
+            textMessage = new TextMessage(objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize {} message: {}", message.getType(), e.getMessage());
+            return;
+        }
+        SessionChannels channels = sessionChannels.get(session);
+        if (channels != null) {
+            offer(channels.outbound(), textMessage);
+            return;
+        }
+        try {
+            if (session.isOpen()) {
+                session.sendMessage(textMessage);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to send {} message to WebSocket session {}: {}", message.getType(), session.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Disconnects sessions whose current write has been blocked for longer than the send
+     * time limit, and publishes each operation's longest and total queue depth.
+     */
+    @Scheduled(fixedDelayString = "${app.messages.session.check-interval-ms:5000}")
+    public void checkSessions() {
+        long sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMs);
+        Map<UUID, Integer> maxQueued = new HashMap<>();
+        Map<UUID, Integer> totalQueued = new HashMap<>();
+        sessionChannels.forEach((session, channels) -> {
+            OutboundSession outbound = channels.outbound();
+            int queued = outbound.getQueuedMessages();
+            if (outbound.isStalled(sendTimeLimitNanos)) {
+                logger.warn("Disconnecting WebSocket session {}: a send has been blocked for over {} ms with {} messages queued",
+                        session.getId(), sendTimeLimitMs, queued);
+                stalledDisconnects.increment();
+                outbound.close(CloseStatus.SESSION_NOT_RELIABLE.withReason("Send time limit exceeded"));
+            }
+            maxQueued.merge(channels.operationId(), queued, Math::max);
+            totalQueued.merge(channels.operationId(), queued, Integer::sum);
+        });
+        maxSessionQueues.register(rows(maxQueued), true);
+        totalSessionQueues.register(rows(totalQueued), true);
+    }
+
+    private static List<MultiGauge.Row<?>> rows(Map<UUID, Integer> byOperation) {
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        byOperation.forEach((operationId, value) -> rows.add(MultiGauge.Row.of(Tags.of("operation", operationId.toString()), value)));
+        return rows;
+    }
+
+    private void send(List<OutboundSession> sessions, String eventType, Object data) {
+        WebSocketMessageDto broadcastMessage = new WebSocketMessageDto();
+        broadcastMessage.setType(eventType);
+        broadcastMessage.setData(data);
+        broadcastMessage.setTimestamp(LocalDateTime.now());
+
+        TextMessage textMessage;
+        try {
+            textMessage = new TextMessage(objectMapper.writeValueAsString(broadcastMessage));
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize {} broadcast: {}", eventType, e.getMessage());
+            return;
+        }
+
+        for (OutboundSession session : sessions) {
+            offer(session, textMessage);
+        }
+    }
+
+    private void offer(OutboundSession outbound, TextMessage textMessage) {
+        // A closed session is removed when its close is handled
+        if (!outbound.isClosed() && !outbound.offer(textMessage) && outbound.isClosed()) {
+            logger.warn("Disconnected WebSocket session {}: outbound buffer limit of {} bytes exceeded",
+                    outbound.getSession().getId(), bufferSizeLimit);
+            overflowDisconnects.increment();
+        }
+    }
+
+    /**
+     * The channel a message is posted to: the one named in the message, which the sender
+     * must be admitted to, or else the operation's general channel.
+     */
+    private ChannelCache.CachedChannel targetChannel(UUID operationId, WebSocketSession senderSession, UUID channelId) {
+        if (channelId == null) {
+            return channelCache.getByOperationAndType(operationId, Channel.ChannelType.GENERAL)
+                    .stream()
+                    .findFirst()
+                    .orElseThrow(() -> new CopException("No general channel found for operation", "CHANNEL_NOT_FOUND"));
+        }
+        SessionChannels channels = sessionChannels.get(senderSession);
+        if (channels == null) {
+            throw new CopException("Session is not connected to an operation", "SESSION_NOT_FOUND");
+        }
+        return accessibleChannel(channels, channelId);
+    }
+
+    private ChannelCache.CachedChannel accessibleChannel(SessionChannels channels, UUID channelId) {
+        if (channelId == null) {
+            throw new CopException("channelId is required", "INVALID_CHANNEL");
+        }
+        Optional<ChannelCache.CachedChannel> channel = channelCache.get(channelId)
+                .filter(found -> found.operationId().equals(channels.operationId()));
+        // Channels the user may not see are reported exactly like missing ones
+        if (channel.isEmpty() || !channel.get().admits(channels.userId())) {
+            throw new CopException("Channel not found: " + channelId, "CHANNEL_NOT_FOUND");
+        }
+        return channel.get();
+    }
+
+    /**
+     * Drops the subscriptions of sessions that are no longer admitted to the channel.
+     */
+    private void revalidate(UUID channelId) {
+        Optional<ChannelCache.CachedChannel> channel = channelCache.get(channelId);
+        for (OutboundSession outbound : channelSessions.get(channelId)) {
+            if (!admits(channel, outbound)) {
+                unsubscribe(outbound.getSession(), channelId);
+                channelSessions.remove(channelId, outbound);
+                logger.info("Unsubscribed session {} from channel {} after a membership change", outbound.getSession().getId(), channelId);
+            }
+        }
+    }
+
+    private boolean admits(Optional<ChannelCache.CachedChannel> channel, OutboundSession outbound) {
+        SessionChannels channels = sessionChannels.get(outbound.getSession());
+        return channels != null && channel
+                .filter(found -> found.operationId().equals(channels.operationId()))
+                .filter(found -> found.admits(channels.userId()))
+                .isPresent();
+    }
+
+    /**
+     * Tells the sender whether their message was committed: {@code message_ack} after an
+     * early broadcast, {@code message_failed} whenever the insert failed.
+     */
+    private void acknowledge(WebSocketSession senderSession, MessageDto message, Throwable error) {
+        if (error == null && !broadcastBeforeCommit) {
+            return;
+        }
+        WebSocketMessageDto ack = new WebSocketMessageDto();
+        ack.setType(error == null ? "message_ack" : "message_failed");
+        ack.setData(Map.of("id", message.getId()));
+        ack.setTimestamp(LocalDateTime.now());
+        send(senderSession, ack);
     }
 }
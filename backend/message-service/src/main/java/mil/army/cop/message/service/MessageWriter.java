@@ -0,0 +1,183 @@
+package mil.army.cop.message.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import mil.army.cop.message.dto.MessageDto;
+import mil.army.cop.message.repository.MessageBatchRepository;
+import mil.army.cop.shared.exception.CopException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit persistence for chat messages.
+ *
+ * Handler threads only queue messages; a single writer thread collects them for up to
+ * {@code max-delay-ms} after the first one arrives, or until {@code batch-size} are
+ * waiting, and inserts the lot in one JDBC batch and one transaction. The returned futures
+ * complete once that transaction has committed. If a batch fails, its messages are retried
+ * one transaction each so that one bad row (a channel deleted meanwhile) only fails itself.
+ * When the queue is full, {@link #write} refuses the message rather than blocking the
+ * WebSocket thread.
+ */
+@Service
+public class MessageWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageWriter.class);
+
+    @Autowired
+    private MessageBatchRepository messageBatchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.messages.write.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.messages.write.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.messages.write.max-delay-ms:5}")
+    private long maxDelayMs;
+
+    private BlockingQueue<PendingMessage> queue;
+    private TransactionTemplate transactionTemplate;
+    private Thread writerThread;
+    private volatile boolean running;
+    private Counter rejectedMessages;
+    private Counter failedMessages;
+    private Timer batchTimer;
+    private DistributionSummary batchSizes;
+
+    private record PendingMessage(MessageDto message, CompletableFuture<MessageDto> persisted) {}
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        rejectedMessages = Counter.builder("messages.write.rejected")
+                .description("Messages refused because the write queue was full")
+                .register(meterRegistry);
+        failedMessages = Counter.builder("messages.write.failed")
+                .description("Messages that could not be inserted")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("messages.write.batch")
+                .description("Time taken to insert and commit one batch of messages")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("messages.write.batch.size")
+                .description("Messages per committed batch")
+                .register(meterRegistry);
+        Gauge.builder("messages.write.queued", queue, Collection::size)
+                .description("Messages waiting to be written")
+                .register(meterRegistry);
+
+        running = true;
+        writerThread = new CustomizableThreadFactory("message-writer-").newThread(this::run);
+        writerThread.start();
+    }
+
+    /**
+     * Queues a message whose id and creation time are already set.
+     *
+     * @return completes with the message once it is committed, or exceptionally if the insert failed
+     * @throws CopException when the write queue is full
+     */
+    public CompletableFuture<MessageDto> write(MessageDto message) {
+        PendingMessage pending = new PendingMessage(message, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            rejectedMessages.increment();
+            throw new CopException("Message service is overloaded, try again", "MESSAGE_QUEUE_FULL");
+        }
+        return pending.persisted();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        // Anything queued after the writer stopped
+        List<PendingMessage> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    private void run() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Shutting down; whatever was collected is still written below
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<PendingMessage> batch) throws InterruptedException {
+        PendingMessage first = queue.take();
+        batch.add(first);
+        queue.drainTo(batch, batchSize - batch.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingMessage next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void flush(List<PendingMessage> batch) {
+        long start = System.nanoTime();
+        try {
+            List<MessageDto> messages = batch.stream().map(PendingMessage::message).toList();
+            transactionTemplate.executeWithoutResult(status -> messageBatchRepository.insert(messages));
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+            batch.forEach(pending -> pending.persisted().complete(pending.message()));
+        } catch (Exception e) {
+            logger.warn("Failed to write batch of {} messages, retrying individually: {}", batch.size(), e.getMessage());
+            batch.forEach(this::flushOne);
+        }
+    }
+
+    private void flushOne(PendingMessage pending) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> messageBatchRepository.insert(List.of(pending.message())));
+            pending.persisted().complete(pending.message());
+        } catch (Exception e) {
+            logger.error("Failed to write message {}: {}", pending.message().getId(), e.getMessage());
+            failedMessages.increment();
+            pending.persisted().completeExceptionally(e);
+        }
+    }
+}
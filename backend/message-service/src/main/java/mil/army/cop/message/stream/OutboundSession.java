@@ -0,0 +1,153 @@
+package mil.army.cop.message.stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One chat WebSocket session together with its bounded outbound queue.
+ *
+ * Senders only enqueue messages; the delivery executor drains the queue and performs
+ * the blocking socket writes, one drain task per session at a time, so writes to a
+ * session never overlap (which the underlying session does not allow) and a slow
+ * client never holds up a broadcast. Unlike position frames, chat messages cannot be
+ * dropped or coalesced, so a client that lets more than the buffer limit pile up is
+ * disconnected instead; it reconnects and catches up from history.
+ */
+public class OutboundSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboundSession.class);
+
+    private final WebSocketSession session;
+    private final Executor deliveryExecutor;
+    private final int bufferSizeLimit;
+
+    private final Deque<TextMessage> queue = new ArrayDeque<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    // Payload bytes (UTF-16 length) waiting in the queue, guarded by the queue
+    private int queuedBytes;
+    // System.nanoTime() when the write in progress started, 0 when none is
+    private volatile long writeStartedNanos;
+    private volatile boolean closed;
+
+    /**
+     * @param bufferSizeLimit the most payload that may wait in the queue before the session is disconnected
+     */
+    public OutboundSession(WebSocketSession session, Executor deliveryExecutor, int bufferSizeLimit) {
+        this.session = session;
+        this.deliveryExecutor = deliveryExecutor;
+        this.bufferSizeLimit = bufferSizeLimit;
+    }
+
+    /**
+     * Queues a message for delivery.
+     *
+     * @return {@code false} if the session is closed, or was closed because the message overflowed its buffer
+     */
+    public boolean offer(TextMessage message) {
+        if (closed) {
+            return false;
+        }
+        boolean overflowed = false;
+        synchronized (queue) {
+            if (queuedBytes + message.getPayloadLength() > bufferSizeLimit) {
+                overflowed = true;
+            } else {
+                queue.add(message);
+                queuedBytes += message.getPayloadLength();
+            }
+        }
+        if (overflowed) {
+            close(CloseStatus.SESSION_NOT_RELIABLE.withReason("Outbound buffer limit exceeded"));
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * Discards anything still queued and closes the underlying session.
+     */
+    public void close(CloseStatus status) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        synchronized (queue) {
+            queue.clear();
+            queuedBytes = 0;
+        }
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            logger.debug("Failed to close WebSocket session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    public WebSocketSession getSession() { return session; }
+
+    public boolean isClosed() { return closed; }
+
+    /**
+     * Whether a single write has been blocked for longer than {@code timeoutNanos}.
+     */
+    public boolean isStalled(long timeoutNanos) {
+        long started = writeStartedNanos;
+        return started != 0 && System.nanoTime() - started > timeoutNanos;
+    }
+
+    public int getQueuedMessages() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    public int getQueuedBytes() {
+        synchronized (queue) {
+            return queuedBytes;
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            deliveryExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        do {
+            TextMessage message;
+            while ((message = poll()) != null) {
+                writeStartedNanos = System.nanoTime();
+                try {
+                    session.sendMessage(message);
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Failed to send to WebSocket session {}: {}", session.getId(), e.getMessage());
+                    close(CloseStatus.SESSION_NOT_RELIABLE);
+                    return;
+                } finally {
+                    writeStartedNanos = 0;
+                }
+            }
+            draining.set(false);
+        } while (!closed && getQueuedMessages() > 0 && draining.compareAndSet(false, true));
+    }
+
+    private TextMessage poll() {
+        synchronized (queue) {
+            TextMessage message = queue.poll();
+            if (message != null) {
+                queuedBytes -= message.getPayloadLength();
+            }
+            return message;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- Keyset pagination of a channel's history on (created_at, id); also serves plain channel_id lookups
+CREATE INDEX idx_messages_channel_created_id ON messages.messages(channel_id, created_at, id);
+
+DROP INDEX IF EXISTS messages.idx_messages_channel_id;
@@ -0,0 +1,22 @@
+-- Commit-ordered position of each message, for polling a channel forward with `after` cursors.
+-- created_at is stamped before a message is queued for the group commit, so a message can become
+-- visible after a newer one and be skipped by a (created_at, id) cursor. seq is taken from the
+-- sequence while MessageBatchRepository holds an advisory lock that is released on commit, so a
+-- message is never visible before one with a lower seq.
+CREATE SEQUENCE messages.messages_seq_seq;
+
+ALTER TABLE messages.messages ADD COLUMN seq BIGINT;
+
+-- Existing messages are all committed; number them in creation order
+UPDATE messages.messages m SET seq = o.seq
+FROM (SELECT id, row_number() OVER (ORDER BY created_at, id) AS seq FROM messages.messages) o
+WHERE m.id = o.id;
+
+SELECT setval('messages.messages_seq_seq', COALESCE((SELECT max(seq) FROM messages.messages), 0) + 1, false);
+
+ALTER TABLE messages.messages
+    ALTER COLUMN seq SET DEFAULT nextval('messages.messages_seq_seq'),
+    ALTER COLUMN seq SET NOT NULL;
+ALTER SEQUENCE messages.messages_seq_seq OWNED BY messages.messages.seq;
+
+CREATE INDEX idx_messages_channel_seq ON messages.messages(channel_id, seq);
@@ -0,0 +1,20 @@
+-- Take seq under a per-channel advisory lock instead of the writer's global one, so writers
+-- on different channels never wait for each other. The trigger covers every insert path
+-- (the group commit, JPA, manual SQL). A transaction draws a channel's seq only while holding
+-- that channel's lock, which is released when it commits, so within a channel no message
+-- becomes visible after one with a higher seq. The key is the channel id's first 64 bits,
+-- the same as UUID.getMostSignificantBits(), so writers can lock channels in a known order.
+-- The trigger assigns seq; a column default would only burn a sequence value per row
+ALTER TABLE messages.messages ALTER COLUMN seq DROP DEFAULT;
+
+CREATE FUNCTION messages.assign_message_seq() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(('x' || translate(NEW.channel_id::text, '-', ''))::bit(64)::bigint);
+    NEW.seq := nextval('messages.messages_seq_seq');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_messages_assign_seq
+    BEFORE INSERT ON messages.messages
+    FOR EACH ROW EXECUTE FUNCTION messages.assign_message_seq();
@@ -0,0 +1,48 @@
+package mil.army.cop.message.entity;
+
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChannelMembersListenerTest {
+
+    private final ChannelCacheInvalidator channelCacheInvalidator = mock(ChannelCacheInvalidator.class);
+    private ChannelMembersListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new ChannelMembersListener();
+        ReflectionTestUtils.setField(listener, "channelCacheInvalidator", channelCacheInvalidator);
+    }
+
+    @Test
+    void onPostUpdateCollection_OfChannelMembers_ShouldInvalidateChannel() {
+        Channel command = new Channel("Command", null, Channel.ChannelType.COMMAND, UUID.randomUUID(), "cdr", Set.of("cdr"));
+        PostCollectionUpdateEvent event = mock(PostCollectionUpdateEvent.class);
+        when(event.getAffectedOwnerOrNull()).thenReturn(command);
+
+        listener.onPostUpdateCollection(event);
+
+        verify(channelCacheInvalidator).invalidate(command);
+    }
+
+    @Test
+    void onPostUpdateCollection_OfOtherEntity_ShouldBeIgnored() {
+        PostCollectionUpdateEvent event = mock(PostCollectionUpdateEvent.class);
+        when(event.getAffectedOwnerOrNull()).thenReturn(new Message());
+
+        listener.onPostUpdateCollection(event);
+
+        verify(channelCacheInvalidator, never()).invalidate(any());
+    }
+}
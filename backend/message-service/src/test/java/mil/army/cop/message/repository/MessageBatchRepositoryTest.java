@@ -0,0 +1,47 @@
+package mil.army.cop.message.repository;
+
+import mil.army.cop.message.dto.MessageDto;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class MessageBatchRepositoryTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void insert_ShouldOrderRowsByChannelLockKeyKeepingEachChannelsOrder() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        MessageBatchRepository repository = new MessageBatchRepository();
+        ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+        UUID low = new UUID(-5, 1);
+        UUID high = new UUID(7, 1);
+        MessageDto first = message(high);
+        MessageDto second = message(low);
+        MessageDto third = message(high);
+        MessageDto fourth = message(low);
+
+        repository.insert(List.of(first, second, third, fourth));
+
+        ArgumentCaptor<List<MessageDto>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), anyInt(), any());
+        assertThat(rows.getValue()).containsExactly(second, fourth, first, third);
+    }
+
+    private static MessageDto message(UUID channelId) {
+        MessageDto message = new MessageDto();
+        message.setId(UUID.randomUUID());
+        message.setChannelId(channelId);
+        return message;
+    }
+}
@@ -0,0 +1,67 @@
+package mil.army.cop.message.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mil.army.cop.message.entity.Channel;
+import mil.army.cop.message.repository.ChannelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChannelCacheTest {
+
+    private final UUID operationId = UUID.randomUUID();
+    private final ChannelRepository channelRepository = mock(ChannelRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ChannelCache channelCache;
+    private Channel general;
+
+    @BeforeEach
+    void setUp() {
+        general = new Channel("General", null, Channel.ChannelType.GENERAL, operationId, "admin", Set.of("admin", "unit1"));
+        general.setId(UUID.randomUUID());
+        when(channelRepository.findByOperationIdAndType(operationId, Channel.ChannelType.GENERAL)).thenReturn(List.of(general));
+
+        channelCache = new ChannelCache();
+        ReflectionTestUtils.setField(channelCache, "channelRepository", channelRepository);
+        ReflectionTestUtils.setField(channelCache, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(channelCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(channelCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(channelCache, "maxAgeSeconds", 300L);
+        channelCache.init();
+    }
+
+    @Test
+    void getByOperationAndType_Repeated_ShouldQueryOnce() {
+        channelCache.getByOperationAndType(operationId, Channel.ChannelType.GENERAL);
+        List<ChannelCache.CachedChannel> channels = channelCache.getByOperationAndType(operationId, Channel.ChannelType.GENERAL);
+
+        assertThat(channels).extracting(ChannelCache.CachedChannel::id).containsExactly(general.getId());
+        assertThat(channels.get(0).members()).containsExactlyInAnyOrder("admin", "unit1");
+        verify(channelRepository, times(1)).findByOperationIdAndType(operationId, Channel.ChannelType.GENERAL);
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "messages.channels.operation").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidate_ShouldReloadChangedChannel() {
+        channelCache.getByOperationAndType(operationId, Channel.ChannelType.GENERAL);
+        general.setName("General (renamed)");
+
+        channelCache.invalidate(general.getId(), operationId);
+
+        assertThat(channelCache.getByOperationAndType(operationId, Channel.ChannelType.GENERAL).get(0).name())
+                .isEqualTo("General (renamed)");
+        verify(channelRepository, times(2)).findByOperationIdAndType(operationId, Channel.ChannelType.GENERAL);
+    }
+}
@@ -0,0 +1,178 @@
+package mil.army.cop.message.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mil.army.cop.message.dto.ChannelHeadDto;
+import mil.army.cop.message.dto.MessageDto;
+import mil.army.cop.message.dto.MessageHistoryPageDto;
+import mil.army.cop.message.entity.Channel;
+import mil.army.cop.message.history.MessageCursor;
+import mil.army.cop.message.repository.MessageHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MessageHistoryServiceTest {
+
+    private final UUID operationId = UUID.randomUUID();
+    private final ChannelCache channelCache = mock(ChannelCache.class);
+    private final MessageHistoryRepository messageHistoryRepository = mock(MessageHistoryRepository.class);
+    private final ChannelCache.CachedChannel command =
+            new ChannelCache.CachedChannel(UUID.randomUUID(), operationId, Channel.ChannelType.COMMAND, "Command", Set.of("cdr"));
+    private MessageHistoryService messageHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        when(channelCache.get(command.id())).thenReturn(Optional.of(command));
+
+        messageHistoryService = new MessageHistoryService();
+        ReflectionTestUtils.setField(messageHistoryService, "messageHistoryRepository", messageHistoryRepository);
+        ReflectionTestUtils.setField(messageHistoryService, "channelCache", channelCache);
+        ReflectionTestUtils.setField(messageHistoryService, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(messageHistoryService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(messageHistoryService, "maxPageSize", 200);
+        messageHistoryService.init();
+    }
+
+    @Test
+    void getPage_MoreThanLimit_ShouldReturnCursorToLastMessage() {
+        List<MessageHistoryRepository.Entry> newestFirst = entries(3);
+        when(messageHistoryRepository.findBefore(command.id(), null, 3)).thenReturn(newestFirst);
+
+        MessageHistoryPageDto page = messageHistoryService.getPage(command.id(), "cdr", null, null, 2).orElseThrow();
+
+        assertThat(page.getMessages()).hasSize(2);
+        MessageCursor next = MessageCursor.decode(page.getNextCursor());
+        assertThat(next.id()).isEqualTo(newestFirst.get(1).message().getId());
+        assertThat(next.createdAt()).isEqualTo(newestFirst.get(1).message().getCreatedAt());
+        assertThat(next.seq()).isEqualTo(newestFirst.get(1).seq());
+    }
+
+    @Test
+    void getPage_LastPage_ShouldHaveNoCursor() {
+        MessageCursor before = MessageCursor.of(messages(1).get(0), 7);
+        when(messageHistoryRepository.findBefore(eq(command.id()), eq(before), anyInt())).thenReturn(entries(1));
+
+        MessageHistoryPageDto page = messageHistoryService.getPage(command.id(), "cdr", before.encode(), null, 50).orElseThrow();
+
+        assertThat(page.getMessages()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getPage_After_ShouldContinueFromLastCommittedMessage() {
+        // Committed in this order although the second was created first
+        List<MessageHistoryRepository.Entry> committed = List.of(
+                new MessageHistoryRepository.Entry(messages(1).get(0), 12),
+                new MessageHistoryRepository.Entry(messages(2).get(1), 13));
+        MessageCursor after = MessageCursor.of(messages(1).get(0), 11);
+        when(messageHistoryRepository.findAfter(command.id(), after, 50)).thenReturn(committed);
+
+        MessageHistoryPageDto page = messageHistoryService.getPage(command.id(), "cdr", null, after.encode(), 50).orElseThrow();
+
+        assertThat(page.getMessages()).extracting(MessageDto::getId)
+                .containsExactly(committed.get(0).message().getId(), committed.get(1).message().getId());
+        assertThat(MessageCursor.decode(page.getNextCursor()).seq()).isEqualTo(13);
+    }
+
+    @Test
+    void getPage_AfterWithNothingNew_ShouldKeepTheCursor() {
+        MessageCursor after = MessageCursor.of(messages(1).get(0), 11);
+        when(messageHistoryRepository.findAfter(command.id(), after, 50)).thenReturn(List.of());
+
+        MessageHistoryPageDto page = messageHistoryService.getPage(command.id(), "cdr", null, after.encode(), 50).orElseThrow();
+
+        assertThat(page.getMessages()).isEmpty();
+        assertThat(MessageCursor.decode(page.getNextCursor())).isEqualTo(after);
+    }
+
+    @Test
+    void getPage_NewestThenAfterLatestCursor_ShouldPollFromTheChannelHead() {
+        List<MessageHistoryRepository.Entry> newestFirst = entries(2);
+        MessageHistoryRepository.Entry head = new MessageHistoryRepository.Entry(messages(1).get(0), 140);
+        when(messageHistoryRepository.findHead(command.id())).thenReturn(Optional.of(head));
+        when(messageHistoryRepository.findBefore(command.id(), null, 51)).thenReturn(newestFirst);
+
+        MessageHistoryPageDto newest = messageHistoryService.getPage(command.id(), "cdr", null, null, 50).orElseThrow();
+        assertThat(newest.getNextCursor()).isNull();
+        messageHistoryService.getPage(command.id(), "cdr", null, newest.getLatestCursor(), 50);
+
+        verify(messageHistoryRepository).findAfter(eq(command.id()), argThat(cursor -> cursor.seq() == 140), eq(50));
+    }
+
+    @Test
+    void getPage_EmptyChannel_ShouldOfferCursorFromTheStart() {
+        MessageHistoryPageDto page = messageHistoryService.getPage(command.id(), "cdr", null, null, 50).orElseThrow();
+
+        assertThat(page.getMessages()).isEmpty();
+        assertThat(MessageCursor.decode(page.getLatestCursor())).isEqualTo(MessageCursor.START);
+    }
+
+    @Test
+    void getPage_UserNotAdmitted_ShouldBeEmpty() {
+        assertThat(messageHistoryService.getPage(command.id(), "rifleman", null, null, 50)).isEmpty();
+        verify(messageHistoryRepository, never()).findBefore(any(), any(), anyInt());
+    }
+
+    @Test
+    void getPage_InvalidCursor_ShouldThrow() {
+        assertThatThrownBy(() -> messageHistoryService.getPage(command.id(), "cdr", "not-a-cursor", null, 50))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getChannelHeads_ShouldOnlyListAdmittedChannelsWithTheirNewestMessage() {
+        ChannelCache.CachedChannel general =
+                new ChannelCache.CachedChannel(UUID.randomUUID(), operationId, Channel.ChannelType.GENERAL, "General", Set.of());
+        when(channelCache.getByOperationAndType(eq(operationId), any())).thenReturn(List.of());
+        when(channelCache.getByOperationAndType(operationId, Channel.ChannelType.GENERAL)).thenReturn(List.of(general));
+        when(channelCache.getByOperationAndType(operationId, Channel.ChannelType.COMMAND)).thenReturn(List.of(command));
+        MessageDto newest = messages(1).get(0);
+        when(messageHistoryRepository.findLatest(List.of(general.id()))).thenReturn(Map.of(general.id(), newest));
+
+        List<ChannelHeadDto> heads = messageHistoryService.getChannelHeads(operationId, "sgt");
+
+        assertThat(heads).extracting(ChannelHeadDto::getChannelId).containsExactly(general.id());
+        assertThat(heads.get(0).getLatestMessage()).isSameAs(newest);
+    }
+
+    private static List<MessageHistoryRepository.Entry> entries(int count) {
+        List<MessageHistoryRepository.Entry> entries = new ArrayList<>();
+        List<MessageDto> messages = messages(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new MessageHistoryRepository.Entry(messages.get(i), 100 - i));
+        }
+        return entries;
+    }
+
+    private static List<MessageDto> messages(int count) {
+        List<MessageDto> messages = new ArrayList<>();
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        for (int i = 0; i < count; i++) {
+            MessageDto message = new MessageDto();
+            message.setId(UUID.randomUUID());
+            message.setCreatedAt(createdAt.minusSeconds(i));
+            messages.add(message);
+        }
+        return messages;
+    }
+}
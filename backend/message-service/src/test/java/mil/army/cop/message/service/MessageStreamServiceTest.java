@@ -0,0 +1,130 @@
+package mil.army.cop.message.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mil.army.cop.message.dto.MessageDto;
+import mil.army.cop.message.dto.WebSocketMessageDto;
+import mil.army.cop.message.entity.Channel;
+import mil.army.cop.shared.exception.CopException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MessageStreamServiceTest {
+
+    private final UUID operationId = UUID.randomUUID();
+    private final ChannelCache channelCache = mock(ChannelCache.class);
+    private final MessageWriter messageWriter = mock(MessageWriter.class);
+    private final ChannelCache.CachedChannel general =
+            new ChannelCache.CachedChannel(UUID.randomUUID(), operationId, Channel.ChannelType.GENERAL, "General", Set.of());
+    private final ChannelCache.CachedChannel command =
+            new ChannelCache.CachedChannel(UUID.randomUUID(), operationId, Channel.ChannelType.COMMAND, "Command", Set.of("cdr"));
+    private MessageStreamService messageStreamService;
+
+    @BeforeEach
+    void setUp() {
+        when(channelCache.getByOperationAndType(operationId, Channel.ChannelType.GENERAL)).thenReturn(List.of(general));
+        when(channelCache.get(general.id())).thenReturn(Optional.of(general));
+        when(channelCache.get(command.id())).thenReturn(Optional.of(command));
+        when(messageWriter.write(any())).thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+
+        messageStreamService = new MessageStreamService();
+        ReflectionTestUtils.setField(messageStreamService, "channelCache", channelCache);
+        ReflectionTestUtils.setField(messageStreamService, "messageWriter", messageWriter);
+        ReflectionTestUtils.setField(messageStreamService, "messageBroadcastExecutor", new ExecutorServiceAdapter(new SyncTaskExecutor()));
+        ReflectionTestUtils.setField(messageStreamService, "messageDeliveryExecutor", new ExecutorServiceAdapter(new SyncTaskExecutor()));
+        ReflectionTestUtils.setField(messageStreamService, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(messageStreamService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(messageStreamService, "bufferSizeLimit", 65536);
+        messageStreamService.init();
+    }
+
+    @Test
+    void subscribe_NonMemberToCommandChannel_ShouldBeRefused() {
+        WebSocketSession session = openSession();
+        messageStreamService.addSession(operationId, session, "rifleman");
+
+        assertThatThrownBy(() -> messageStreamService.subscribe(session, command.id()))
+                .isInstanceOf(CopException.class)
+                .hasMessageContaining("Channel not found");
+    }
+
+    @Test
+    void processMessage_CommandChannel_ShouldOnlyReachItsSubscribers() throws Exception {
+        WebSocketSession commander = openSession();
+        WebSocketSession rifleman = openSession();
+        messageStreamService.addSession(operationId, commander, "cdr");
+        messageStreamService.addSession(operationId, rifleman, "rifleman");
+        messageStreamService.subscribe(commander, command.id());
+
+        WebSocketMessageDto messageDto = new WebSocketMessageDto();
+        messageDto.setChannelId(command.id());
+        messageDto.setSenderId("cdr");
+        messageDto.setSenderName("Commander");
+        messageDto.setContent("Move at dawn");
+        messageStreamService.processMessage(operationId, commander, messageDto);
+
+        verify(commander).sendMessage(any(TextMessage.class));
+        verify(rifleman, never()).sendMessage(any());
+    }
+
+    @Test
+    void broadcastToChannel_AfterMemberRemovedWithoutInvalidation_ShouldStopReachingThem() throws Exception {
+        WebSocketSession commander = openSession();
+        WebSocketSession deputy = openSession();
+        messageStreamService.addSession(operationId, commander, "cdr");
+        messageStreamService.addSession(operationId, deputy, "xo");
+        when(channelCache.get(command.id())).thenReturn(Optional.of(new ChannelCache.CachedChannel(
+                command.id(), operationId, Channel.ChannelType.COMMAND, "Command", Set.of("cdr", "xo"))));
+        messageStreamService.subscribe(commander, command.id());
+        messageStreamService.subscribe(deputy, command.id());
+
+        // As after the cache entry expired and was reloaded from a change made on another replica
+        when(channelCache.get(command.id())).thenReturn(Optional.of(command));
+        messageStreamService.broadcastToChannel(command.id(), "new_message", "Move at dawn");
+        messageStreamService.broadcastToChannel(command.id(), "new_message", "Hold the bridge");
+
+        verify(commander, times(2)).sendMessage(any(TextMessage.class));
+        verify(deputy, never()).sendMessage(any());
+    }
+
+    @Test
+    void processMessage_NonMemberPostingToCommandChannel_ShouldBeRefused() {
+        WebSocketSession rifleman = openSession();
+        messageStreamService.addSession(operationId, rifleman, "rifleman");
+
+        WebSocketMessageDto messageDto = new WebSocketMessageDto();
+        messageDto.setChannelId(command.id());
+        messageDto.setContent("Hello?");
+
+        assertThatThrownBy(() -> messageStreamService.processMessage(operationId, rifleman, messageDto))
+                .isInstanceOf(CopException.class);
+        verify(messageWriter, never()).write(any(MessageDto.class));
+    }
+
+    private static WebSocketSession openSession() {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getId()).thenReturn(UUID.randomUUID().toString());
+        return session;
+    }
+}
@@ -0,0 +1,102 @@
+package mil.army.cop.message.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mil.army.cop.message.dto.MessageDto;
+import mil.army.cop.message.entity.Message;
+import mil.army.cop.message.repository.MessageBatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class MessageWriterTest {
+
+    private final MessageBatchRepository messageBatchRepository = mock(MessageBatchRepository.class);
+    private final List<List<UUID>> insertedBatches = new ArrayList<>();
+    private MessageWriter messageWriter;
+
+    @BeforeEach
+    void setUp() {
+        messageWriter = new MessageWriter();
+        ReflectionTestUtils.setField(messageWriter, "messageBatchRepository", messageBatchRepository);
+        ReflectionTestUtils.setField(messageWriter, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(messageWriter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(messageWriter, "queueCapacity", 100);
+        ReflectionTestUtils.setField(messageWriter, "batchSize", 50);
+        ReflectionTestUtils.setField(messageWriter, "maxDelayMs", 200L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        messageWriter.shutdown();
+    }
+
+    @Test
+    void write_MessagesWithinDelay_ShouldInsertOneBatch() throws Exception {
+        recordInserts(null);
+        messageWriter.init();
+
+        List<CompletableFuture<MessageDto>> persisted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            persisted.add(messageWriter.write(message("hello " + i)));
+        }
+        CompletableFuture.allOf(persisted.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(insertedBatches).hasSize(1);
+        assertThat(insertedBatches.get(0)).containsExactlyElementsOf(persisted.stream().map(f -> f.join().getId()).toList());
+    }
+
+    @Test
+    void write_BatchFails_ShouldOnlyFailTheBadMessage() throws Exception {
+        MessageDto bad = message("bad");
+        recordInserts(bad.getId());
+        messageWriter.init();
+
+        CompletableFuture<MessageDto> good = messageWriter.write(message("good"));
+        CompletableFuture<MessageDto> failed = messageWriter.write(bad);
+
+        assertThat(good.get(5, TimeUnit.SECONDS).getContent()).isEqualTo("good");
+        assertThat(failed).failsWithin(5, TimeUnit.SECONDS);
+    }
+
+    private void recordInserts(UUID failingId) {
+        doAnswer(invocation -> {
+            List<MessageDto> messages = invocation.getArgument(0);
+            List<UUID> ids = messages.stream().map(MessageDto::getId).toList();
+            if (ids.contains(failingId)) {
+                throw new DataIntegrityViolationException("channel_id violates foreign key");
+            }
+            synchronized (insertedBatches) {
+                insertedBatches.add(ids);
+            }
+            return null;
+        }).when(messageBatchRepository).insert(anyList());
+    }
+
+    private static MessageDto message(String content) {
+        MessageDto message = new MessageDto();
+        message.setId(UUID.randomUUID());
+        message.setChannelId(UUID.randomUUID());
+        message.setSenderId("unit1");
+        message.setSenderName("Unit 1");
+        message.setContent(content);
+        message.setType(Message.MessageType.TEXT);
+        message.setPriority(Message.MessagePriority.NORMAL);
+        message.setCreatedAt(LocalDateTime.now());
+        return message;
+    }
+}
@@ -0,0 +1,55 @@
+package mil.army.cop.message.stream;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class OutboundSessionTest {
+
+    private final WebSocketSession session = mock(WebSocketSession.class);
+    // Collects drain tasks instead of running them, as a busy delivery pool would
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+
+    @Test
+    void offer_WithinBufferLimit_ShouldDeliverInOrder() throws Exception {
+        OutboundSession outbound = new OutboundSession(session, pendingDrains::add, 100);
+
+        assertThat(outbound.offer(new TextMessage("first"))).isTrue();
+        assertThat(outbound.offer(new TextMessage("second"))).isTrue();
+        assertThat(pendingDrains).hasSize(1);
+        assertThat(outbound.getQueuedMessages()).isEqualTo(2);
+
+        pendingDrains.get(0).run();
+
+        InOrder inOrder = inOrder(session);
+        inOrder.verify(session).sendMessage(new TextMessage("first"));
+        inOrder.verify(session).sendMessage(new TextMessage("second"));
+        assertThat(outbound.getQueuedBytes()).isZero();
+    }
+
+    @Test
+    void offer_OverBufferLimit_ShouldDisconnectSession() throws Exception {
+        OutboundSession outbound = new OutboundSession(session, pendingDrains::add, 10);
+
+        assertThat(outbound.offer(new TextMessage("12345678"))).isTrue();
+        assertThat(outbound.offer(new TextMessage("123"))).isFalse();
+
+        assertThat(outbound.isClosed()).isTrue();
+        assertThat(outbound.getQueuedMessages()).isZero();
+        verify(session).close(any(CloseStatus.class));
+        pendingDrains.forEach(Runnable::run);
+        verify(session, never()).sendMessage(any());
+    }
+}
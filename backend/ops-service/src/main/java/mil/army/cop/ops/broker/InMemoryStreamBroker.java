@@ -0,0 +1,38 @@
+package mil.army.cop.ops.broker;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Broker for a single node, or for several nodes in one JVM sharing a {@link Hub}.
+ */
+public class InMemoryStreamBroker implements StreamBroker {
+
+    private final Hub hub;
+
+    public InMemoryStreamBroker() {
+        this(new Hub());
+    }
+
+    public InMemoryStreamBroker(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void publish(StreamMessage message) {
+        hub.handlers.forEach(handler -> handler.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<StreamMessage> handler) {
+        hub.handlers.add(handler);
+    }
+
+    /**
+     * The shared channel of the brokers attached to it.
+     */
+    public static class Hub {
+        private final List<Consumer<StreamMessage>> handlers = new CopyOnWriteArrayList<>();
+    }
+}
@@ -0,0 +1,58 @@
+package mil.army.cop.ops.broker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Redis pub/sub broker. Each message is serialized once by the publishing node and
+ * deserialized once by every node; delivery is at-most-once, which resume via
+ * Last-Event-ID and snapshots already tolerate.
+ */
+public class RedisStreamBroker implements StreamBroker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisStreamBroker.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final ChannelTopic topic;
+
+    public RedisStreamBroker(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+                             ObjectMapper objectMapper, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.topic = new ChannelTopic(channel);
+    }
+
+    @Override
+    public void publish(StreamMessage message) {
+        try {
+            redisTemplate.convertAndSend(topic.getTopic(), objectMapper.writeValueAsString(message));
+        } catch (Exception e) {
+            // Local subscribers already have the update; other nodes miss it until clients resume
+            logger.error("Failed to publish stream message for operation {}: {}", message.getOperationId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<StreamMessage> handler) {
+        MessageListener listener = (Message message, byte[] pattern) -> {
+            try {
+                handler.accept(objectMapper.readValue(message.getBody(), StreamMessage.class));
+            } catch (IOException e) {
+                logger.error("Dropping unreadable stream message: {}", e.getMessage());
+            }
+        };
+        listenerContainer.addMessageListener(listener, topic);
+    }
+}
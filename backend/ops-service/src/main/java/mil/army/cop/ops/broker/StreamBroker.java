@@ -0,0 +1,20 @@
+package mil.army.cop.ops.broker;
+
+import java.util.function.Consumer;
+
+/**
+ * Fan-out of stream traffic between ops-service replicas.
+ *
+ * Every node publishes what it broadcasts and delivers what it receives to its own
+ * subscribers. Implementations deliver a node's own messages back to it as well; the
+ * receiver drops them by {@link StreamMessage#getOrigin()}.
+ */
+public interface StreamBroker {
+
+    void publish(StreamMessage message);
+
+    /**
+     * Registers the handler for messages from the cluster. Called once at startup.
+     */
+    void subscribe(Consumer<StreamMessage> handler);
+}
@@ -0,0 +1,59 @@
+package mil.army.cop.ops.broker;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import mil.army.cop.ops.dto.UnitPositionDto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One broadcast as exchanged between nodes. Carries the data rather than encoded frames,
+ * because each node encodes per subscriber region and format.
+ */
+public class StreamMessage {
+
+    public enum Kind {
+        POSITION_UPDATE, POSITION_BATCH, OPERATION_EVENT
+    }
+
+    private String origin;
+    private UUID operationId;
+    private Kind kind;
+    private List<UnitPositionDto> positions;
+    private String eventType;
+    private JsonNode eventData;
+    // Epoch milliseconds on the publishing node, for hop latency
+    private long publishedAt;
+
+    // Constructors
+    public StreamMessage() {}
+
+    public StreamMessage(String origin, UUID operationId, Kind kind) {
+        this.origin = origin;
+        this.operationId = operationId;
+        this.kind = kind;
+        this.publishedAt = System.currentTimeMillis();
+    }
+
+    // Getters and Setters
+    public String getOrigin() { return origin; }
+    public void setOrigin(String origin) { this.origin = origin; }
+
+    public UUID getOperationId() { return operationId; }
+    public void setOperationId(UUID operationId) { this.operationId = operationId; }
+
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+
+    public List<UnitPositionDto> getPositions() { return positions; }
+    public void setPositions(List<UnitPositionDto> positions) { this.positions = positions; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public JsonNode getEventData() { return eventData; }
+    public void setEventData(JsonNode eventData) { this.eventData = eventData; }
+
+    public long getPublishedAt() { return publishedAt; }
+    public void setPublishedAt(long publishedAt) { this.publishedAt = publishedAt; }
+}
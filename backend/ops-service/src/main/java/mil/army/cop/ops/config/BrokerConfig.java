@@ -0,0 +1,45 @@
+package mil.army.cop.ops.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mil.army.cop.ops.broker.InMemoryStreamBroker;
+import mil.army.cop.ops.broker.RedisStreamBroker;
+import mil.army.cop.ops.broker.StreamBroker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Selects the cross-node stream broker with {@code app.ops.broker.type}: {@code memory}
+ * for a single replica (the default), {@code redis} when running several behind a
+ * load balancer.
+ */
+@Configuration
+public class BrokerConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.ops.broker.type", havingValue = "memory", matchIfMissing = true)
+    public StreamBroker inMemoryStreamBroker() {
+        return new InMemoryStreamBroker();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.ops.broker.type", havingValue = "redis")
+    public RedisMessageListenerContainer streamListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.ops.broker.type", havingValue = "redis")
+    public StreamBroker redisStreamBroker(StringRedisTemplate redisTemplate,
+                                          RedisMessageListenerContainer streamListenerContainer,
+                                          ObjectMapper objectMapper,
+                                          @Value("${app.ops.broker.redis.channel:cop:ops:stream}") String channel) {
+        return new RedisStreamBroker(redisTemplate, streamListenerContainer, objectMapper, channel);
+    }
+}
@@ -0,0 +1,13 @@
+package mil.army.cop.ops.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the service's {@code @Scheduled} jobs. They run on Boot's scheduler, sized by
+ * {@code spring.task.scheduling.pool.size}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,19 @@
+package mil.army.cop.ops.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class SnapshotConfig {
+
+    // Loads the local parts of an operation snapshot; downstream services are called without blocking
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService snapshotExecutor(@Value("${app.ops.snapshot.threads:8}") int threads) {
+        return Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("snapshot-"));
+    }
+}
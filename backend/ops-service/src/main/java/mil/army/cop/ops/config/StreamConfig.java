@@ -0,0 +1,32 @@
+package mil.army.cop.ops.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class StreamConfig {
+
+    // Drains SseSubscriber outboxes; socket writes to slow clients block here, not on request threads.
+    // Keeps delivery-threads alive and starts more while they are all busy, so clients blocked in a
+    // write (at most one drain each, released by the connector's write timeout) cannot starve the rest
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService sseDeliveryExecutor(@Value("${app.ops.stream.delivery-threads:16}") int deliveryThreads) {
+        return new ThreadPoolExecutor(deliveryThreads, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new CustomizableThreadFactory("sse-delivery-"));
+    }
+
+    // Flushes rate-limited delta position feeds; encoding only, the writes go through sseDeliveryExecutor
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService sseDeltaScheduler(@Value("${app.ops.stream.delta.threads:2}") int deltaThreads) {
+        return Executors.newScheduledThreadPool(deltaThreads, new CustomizableThreadFactory("sse-delta-"));
+    }
+}
@@ -0,0 +1,25 @@
+package mil.army.cop.ops.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mil.army.cop.shared.tile.TileCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class TileConfig {
+
+    // Unit layer vector tiles, invalidated as unit positions are written
+    @Bean
+    public TileCache unitTileCache(@Value("${app.ops.tiles.cache-max-bytes:67108864}") long maxBytes,
+                                   @Value("${app.ops.tiles.max-zoom:20}") int maxZoom,
+                                   @Value("${app.ops.tiles.max-age-s:30}") long maxAgeSeconds,
+                                   MeterRegistry meterRegistry) {
+        TileCache cache = new TileCache(maxBytes, maxZoom, Duration.ofSeconds(maxAgeSeconds));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.getNativeCache(), "ops.tiles.units");
+        return cache;
+    }
+}
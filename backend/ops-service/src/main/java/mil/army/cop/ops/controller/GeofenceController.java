@@ -0,0 +1,56 @@
+package mil.army.cop.ops.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import mil.army.cop.ops.dto.CreateGeofenceDto;
+import mil.army.cop.ops.dto.GeofenceDto;
+import mil.army.cop.ops.service.GeofenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/ops/{operationId}/geofences")
+@Tag(name = "Geofences", description = "Boundaries and phase lines that raise crossing events")
+public class GeofenceController {
+
+    @Autowired
+    private GeofenceService geofenceService;
+
+    @GetMapping
+    @Operation(summary = "List the boundaries and phase lines of an operation")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT') or hasRole('OBSERVER')")
+    public ResponseEntity<List<GeofenceDto>> getGeofences(@PathVariable UUID operationId) {
+        return ResponseEntity.ok(geofenceService.getGeofences(operationId));
+    }
+
+    @PostMapping
+    @Operation(summary = "Add a boundary (GeoJSON Polygon) or phase line (GeoJSON LineString)")
+    @PreAuthorize("hasRole('HQ')")
+    public ResponseEntity<GeofenceDto> createGeofence(@PathVariable UUID operationId,
+                                                      @RequestBody CreateGeofenceDto createDto,
+                                                      Authentication authentication) {
+        return geofenceService.createGeofence(operationId, createDto, authentication.getName())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{geofenceId}")
+    @Operation(summary = "Remove a boundary or phase line")
+    @PreAuthorize("hasRole('HQ')")
+    public ResponseEntity<Void> deleteGeofence(@PathVariable UUID operationId, @PathVariable UUID geofenceId) {
+        return geofenceService.deleteGeofence(operationId, geofenceId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidGeofence(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
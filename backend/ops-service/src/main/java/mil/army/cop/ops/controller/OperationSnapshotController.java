@@ -0,0 +1,31 @@
+package mil.army.cop.ops.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import mil.army.cop.ops.dto.OperationSnapshotDto;
+import mil.army.cop.ops.service.OperationSnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/ops")
+@Tag(name = "Operation Snapshot", description = "Everything needed to open an operation in one call")
+public class OperationSnapshotController {
+
+    @Autowired
+    private OperationSnapshotService operationSnapshotService;
+
+    @GetMapping("/{operationId}/snapshot")
+    @Operation(summary = "Units, active tasks, channels with their newest message and latest events of an operation; parts that could not be fetched in time are listed in unavailable")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT') or hasRole('OBSERVER')")
+    public ResponseEntity<OperationSnapshotDto> getSnapshot(@PathVariable UUID operationId, Authentication authentication) {
+        return operationSnapshotService.getSnapshot(operationId, authentication)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -2,13 +2,26 @@ package mil.army.cop.ops.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import mil.army.cop.ops.dto.BulkPositionUpdateResultDto;
+import mil.army.cop.ops.dto.UnitPositionUpdateDto;
+import mil.army.cop.ops.service.PositionIngestService;
 import mil.army.cop.ops.service.UnitStreamService;
+import mil.army.cop.ops.state.UnitClusterIndex;
+import mil.army.cop.ops.stream.PositionFormat;
+import mil.army.cop.ops.stream.PositionStreamOptions;
+import mil.army.cop.ops.stream.Regions;
+import mil.army.cop.shared.dto.GeoJsonDto;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,27 +32,118 @@ public class StreamController {
     @Autowired
     private UnitStreamService unitStreamService;
 
+    @Autowired
+    private PositionIngestService positionIngestService;
+
+    @Autowired
+    private UnitClusterIndex unitClusterIndex;
+
+    @Autowired
+    private GeometryFactory geometryFactory;
+
     @GetMapping(value = "/{operationId}/stream/positions", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    @Operation(summary = "Stream unit positions for Blue Force Tracking")
+    @Operation(summary = "Stream unit positions for Blue Force Tracking (mode=delta&interval=ms for rate-limited deltas, format=binary for base64 binary frames, smoothing=true for dead-reckoned positions between reports, mode=cluster&zoom= or &cellSizeDeg= for per-cell unit clusters)")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT') or hasRole('OBSERVER')")
+    public SseEmitter streamUnitPositions(
+            @PathVariable UUID operationId,
+            @RequestParam(required = false) String bbox,
+            @RequestParam(defaultValue = "full") String mode,
+            @RequestParam(defaultValue = "1000") long interval,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(defaultValue = "false") boolean smoothing,
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double cellSizeDeg,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        PositionStreamOptions options = new PositionStreamOptions();
+        options.setLastEventId(parseEventId(lastEventId));
+        options.setRegion(bbox != null ? Regions.fromBbox(bbox, geometryFactory) : null);
+        if ("delta".equalsIgnoreCase(mode)) {
+            options.setDeltaIntervalMs(interval);
+        } else if ("cluster".equalsIgnoreCase(mode)) {
+            options.setClusterZoom(unitClusterIndex.resolveZoom(zoom, cellSizeDeg));
+            options.setClusterIntervalMs(interval);
+        } else if (!"full".equalsIgnoreCase(mode)) {
+            throw new IllegalArgumentException("mode must be full, delta or cluster");
+        }
+        options.setFormat(PositionFormat.valueOf(format.toUpperCase()));
+        if (options.isDelta() && options.getFormat() != PositionFormat.JSON) {
+            throw new IllegalArgumentException("mode=delta is only available with format=json");
+        }
+        if (options.isClustered() && (options.getFormat() != PositionFormat.JSON || smoothing)) {
+            throw new IllegalArgumentException("mode=cluster is only available with format=json and without smoothing");
+        }
+        if (smoothing && options.isDelta()) {
+            throw new IllegalArgumentException("smoothing is only available with mode=full");
+        }
+        options.setSmoothing(smoothing);
+        return unitStreamService.createPositionStream(operationId, options);
+    }
+
+    @PutMapping("/{operationId}/stream/positions/{subscriptionId}/region")
+    @Operation(summary = "Move the region of an open position stream (bbox parameter or GeoJSON Polygon body)")
     @PreAuthorize("hasRole('HQ') or hasRole('UNIT') or hasRole('OBSERVER')")
-    public SseEmitter streamUnitPositions(@PathVariable UUID operationId) {
-        return unitStreamService.createPositionStream(operationId);
+    public ResponseEntity<Void> updatePositionStreamRegion(
+            @PathVariable UUID operationId,
+            @PathVariable UUID subscriptionId,
+            @RequestParam(required = false) String bbox,
+            @RequestBody(required = false) GeoJsonDto polygon) {
+        Geometry region = bbox != null
+                ? Regions.fromBbox(bbox, geometryFactory)
+                : polygon != null ? Regions.fromGeoJson(polygon, geometryFactory) : null;
+        return unitStreamService.updatePositionStreamRegion(operationId, subscriptionId, region)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
     }
 
     @GetMapping(value = "/{operationId}/stream/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @Operation(summary = "Stream operation events")
     @PreAuthorize("hasRole('HQ') or hasRole('UNIT')")
-    public SseEmitter streamOperationEvents(@PathVariable UUID operationId) {
-        return unitStreamService.createEventStream(operationId);
+    public SseEmitter streamOperationEvents(
+            @PathVariable UUID operationId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return unitStreamService.createEventStream(operationId, parseEventId(lastEventId));
     }
 
     @PostMapping("/{operationId}/units/{unitId}/position")
-    @Operation(summary = "Update unit position (triggers stream update)")
+    @Operation(summary = "Update unit position (triggers stream update); heading in degrees from north, speed in m/s")
     @PreAuthorize("hasRole('HQ') or hasRole('UNIT')")
-    public void updateUnitPosition(
+    public ResponseEntity<Void> updateUnitPosition(
             @PathVariable UUID operationId,
             @PathVariable String unitId,
             @RequestBody UnitPositionUpdateDto positionUpdate) {
-        unitStreamService.updateUnitPosition(operationId, unitId, positionUpdate);
+        if (!positionIngestService.submit(operationId, unitId, positionUpdate)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return positionIngestService.isAsync()
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/{operationId}/units/positions")
+    @Operation(summary = "Update many unit positions at once (gateway and convoy feeds); heading in degrees from north, speed in m/s")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT')")
+    public ResponseEntity<BulkPositionUpdateResultDto> updateUnitPositions(
+            @PathVariable UUID operationId,
+            @RequestBody List<UnitPositionUpdateDto> positionUpdates) {
+        boolean incomplete = positionUpdates.stream().anyMatch(update ->
+                update.getCallSign() == null || update.getLatitude() == null || update.getLongitude() == null);
+        if (incomplete) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(unitStreamService.updateUnitPositions(operationId, positionUpdates));
+    }
+
+    // An unparseable ID is treated like none, which answers with a full snapshot
+    private Long parseEventId(String lastEventId) {
+        try {
+            return lastEventId != null ? Long.valueOf(lastEventId.trim()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidParameter(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
     }
 }
@@ -0,0 +1,33 @@
+package mil.army.cop.ops.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import mil.army.cop.ops.service.UnitTileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/ops/tiles")
+@Tag(name = "Map Tiles", description = "Mapbox Vector Tiles for map layers")
+public class TileController {
+
+    private static final String MVT = "application/vnd.mapbox-vector-tile";
+
+    @Autowired
+    private UnitTileService unitTileService;
+
+    @GetMapping(value = "/units/{z}/{x}/{y}.mvt", produces = MVT)
+    @Operation(summary = "Unit layer vector tile (204 when the tile is empty)")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT') or hasRole('OBSERVER')")
+    public ResponseEntity<byte[]> getUnitTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        byte[] tile = unitTileService.getUnitTile(z, x, y);
+        return tile.length > 0 ? ResponseEntity.ok(tile) : ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidTile(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,67 @@
+package mil.army.cop.ops.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import mil.army.cop.ops.dto.TrackDto;
+import mil.army.cop.ops.service.PositionHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/ops")
+@Tag(name = "Track History", description = "Recorded unit tracks with optional downsampling")
+public class TrackController {
+
+    @Autowired
+    private PositionHistoryService positionHistoryService;
+
+    @GetMapping("/units/{callSign}/track")
+    @Operation(summary = "Track of one unit (bucketSeconds for time-bucket downsampling, toleranceMeters for Douglas-Peucker)")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT') or hasRole('OBSERVER')")
+    public ResponseEntity<TrackDto> getUnitTrack(
+            @PathVariable String callSign,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer bucketSeconds,
+            @RequestParam(required = false) Double toleranceMeters) {
+        validate(from, to, bucketSeconds, toleranceMeters);
+        return ResponseEntity.ok(positionHistoryService.getUnitTrack(callSign, from, to, bucketSeconds, toleranceMeters));
+    }
+
+    @GetMapping("/{operationId}/tracks")
+    @Operation(summary = "Tracks of all units reported under an operation in a time window")
+    @PreAuthorize("hasRole('HQ') or hasRole('OBSERVER')")
+    public ResponseEntity<List<TrackDto>> getOperationTracks(
+            @PathVariable UUID operationId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer bucketSeconds,
+            @RequestParam(required = false) Double toleranceMeters) {
+        validate(from, to, bucketSeconds, toleranceMeters);
+        return ResponseEntity.ok(positionHistoryService.getOperationTracks(operationId, from, to, bucketSeconds, toleranceMeters));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidParameter(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private void validate(LocalDateTime from, LocalDateTime to, Integer bucketSeconds, Double toleranceMeters) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (bucketSeconds != null && bucketSeconds < 1) {
+            throw new IllegalArgumentException("bucketSeconds must be positive");
+        }
+        if (toleranceMeters != null && toleranceMeters < 0) {
+            throw new IllegalArgumentException("toleranceMeters must not be negative");
+        }
+    }
+}
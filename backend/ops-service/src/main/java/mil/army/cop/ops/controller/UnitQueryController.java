@@ -0,0 +1,103 @@
+package mil.army.cop.ops.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import mil.army.cop.ops.dto.NearbyUnitDto;
+import mil.army.cop.ops.dto.UnitClusterDto;
+import mil.army.cop.ops.entity.Unit;
+import mil.army.cop.ops.service.UnitClusterService;
+import mil.army.cop.ops.service.UnitProximityService;
+import mil.army.cop.ops.state.UnitClusterIndex;
+import mil.army.cop.ops.stream.Regions;
+import mil.army.cop.shared.dto.GeoJsonDto;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/ops/units")
+@Tag(name = "Unit Proximity", description = "Spatial queries over live unit positions")
+public class UnitQueryController {
+
+    private static final int MAX_NEAREST = 1000;
+
+    @Autowired
+    private UnitProximityService unitProximityService;
+
+    @Autowired
+    private UnitClusterIndex unitClusterIndex;
+
+    @Autowired
+    private UnitClusterService unitClusterService;
+
+    @Autowired
+    private GeometryFactory geometryFactory;
+
+    @GetMapping("/nearby")
+    @Operation(summary = "Units within a radius of a point, nearest first")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT') or hasRole('OBSERVER')")
+    public ResponseEntity<List<NearbyUnitDto>> findNearby(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam double radiusKm,
+            @RequestParam(required = false) Unit.UnitStatus status) {
+        if (!isValidPoint(lat, lon) || radiusKm <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(unitProximityService.findWithinRadius(lat, lon, radiusKm, status));
+    }
+
+    @GetMapping("/nearest")
+    @Operation(summary = "The nearest units to a point, optionally of one status (e.g. FRIENDLY)")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT') or hasRole('OBSERVER')")
+    public ResponseEntity<List<NearbyUnitDto>> findNearest(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "5") int count,
+            @RequestParam(required = false) Unit.UnitStatus status) {
+        if (!isValidPoint(lat, lon) || count < 1 || count > MAX_NEAREST) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(unitProximityService.findNearest(lat, lon, count, status));
+    }
+
+    @PostMapping("/within")
+    @Operation(summary = "Units inside a GeoJSON Polygon")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT') or hasRole('OBSERVER')")
+    public ResponseEntity<List<NearbyUnitDto>> findWithin(
+            @RequestBody GeoJsonDto polygon,
+            @RequestParam(required = false) Unit.UnitStatus status) {
+        return ResponseEntity.ok(unitProximityService.findWithin(Regions.fromGeoJson(polygon, geometryFactory), status));
+    }
+
+    @GetMapping("/clusters")
+    @Operation(summary = "Counts by status, centroid and dominant unit type per grid cell of an operation's assigned units, for a map zoom or cell size (bbox=minLon,minLat,maxLon,maxLat)")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT') or hasRole('OBSERVER')")
+    public ResponseEntity<List<UnitClusterDto>> findClusters(
+            @RequestParam UUID operationId,
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double cellSizeDeg,
+            @RequestParam(required = false) String bbox) {
+        int level = unitClusterIndex.resolveZoom(zoom, cellSizeDeg);
+        Envelope bounds = bbox != null ? Regions.fromBbox(bbox, geometryFactory).getEnvelopeInternal() : null;
+        return ResponseEntity.ok(unitClusterService.clusters(operationId, level, bounds).stream()
+                .map(UnitClusterIndex.Snapshot::cluster)
+                .collect(Collectors.toList()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidGeometry(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private boolean isValidPoint(double lat, double lon) {
+        return lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180;
+    }
+}
@@ -0,0 +1,23 @@
+package mil.army.cop.ops.dto;
+
+import java.util.List;
+
+public class BulkPositionUpdateResultDto {
+    private int accepted;
+    private List<String> unknownUnits;
+
+    // Constructors
+    public BulkPositionUpdateResultDto() {}
+
+    public BulkPositionUpdateResultDto(int accepted, List<String> unknownUnits) {
+        this.accepted = accepted;
+        this.unknownUnits = unknownUnits;
+    }
+
+    // Getters and Setters
+    public int getAccepted() { return accepted; }
+    public void setAccepted(int accepted) { this.accepted = accepted; }
+
+    public List<String> getUnknownUnits() { return unknownUnits; }
+    public void setUnknownUnits(List<String> unknownUnits) { this.unknownUnits = unknownUnits; }
+}
@@ -0,0 +1,30 @@
+package mil.army.cop.ops.dto;
+
+import mil.army.cop.ops.entity.Geofence;
+import mil.army.cop.shared.dto.GeoJsonDto;
+
+public class CreateGeofenceDto {
+    private String name;
+    private Geofence.GeofenceType type;
+    // Polygon for BOUNDARY, LineString for PHASE_LINE
+    private GeoJsonDto geometry;
+
+    // Constructors
+    public CreateGeofenceDto() {}
+
+    public CreateGeofenceDto(String name, Geofence.GeofenceType type, GeoJsonDto geometry) {
+        this.name = name;
+        this.type = type;
+        this.geometry = geometry;
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Geofence.GeofenceType getType() { return type; }
+    public void setType(Geofence.GeofenceType type) { this.type = type; }
+
+    public GeoJsonDto getGeometry() { return geometry; }
+    public void setGeometry(GeoJsonDto geometry) { this.geometry = geometry; }
+}
@@ -0,0 +1,41 @@
+package mil.army.cop.ops.dto;
+
+import mil.army.cop.shared.dto.GeoJsonDto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class GeofenceDto {
+    private UUID id;
+    private UUID operationId;
+    private String name;
+    private String type;
+    private GeoJsonDto geometry;
+    private String createdBy;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public GeofenceDto() {}
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getOperationId() { return operationId; }
+    public void setOperationId(UUID operationId) { this.operationId = operationId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public GeoJsonDto getGeometry() { return geometry; }
+    public void setGeometry(GeoJsonDto geometry) { this.geometry = geometry; }
+
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
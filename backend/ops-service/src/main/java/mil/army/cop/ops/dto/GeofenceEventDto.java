@@ -0,0 +1,40 @@
+package mil.army.cop.ops.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class GeofenceEventDto {
+    // The operation ID when the fence is its area of interest
+    private UUID fenceId;
+    private String fenceName;
+    private String fenceType;
+    private String callSign;
+    private Double latitude;
+    private Double longitude;
+    private LocalDateTime timestamp;
+
+    // Constructors
+    public GeofenceEventDto() {}
+
+    // Getters and Setters
+    public UUID getFenceId() { return fenceId; }
+    public void setFenceId(UUID fenceId) { this.fenceId = fenceId; }
+
+    public String getFenceName() { return fenceName; }
+    public void setFenceName(String fenceName) { this.fenceName = fenceName; }
+
+    public String getFenceType() { return fenceType; }
+    public void setFenceType(String fenceType) { this.fenceType = fenceType; }
+
+    public String getCallSign() { return callSign; }
+    public void setCallSign(String callSign) { this.callSign = callSign; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+}
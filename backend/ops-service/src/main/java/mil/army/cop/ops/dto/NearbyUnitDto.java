@@ -0,0 +1,47 @@
+package mil.army.cop.ops.dto;
+
+import java.time.LocalDateTime;
+
+public class NearbyUnitDto {
+    private String callSign;
+    private String unitType;
+    private String status;
+    private Double latitude;
+    private Double longitude;
+    private Double heading;
+    private Double speed;
+    private LocalDateTime lastUpdate;
+    // Null for polygon queries
+    private Double distanceKm;
+
+    // Constructors
+    public NearbyUnitDto() {}
+
+    // Getters and Setters
+    public String getCallSign() { return callSign; }
+    public void setCallSign(String callSign) { this.callSign = callSign; }
+
+    public String getUnitType() { return unitType; }
+    public void setUnitType(String unitType) { this.unitType = unitType; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public Double getHeading() { return heading; }
+    public void setHeading(Double heading) { this.heading = heading; }
+
+    public Double getSpeed() { return speed; }
+    public void setSpeed(Double speed) { this.speed = speed; }
+
+    public LocalDateTime getLastUpdate() { return lastUpdate; }
+    public void setLastUpdate(LocalDateTime lastUpdate) { this.lastUpdate = lastUpdate; }
+
+    public Double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(Double distanceKm) { this.distanceKm = distanceKm; }
+}
@@ -0,0 +1,45 @@
+package mil.army.cop.ops.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class OperationSnapshotDto {
+    private UUID operationId;
+    private LocalDateTime generatedAt;
+    private List<NearbyUnitDto> units;
+    // Passed through as returned by the owning service; null when unavailable
+    private JsonNode tasks;
+    private JsonNode channels;
+    private JsonNode events;
+    // Part name -> why it is missing (timeout, error, ...); empty for a complete snapshot
+    private Map<String, String> unavailable;
+
+    // Constructors
+    public OperationSnapshotDto() {}
+
+    // Getters and Setters
+    public UUID getOperationId() { return operationId; }
+    public void setOperationId(UUID operationId) { this.operationId = operationId; }
+
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
+
+    public List<NearbyUnitDto> getUnits() { return units; }
+    public void setUnits(List<NearbyUnitDto> units) { this.units = units; }
+
+    public JsonNode getTasks() { return tasks; }
+    public void setTasks(JsonNode tasks) { this.tasks = tasks; }
+
+    public JsonNode getChannels() { return channels; }
+    public void setChannels(JsonNode channels) { this.channels = channels; }
+
+    public JsonNode getEvents() { return events; }
+    public void setEvents(JsonNode events) { this.events = events; }
+
+    public Map<String, String> getUnavailable() { return unavailable; }
+    public void setUnavailable(Map<String, String> unavailable) { this.unavailable = unavailable; }
+}
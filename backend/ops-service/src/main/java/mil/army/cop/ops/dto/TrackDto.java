@@ -0,0 +1,34 @@
+package mil.army.cop.ops.dto;
+
+import java.util.List;
+
+public class TrackDto {
+    private String unitId;
+    private List<TrackPointDto> points;
+    // Only every n-th report was kept to stay within app.ops.history.max-points
+    private boolean downsampled;
+
+    // Constructors
+    public TrackDto() {}
+
+    public TrackDto(String unitId, List<TrackPointDto> points) {
+        this.unitId = unitId;
+        this.points = points;
+    }
+
+    public TrackDto(String unitId, List<TrackPointDto> points, boolean downsampled) {
+        this.unitId = unitId;
+        this.points = points;
+        this.downsampled = downsampled;
+    }
+
+    // Getters and Setters
+    public String getUnitId() { return unitId; }
+    public void setUnitId(String unitId) { this.unitId = unitId; }
+
+    public List<TrackPointDto> getPoints() { return points; }
+    public void setPoints(List<TrackPointDto> points) { this.points = points; }
+
+    public boolean isDownsampled() { return downsampled; }
+    public void setDownsampled(boolean downsampled) { this.downsampled = downsampled; }
+}
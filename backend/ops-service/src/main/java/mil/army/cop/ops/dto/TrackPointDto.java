@@ -0,0 +1,38 @@
+package mil.army.cop.ops.dto;
+
+import java.time.LocalDateTime;
+
+public class TrackPointDto {
+    private Double latitude;
+    private Double longitude;
+    private Double heading;
+    private Double speed;
+    private LocalDateTime timestamp;
+
+    // Constructors
+    public TrackPointDto() {}
+
+    public TrackPointDto(Double latitude, Double longitude, Double heading, Double speed, LocalDateTime timestamp) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.heading = heading;
+        this.speed = speed;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public Double getHeading() { return heading; }
+    public void setHeading(Double heading) { this.heading = heading; }
+
+    public Double getSpeed() { return speed; }
+    public void setSpeed(Double speed) { this.speed = speed; }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+}
@@ -0,0 +1,46 @@
+package mil.army.cop.ops.dto;
+
+public class UnitClusterDto {
+    // zoom/column/row of the grid cell
+    private String id;
+    // Centroid of the units in the cell
+    private Double latitude;
+    private Double longitude;
+    private int count;
+    private int friendly;
+    private int enemy;
+    private int neutral;
+    private int unknown;
+    private String dominantUnitType;
+
+    // Constructors
+    public UnitClusterDto() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    public int getFriendly() { return friendly; }
+    public void setFriendly(int friendly) { this.friendly = friendly; }
+
+    public int getEnemy() { return enemy; }
+    public void setEnemy(int enemy) { this.enemy = enemy; }
+
+    public int getNeutral() { return neutral; }
+    public void setNeutral(int neutral) { this.neutral = neutral; }
+
+    public int getUnknown() { return unknown; }
+    public void setUnknown(int unknown) { this.unknown = unknown; }
+
+    public String getDominantUnitType() { return dominantUnitType; }
+    public void setDominantUnitType(String dominantUnitType) { this.dominantUnitType = dominantUnitType; }
+}
@@ -6,7 +6,9 @@ public class UnitPositionDto {
     private String unitId;
     private Double latitude;
     private Double longitude;
+    // Degrees clockwise from true north
     private Double heading;
+    // Metres per second
     private Double speed;
     private String status;
     private LocalDateTime timestamp;
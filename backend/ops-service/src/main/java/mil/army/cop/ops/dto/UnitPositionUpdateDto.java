@@ -3,13 +3,18 @@ package mil.army.cop.ops.dto;
 import jakarta.validation.constraints.NotNull;
 
 public class UnitPositionUpdateDto {
+    // Only used by the bulk endpoint; single updates take the call sign from the path
+    private String callSign;
+
     @NotNull
     private Double latitude;
     
     @NotNull
     private Double longitude;
     
+    // Degrees clockwise from true north
     private Double heading;
+    // Ground speed in metres per second; dead reckoning extrapolates with it as reported
     private Double speed;
 
     // Constructors
@@ -23,6 +28,9 @@ public class UnitPositionUpdateDto {
     }
 
     // Getters and Setters
+    public String getCallSign() { return callSign; }
+    public void setCallSign(String callSign) { this.callSign = callSign; }
+
     public Double getLatitude() { return latitude; }
     public void setLatitude(Double latitude) { this.latitude = latitude; }
 
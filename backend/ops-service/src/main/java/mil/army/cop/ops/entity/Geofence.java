@@ -0,0 +1,75 @@
+package mil.army.cop.ops.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.locationtech.jts.geom.Geometry;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "geofences", schema = "ops")
+public class Geofence {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "operation_id", nullable = false)
+    private UUID operationId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private GeofenceType type;
+
+    @Column(nullable = false)
+    private Geometry geometry;
+
+    @Column(nullable = false)
+    private String createdBy;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public Geofence() {}
+
+    public Geofence(UUID operationId, String name, GeofenceType type, Geometry geometry, String createdBy) {
+        this.operationId = operationId;
+        this.name = name;
+        this.type = type;
+        this.geometry = geometry;
+        this.createdBy = createdBy;
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getOperationId() { return operationId; }
+    public void setOperationId(UUID operationId) { this.operationId = operationId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public GeofenceType getType() { return type; }
+    public void setType(GeofenceType type) { this.type = type; }
+
+    public Geometry getGeometry() { return geometry; }
+    public void setGeometry(Geometry geometry) { this.geometry = geometry; }
+
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public enum GeofenceType {
+        // Polygon; units entering and leaving it raise events
+        BOUNDARY,
+        // Line; units moving across it raise events
+        PHASE_LINE
+    }
+}
@@ -28,8 +28,10 @@ public class Unit {
     @Column(nullable = false)
     private Point position;
 
+    // Degrees clockwise from true north
     private Double heading;
 
+    // Ground speed in metres per second
     private Double speed;
 
     @Column(nullable = false)
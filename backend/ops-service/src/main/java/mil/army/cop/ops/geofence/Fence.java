@@ -0,0 +1,50 @@
+package mil.army.cop.ops.geofence;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+
+import java.util.UUID;
+
+/**
+ * A geometry watched for unit crossings, prepared once so repeated point tests
+ * against it are cheap.
+ */
+public class Fence {
+
+    public enum Kind {
+        AREA_OF_INTEREST,
+        BOUNDARY,
+        PHASE_LINE
+    }
+
+    private final UUID id;
+    private final String name;
+    private final Kind kind;
+    private final PreparedGeometry geometry;
+
+    public Fence(UUID id, String name, Kind kind, Geometry geometry) {
+        this.id = id;
+        this.name = name;
+        this.kind = kind;
+        this.geometry = PreparedGeometryFactory.prepare(geometry);
+    }
+
+    public UUID getId() { return id; }
+
+    public String getName() { return name; }
+
+    public Kind getKind() { return kind; }
+
+    public PreparedGeometry getGeometry() { return geometry; }
+
+    public Envelope getEnvelope() { return geometry.getGeometry().getEnvelopeInternal(); }
+
+    /**
+     * Phase lines are crossed; areas are entered and exited.
+     */
+    public boolean isLine() {
+        return kind == Kind.PHASE_LINE;
+    }
+}
@@ -0,0 +1,26 @@
+package mil.army.cop.ops.geofence;
+
+/**
+ * A unit's movement between two reports changed its relation to a fence.
+ */
+public record FenceCrossing(Fence fence, Transition transition) {
+
+    public enum Transition {
+        ENTERED("geofence_entered"),
+        EXITED("geofence_exited"),
+        CROSSED("phase_line_crossed");
+
+        private final String eventType;
+
+        Transition(String eventType) {
+            this.eventType = eventType;
+        }
+
+        /**
+         * Event name used on the operation event stream.
+         */
+        public String getEventType() {
+            return eventType;
+        }
+    }
+}
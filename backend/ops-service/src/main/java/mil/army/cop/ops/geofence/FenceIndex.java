@@ -0,0 +1,91 @@
+package mil.army.cop.ops.geofence;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The fences of one operation, indexed by envelope.
+ *
+ * A movement is only tested against fences whose envelope overlaps the envelope of
+ * the unit's old and new positions, so the cost per report depends on the fences
+ * near the unit rather than on the total number of fences. Fences change rarely, so
+ * the index is immutable and replaced as a whole when they do.
+ */
+public class FenceIndex {
+
+    public static final FenceIndex EMPTY = new FenceIndex(List.of(), new GeometryFactory());
+
+    private final STRtree tree = new STRtree();
+    private final List<Fence> fences;
+    private final GeometryFactory geometryFactory;
+
+    public FenceIndex(Collection<Fence> fences, GeometryFactory geometryFactory) {
+        this.fences = List.copyOf(fences);
+        this.geometryFactory = geometryFactory;
+        for (Fence fence : this.fences) {
+            tree.insert(fence.getEnvelope(), fence);
+        }
+        tree.build();
+    }
+
+    public List<Fence> getFences() {
+        return fences;
+    }
+
+    public boolean isEmpty() {
+        return fences.isEmpty();
+    }
+
+    /**
+     * Fences whose relation to the unit changed moving from the old to the new position.
+     *
+     * A line is crossed when the straight path between the reports meets it, except when
+     * the unit was already on it; an area is entered or exited when exactly one of the two
+     * positions lies inside it.
+     */
+    @SuppressWarnings("unchecked")
+    public List<FenceCrossing> evaluate(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        if (fences.isEmpty() || (fromLatitude == toLatitude && fromLongitude == toLongitude)) {
+            return List.of();
+        }
+        Envelope movement = new Envelope(fromLongitude, toLongitude, fromLatitude, toLatitude);
+        List<Fence> candidates = tree.query(movement);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        Coordinate from = new Coordinate(fromLongitude, fromLatitude);
+        Coordinate to = new Coordinate(toLongitude, toLatitude);
+        Point fromPoint = geometryFactory.createPoint(from);
+        Point toPoint = geometryFactory.createPoint(to);
+        LineString path = null;
+
+        List<FenceCrossing> crossings = new ArrayList<>(1);
+        for (Fence fence : candidates) {
+            if (fence.isLine()) {
+                if (path == null) {
+                    path = geometryFactory.createLineString(new Coordinate[] {from, to});
+                }
+                if (fence.getGeometry().intersects(path) && !fence.getGeometry().intersects(fromPoint)) {
+                    crossings.add(new FenceCrossing(fence, FenceCrossing.Transition.CROSSED));
+                }
+            } else {
+                boolean wasInside = fence.getGeometry().covers(fromPoint);
+                boolean isInside = fence.getGeometry().covers(toPoint);
+                if (wasInside != isInside) {
+                    crossings.add(new FenceCrossing(fence,
+                            isInside ? FenceCrossing.Transition.ENTERED : FenceCrossing.Transition.EXITED));
+                }
+            }
+        }
+        return crossings;
+    }
+}
@@ -0,0 +1,13 @@
+package mil.army.cop.ops.history;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row of {@code ops.position_history}.
+ *
+ * @param operationId the operation the report was made under, or {@code null}
+ */
+public record PositionRecord(String callSign, UUID operationId, LocalDateTime recordedAt,
+                             double latitude, double longitude, Double heading, Double speed) {
+}
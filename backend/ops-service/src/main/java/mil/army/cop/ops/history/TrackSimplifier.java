@@ -0,0 +1,82 @@
+package mil.army.cop.ops.history;
+
+import mil.army.cop.ops.dto.TrackPointDto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Douglas-Peucker simplification of a time-ordered track.
+ *
+ * Works on the reported points themselves rather than on a geometry, so every kept point
+ * still carries its timestamp, heading and speed. Distances are measured in metres on a
+ * local equirectangular projection around the first point, which is accurate for the
+ * extent of a single track.
+ */
+public final class TrackSimplifier {
+
+    private static final double METRES_PER_DEGREE = 111_320.0;
+
+    private TrackSimplifier() {}
+
+    /**
+     * Drops points that lie within {@code toleranceMetres} of the line between the points
+     * kept on either side of them. The first and last points are always kept.
+     */
+    public static List<TrackPointDto> simplify(List<TrackPointDto> points, double toleranceMetres) {
+        if (points.size() < 3 || toleranceMetres <= 0) {
+            return points;
+        }
+        double longitudeScale = Math.cos(Math.toRadians(points.get(0).getLatitude())) * METRES_PER_DEGREE;
+        double[] x = new double[points.size()];
+        double[] y = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            x[i] = points.get(i).getLongitude() * longitudeScale;
+            y[i] = points.get(i).getLatitude() * METRES_PER_DEGREE;
+        }
+
+        boolean[] keep = new boolean[points.size()];
+        keep[0] = true;
+        keep[points.size() - 1] = true;
+        // Iterative so a track of any length cannot overflow the stack
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[] {0, points.size() - 1});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int first = range[0];
+            int last = range[1];
+            double maxDistance = 0;
+            int farthest = -1;
+            for (int i = first + 1; i < last; i++) {
+                double distance = distanceToSegment(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+            if (farthest >= 0 && maxDistance > toleranceMetres) {
+                keep[farthest] = true;
+                ranges.push(new int[] {first, farthest});
+                ranges.push(new int[] {farthest, last});
+            }
+        }
+
+        List<TrackPointDto> simplified = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++) {
+            if (keep[i]) {
+                simplified.add(points.get(i));
+            }
+        }
+        return simplified;
+    }
+
+    private static double distanceToSegment(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+        return Math.hypot(px - (ax + t * dx), py - (ay + t * dy));
+    }
+}
@@ -0,0 +1,17 @@
+package mil.army.cop.ops.repository;
+
+import mil.army.cop.ops.entity.Geofence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface GeofenceRepository extends JpaRepository<Geofence, UUID> {
+
+    List<Geofence> findByOperationId(UUID operationId);
+
+    Optional<Geofence> findByIdAndOperationId(UUID id, UUID operationId);
+}
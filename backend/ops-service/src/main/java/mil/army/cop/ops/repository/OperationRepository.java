@@ -0,0 +1,22 @@
+package mil.army.cop.ops.repository;
+
+import mil.army.cop.ops.entity.Operation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+public interface OperationRepository extends JpaRepository<Operation, UUID> {
+
+    @Query("SELECT o.areaOfInterest FROM Operation o WHERE o.id = :id")
+    Optional<Geometry> findAreaOfInterestById(@Param("id") UUID id);
+
+    @Query("SELECT u FROM Operation o JOIN o.assignedUnits u WHERE o.id = :id")
+    Set<String> findAssignedUnitsById(@Param("id") UUID id);
+}
@@ -0,0 +1,170 @@
+package mil.army.cop.ops.repository;
+
+import mil.army.cop.ops.dto.TrackPointDto;
+import mil.army.cop.ops.history.PositionRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Plain JDBC access to the daily-partitioned {@code ops.position_history} table.
+ *
+ * Rows are written with JDBC batch inserts (rewritten into multi-row inserts by the
+ * driver's {@code reWriteBatchedInserts}); going through JPA would cost an entity per
+ * report for an append-only table that is never updated.
+ */
+@Repository
+public class PositionHistoryRepository {
+
+    private static final String INSERT = "INSERT INTO ops.position_history "
+            + "(unit_call_sign, operation_id, recorded_at, latitude, longitude, heading, speed) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String COLUMNS = "unit_call_sign, recorded_at, latitude, longitude, heading, speed";
+    private static final String BUCKET = "floor(extract(epoch FROM recorded_at) / ?)";
+    private static final String PARTITION_PREFIX = "position_history_p";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{8})");
+    private static final DateTimeFormatter PARTITION_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String COMPACTED = "compacted";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public record Partition(String name, LocalDate day, boolean compacted) {}
+
+    /**
+     * Reports per unit, oldest first; {@code downsampled} when only every n-th was kept to
+     * stay within the point limit.
+     */
+    public record Tracks(Map<String, List<TrackPointDto>> byUnit, boolean downsampled) {}
+
+    public void insert(List<PositionRecord> records, int batchSize) {
+        jdbcTemplate.batchUpdate(INSERT, records, batchSize, (statement, record) -> {
+            statement.setString(1, record.callSign());
+            statement.setObject(2, record.operationId(), Types.OTHER);
+            statement.setTimestamp(3, Timestamp.valueOf(record.recordedAt()));
+            statement.setDouble(4, record.latitude());
+            statement.setDouble(5, record.longitude());
+            statement.setObject(6, record.heading(), Types.DOUBLE);
+            statement.setObject(7, record.speed(), Types.DOUBLE);
+        });
+    }
+
+    /**
+     * A unit's reports in {@code [from, to)}.
+     *
+     * @param bucketSeconds keep only the first report per bucket of this many seconds, or {@code null} for all
+     * @param limit         see {@link #findOperationTracks}
+     */
+    public Tracks findTrack(String callSign, LocalDateTime from, LocalDateTime to, Integer bucketSeconds, int limit) {
+        return query("unit_call_sign = ?", callSign, from, to, bucketSeconds, limit);
+    }
+
+    /**
+     * The reports made under an operation in {@code [from, to)}, per unit.
+     *
+     * @param limit when more reports match, every unit keeps every n-th report plus its
+     *              last, with one n for all units so each keeps its whole time span;
+     *              that is at most {@code limit} plus two per unit
+     */
+    public Tracks findOperationTracks(UUID operationId, LocalDateTime from, LocalDateTime to,
+                                      Integer bucketSeconds, int limit) {
+        return query("operation_id = ?", operationId, from, to, bucketSeconds, limit);
+    }
+
+    public void createPartition(LocalDate day) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS ops." + partitionName(day)
+                + " PARTITION OF ops.position_history FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+    }
+
+    public List<Partition> findPartitions() {
+        List<Partition> partitions = new ArrayList<>();
+        jdbcTemplate.query("SELECT c.relname, obj_description(c.oid, 'pg_class') FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid "
+                + "JOIN pg_class p ON p.oid = i.inhparent "
+                + "JOIN pg_namespace n ON n.oid = p.relnamespace "
+                + "WHERE n.nspname = 'ops' AND p.relname = 'position_history'", (RowCallbackHandler) rs -> {
+            Matcher matcher = PARTITION_NAME.matcher(rs.getString(1));
+            if (matcher.matches()) {
+                partitions.add(new Partition(rs.getString(1), LocalDate.parse(matcher.group(1), PARTITION_DATE),
+                        COMPACTED.equals(rs.getString(2))));
+            }
+        });
+        return partitions;
+    }
+
+    public void dropPartition(Partition partition) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS ops." + partitionName(partition.day()));
+    }
+
+    /**
+     * Thins a partition to the first report per unit per bucket and marks it compacted.
+     *
+     * @return the number of rows deleted
+     */
+    public int compactPartition(Partition partition, int bucketSeconds) {
+        String table = "ops." + partitionName(partition.day());
+        int deleted = jdbcTemplate.update("DELETE FROM " + table + " h USING ("
+                + "SELECT ctid, row_number() OVER (PARTITION BY unit_call_sign, operation_id, " + BUCKET
+                + " ORDER BY recorded_at) AS rn FROM " + table + ") d "
+                + "WHERE h.ctid = d.ctid AND d.rn > 1", bucketSeconds);
+        jdbcTemplate.execute("COMMENT ON TABLE " + table + " IS '" + COMPACTED + "'");
+        return deleted;
+    }
+
+    private Tracks query(String filter, Object key, LocalDateTime from, LocalDateTime to,
+                         Integer bucketSeconds, int limit) {
+        String reports;
+        Object[] args;
+        if (bucketSeconds != null) {
+            reports = "SELECT DISTINCT ON (unit_call_sign, " + BUCKET + ") " + COLUMNS
+                    + " FROM ops.position_history WHERE " + filter + " AND recorded_at >= ? AND recorded_at < ?"
+                    + " ORDER BY unit_call_sign, " + BUCKET + ", recorded_at";
+            args = new Object[] {limit, bucketSeconds, key, Timestamp.valueOf(from), Timestamp.valueOf(to), bucketSeconds};
+        } else {
+            reports = "SELECT " + COLUMNS + " FROM ops.position_history WHERE " + filter
+                    + " AND recorded_at >= ? AND recorded_at < ?";
+            args = new Object[] {limit, key, Timestamp.valueOf(from), Timestamp.valueOf(to)};
+        }
+        // stride = ceil(matching reports / limit), shared by every unit; the limit is bound first
+        String sql = "SELECT " + COLUMNS + ", stride FROM (SELECT r.*,"
+                + " row_number() OVER (PARTITION BY unit_call_sign ORDER BY recorded_at) - 1 AS i,"
+                + " count(*) OVER (PARTITION BY unit_call_sign) AS n,"
+                + " CAST(ceil(count(*) OVER () / CAST(? AS numeric)) AS bigint) AS stride"
+                + " FROM (" + reports + ") r) s"
+                + " WHERE i % stride = 0 OR i = n - 1 ORDER BY unit_call_sign, recorded_at";
+
+        Map<String, List<TrackPointDto>> tracks = new LinkedHashMap<>();
+        boolean[] downsampled = new boolean[1];
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            tracks.computeIfAbsent(rs.getString(1), k -> new ArrayList<>()).add(toPoint(rs));
+            downsampled[0] |= rs.getLong(7) > 1;
+        }, args);
+        return new Tracks(tracks, downsampled[0]);
+    }
+
+    private static TrackPointDto toPoint(ResultSet rs) throws SQLException {
+        return new TrackPointDto(rs.getDouble(3), rs.getDouble(4),
+                rs.getObject(5, Double.class), rs.getObject(6, Double.class),
+                rs.getTimestamp(2).toLocalDateTime());
+    }
+
+    private static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + PARTITION_DATE.format(day);
+    }
+}
@@ -0,0 +1,33 @@
+package mil.army.cop.ops.repository;
+
+import mil.army.cop.shared.tile.TileKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Renders Mapbox Vector Tiles with PostGIS {@code ST_AsMVT}.
+ */
+@Repository
+public class TileRepository {
+
+    // 4096 extent with a 64 unit buffer so symbols on tile edges are not clipped
+    private static final String UNIT_TILE = "SELECT ST_AsMVT(tile, 'units', 4096, 'geom') FROM ("
+            + "SELECT ST_AsMVTGeom(ST_Transform(position, 3857), ST_TileEnvelope(?, ?, ?), 4096, 64, true) AS geom, "
+            + "call_sign, unit_type, status, heading, speed, last_update::text AS last_update "
+            + "FROM ops.units "
+            + "WHERE position && ST_Transform(ST_TileEnvelope(?, ?, ?, margin => 64.0 / 4096), 4326)"
+            + ") AS tile WHERE geom IS NOT NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The {@code units} layer of a tile; empty when no unit is inside it.
+     */
+    public byte[] findUnitTile(TileKey key) {
+        byte[] tile = jdbcTemplate.queryForObject(UNIT_TILE, byte[].class,
+                key.z(), key.x(), key.y(), key.z(), key.x(), key.y());
+        return tile != null ? tile : new byte[0];
+    }
+}
@@ -22,4 +22,35 @@ public interface UnitRepository extends JpaRepository<Unit, UUID> {
     
     @Query("SELECT u FROM Unit u WHERE u.callSign IN :callSigns")
     List<Unit> findByCallSignIn(@Param("callSigns") List<String> callSigns);
+
+    // Proximity queries for app.ops.spatial.source=database or a cold in-memory index; the && prefilter uses idx_units_position
+
+    @Query(value = "SELECT * FROM ops.units u " +
+            "WHERE u.position && ST_Expand(ST_SetSRID(ST_MakePoint(:lon, :lat), 4326), :degrees) " +
+            "AND ST_DWithin(u.position::geography, ST_SetSRID(ST_MakePoint(:lon, :lat), 4326)::geography, :meters) " +
+            "AND (CAST(:status AS varchar) IS NULL OR u.status = CAST(:status AS varchar))",
+            nativeQuery = true)
+    List<Unit> findWithinDistance(@Param("lat") double lat, @Param("lon") double lon,
+                                  @Param("degrees") double degrees, @Param("meters") double meters,
+                                  @Param("status") String status);
+
+    // <-> walks the index in planar degrees, which overweights longitude away from the
+    // equator; the inner query takes :candidates by that order and the outer one re-ranks
+    // them by geodesic distance
+
+    @Query(value = "SELECT * FROM (SELECT * FROM ops.units u " +
+            "WHERE (CAST(:status AS varchar) IS NULL OR u.status = CAST(:status AS varchar)) " +
+            "ORDER BY u.position <-> ST_SetSRID(ST_MakePoint(:lon, :lat), 4326) LIMIT :candidates) c " +
+            "ORDER BY ST_Distance(c.position::geography, ST_SetSRID(ST_MakePoint(:lon, :lat), 4326)::geography) " +
+            "LIMIT :count",
+            nativeQuery = true)
+    List<Unit> findNearest(@Param("lat") double lat, @Param("lon") double lon,
+                           @Param("count") int count, @Param("candidates") int candidates,
+                           @Param("status") String status);
+
+    @Query(value = "SELECT * FROM ops.units u " +
+            "WHERE ST_Covers(ST_GeomFromText(:wkt, 4326), u.position) " +
+            "AND (CAST(:status AS varchar) IS NULL OR u.status = CAST(:status AS varchar))",
+            nativeQuery = true)
+    List<Unit> findCoveredBy(@Param("wkt") String wkt, @Param("status") String status);
 }
@@ -0,0 +1,195 @@
+package mil.army.cop.ops.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import mil.army.cop.ops.dto.CreateGeofenceDto;
+import mil.army.cop.ops.dto.GeofenceDto;
+import mil.army.cop.ops.entity.Geofence;
+import mil.army.cop.ops.entity.Operation;
+import mil.army.cop.ops.geofence.Fence;
+import mil.army.cop.ops.geofence.FenceCrossing;
+import mil.army.cop.ops.geofence.FenceIndex;
+import mil.army.cop.ops.repository.GeofenceRepository;
+import mil.army.cop.ops.repository.OperationRepository;
+import mil.army.cop.ops.state.UnitState;
+import mil.army.cop.ops.stream.Regions;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Detects units crossing an operation's area of interest, boundaries and phase lines.
+ *
+ * Each operation's fences are loaded into a {@link FenceIndex} on its first position
+ * report and kept in memory. Fences edited through this service take effect at once
+ * on this node; other nodes, and edits to an area of interest, pick them up on the next
+ * refresh.
+ */
+@Service
+public class GeofenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeofenceService.class);
+    private static final int SRID = 4326;
+
+    @Autowired
+    private GeofenceRepository geofenceRepository;
+
+    @Autowired
+    private OperationRepository operationRepository;
+
+    @Autowired
+    private GeometryFactory geometryFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<UUID, FenceIndex> indexes = new ConcurrentHashMap<>();
+
+    private Timer evaluationTimer;
+    private Counter crossings;
+
+    @PostConstruct
+    void registerMetrics() {
+        evaluationTimer = Timer.builder("ops.geofence.evaluate")
+                .description("Time taken to test one unit movement against its operation's fences")
+                .register(meterRegistry);
+        crossings = Counter.builder("ops.geofence.crossings")
+                .description("Geofence enter, exit and phase line crossing events raised")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fences the unit entered, exited or crossed moving between two reports.
+     */
+    public List<FenceCrossing> evaluate(UUID operationId, UnitState previous, UnitState current) {
+        FenceIndex index = index(operationId);
+        if (index.isEmpty()) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        List<FenceCrossing> result = index.evaluate(previous.getLatitude(), previous.getLongitude(),
+                current.getLatitude(), current.getLongitude());
+        evaluationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        crossings.increment(result.size());
+        return result;
+    }
+
+    public List<GeofenceDto> getGeofences(UUID operationId) {
+        return geofenceRepository.findByOperationId(operationId).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the new geofence, or empty if the operation does not exist
+     */
+    public Optional<GeofenceDto> createGeofence(UUID operationId, CreateGeofenceDto createDto, String createdBy) {
+        if (createDto.getName() == null || createDto.getName().isBlank()) {
+            throw new IllegalArgumentException("Geofence name is required");
+        }
+        if (createDto.getType() == null) {
+            throw new IllegalArgumentException("Geofence type must be BOUNDARY or PHASE_LINE");
+        }
+        Geometry geometry = createDto.getType() == Geofence.GeofenceType.PHASE_LINE
+                ? Regions.lineFromGeoJson(createDto.getGeometry(), geometryFactory)
+                : Regions.fromGeoJson(createDto.getGeometry(), geometryFactory);
+        geometry.setSRID(SRID);
+
+        if (!operationRepository.existsById(operationId)) {
+            return Optional.empty();
+        }
+        Geofence geofence = geofenceRepository.save(
+                new Geofence(operationId, createDto.getName(), createDto.getType(), geometry, createdBy));
+        reload(operationId);
+        logger.info("Geofence {} ({}) added to operation {} by {}", geofence.getName(), geofence.getType(), operationId, createdBy);
+        return Optional.of(toDto(geofence));
+    }
+
+    public boolean deleteGeofence(UUID operationId, UUID geofenceId) {
+        Optional<Geofence> geofence = geofenceRepository.findByIdAndOperationId(geofenceId, operationId);
+        if (geofence.isEmpty()) {
+            return false;
+        }
+        geofenceRepository.delete(geofence.get());
+        reload(operationId);
+        return true;
+    }
+
+    /**
+     * Reloads the fences of every operation seen so far.
+     */
+    @Scheduled(fixedDelayString = "${app.ops.geofence.refresh-interval-ms:60000}")
+    public void refresh() {
+        indexes.keySet().forEach(this::reload);
+    }
+
+    private FenceIndex index(UUID operationId) {
+        FenceIndex index = indexes.get(operationId);
+        if (index != null) {
+            return index;
+        }
+        Optional<FenceIndex> loaded = load(operationId);
+        if (loaded.isEmpty()) {
+            return FenceIndex.EMPTY;
+        }
+        FenceIndex existing = indexes.putIfAbsent(operationId, loaded.get());
+        return existing != null ? existing : loaded.get();
+    }
+
+    private void reload(UUID operationId) {
+        load(operationId).ifPresent(index -> indexes.put(operationId, index));
+    }
+
+    /**
+     * @return the operation's fences, or empty if they could not be read
+     */
+    private Optional<FenceIndex> load(UUID operationId) {
+        try {
+            List<Fence> fences = new ArrayList<>();
+            operationRepository.findById(operationId)
+                    .filter(operation -> operation.getAreaOfInterest() != null)
+                    .ifPresent(operation -> fences.add(areaOfInterestFence(operation)));
+            for (Geofence geofence : geofenceRepository.findByOperationId(operationId)) {
+                Fence.Kind kind = geofence.getType() == Geofence.GeofenceType.PHASE_LINE
+                        ? Fence.Kind.PHASE_LINE
+                        : Fence.Kind.BOUNDARY;
+                fences.add(new Fence(geofence.getId(), geofence.getName(), kind, geofence.getGeometry()));
+            }
+            return Optional.of(fences.isEmpty() ? FenceIndex.EMPTY : new FenceIndex(fences, geometryFactory));
+        } catch (Exception e) {
+            logger.error("Failed to load geofences for operation {}: {}", operationId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Fence areaOfInterestFence(Operation operation) {
+        return new Fence(operation.getId(), operation.getName(), Fence.Kind.AREA_OF_INTEREST, operation.getAreaOfInterest());
+    }
+
+    private GeofenceDto toDto(Geofence geofence) {
+        GeofenceDto dto = new GeofenceDto();
+        dto.setId(geofence.getId());
+        dto.setOperationId(geofence.getOperationId());
+        dto.setName(geofence.getName());
+        dto.setType(geofence.getType().name());
+        dto.setGeometry(Regions.toGeoJson(geofence.getGeometry()));
+        dto.setCreatedBy(geofence.getCreatedBy());
+        dto.setCreatedAt(geofence.getCreatedAt());
+        return dto;
+    }
+}
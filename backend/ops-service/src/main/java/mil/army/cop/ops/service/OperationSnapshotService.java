@@ -0,0 +1,235 @@
+package mil.army.cop.ops.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import mil.army.cop.ops.dto.NearbyUnitDto;
+import mil.army.cop.ops.dto.OperationSnapshotDto;
+import mil.army.cop.ops.repository.OperationRepository;
+import mil.army.cop.shared.integration.ServiceClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Assembles everything a client needs to open an operation in one response.
+ *
+ * Units come from the live store, loaded on the snapshot executor; active tasks, the
+ * caller's channels with their newest message and latest events come from the owning services through the
+ * non-blocking {@link ServiceClient} calls. All parts are requested at once, so a
+ * snapshot takes about as long as its slowest part rather than the sum of them. Each part has its own timeout; a part that
+ * times out or fails is left null and named in {@code unavailable} instead of failing
+ * the snapshot. Units, tasks and events are the same for everyone opening the operation
+ * with the same roles and are cached briefly per operation and set of roles; channels
+ * depend on the user's memberships and are cached per operation and user. Only complete
+ * sets of parts are cached, so the next request retries the missing ones.
+ *
+ * A part that times out is abandoned, not cancelled; its request still ends at the
+ * client's read timeout but holds no thread meanwhile.
+ */
+@Service
+public class OperationSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationSnapshotService.class);
+    private static final Set<String> CLOSED_TASK_STATUSES = Set.of("DONE", "CANCELLED");
+
+    @Autowired
+    private OperationRepository operationRepository;
+
+    @Autowired
+    private UnitProximityService unitProximityService;
+
+    @Autowired
+    private ServiceClient serviceClient;
+
+    @Autowired
+    @Qualifier("snapshotExecutor")
+    private ExecutorService snapshotExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ops.snapshot.cache-ttl-ms:5000}")
+    private long cacheTtlMs;
+
+    @Value("${app.ops.snapshot.recent-limit:20}")
+    private int recentLimit;
+
+    @Value("${app.ops.snapshot.units.timeout-ms:1000}")
+    private long unitsTimeoutMs;
+
+    @Value("${app.ops.snapshot.tasks.timeout-ms:2000}")
+    private long tasksTimeoutMs;
+
+    @Value("${app.ops.snapshot.channels.timeout-ms:2000}")
+    private long channelsTimeoutMs;
+
+    @Value("${app.ops.snapshot.events.timeout-ms:2000}")
+    private long eventsTimeoutMs;
+
+    private Cache<String, SharedParts> sharedCache;
+    private Cache<String, JsonNode> channelsCache;
+
+    // The parts every user with the same roles sees
+    private record SharedParts(List<NearbyUnitDto> units, JsonNode tasks, JsonNode events) {}
+
+    @PostConstruct
+    void init() {
+        sharedCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .maximumSize(10_000)
+                .recordStats()
+                .build();
+        channelsCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .maximumSize(10_000)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sharedCache, "ops.snapshot");
+        CaffeineCacheMetrics.monitor(meterRegistry, channelsCache, "ops.snapshot.channels");
+    }
+
+    /**
+     * @return empty if the operation does not exist
+     */
+    public Optional<OperationSnapshotDto> getSnapshot(UUID operationId, Authentication authentication) {
+        String sharedKey = operationId + "|" + roles(authentication);
+        String channelsKey = operationId + "|" + (authentication != null ? authentication.getName() : "");
+        SharedParts shared = sharedCache.getIfPresent(sharedKey);
+        JsonNode cachedChannels = channelsCache.getIfPresent(channelsKey);
+        if ((shared == null || cachedChannels == null) && !operationRepository.existsById(operationId)) {
+            return Optional.empty();
+        }
+
+        // Only the parts that are not cached are fetched, all at once
+        CompletableFuture<List<NearbyUnitDto>> units = null;
+        CompletableFuture<JsonNode> tasks = null;
+        CompletableFuture<JsonNode> events = null;
+        if (shared == null) {
+            units = fetch("units", unitsTimeoutMs, CompletableFuture.supplyAsync(() ->
+                    unitProximityService.getUnits(operationRepository.findAssignedUnitsById(operationId)), snapshotExecutor));
+            tasks = fetch("tasks", tasksTimeoutMs,
+                    serviceClient.callTaskServiceAsync("/api/tasks/operation/" + operationId,
+                            HttpMethod.GET, null, JsonNode.class).thenApply(response -> activeTasks(response.getBody())));
+            events = fetch("events", eventsTimeoutMs,
+                    serviceClient.callReplayServiceAsync("/api/replay/" + operationId + "/pageable?size=" + recentLimit
+                            + "&sort=timestamp,desc", HttpMethod.GET, null, JsonNode.class).thenApply(response -> content(response.getBody())));
+        }
+        CompletableFuture<JsonNode> channels = cachedChannels == null
+                ? fetch("channels", channelsTimeoutMs,
+                        serviceClient.callMessageServiceAsync("/api/messages/operation/" + operationId + "/channels",
+                                HttpMethod.GET, null, JsonNode.class).thenApply(ResponseEntity::getBody))
+                : null;
+
+        Map<String, String> unavailable = new TreeMap<>();
+        if (shared == null) {
+            shared = new SharedParts(await("units", units, unavailable), await("tasks", tasks, unavailable),
+                    await("events", events, unavailable));
+            if (unavailable.isEmpty()) {
+                sharedCache.put(sharedKey, shared);
+            }
+        }
+        if (channels != null) {
+            cachedChannels = await("channels", channels, unavailable);
+            if (cachedChannels != null && !unavailable.containsKey("channels")) {
+                channelsCache.put(channelsKey, cachedChannels);
+            }
+        }
+
+        OperationSnapshotDto snapshot = new OperationSnapshotDto();
+        snapshot.setOperationId(operationId);
+        snapshot.setUnits(shared.units());
+        snapshot.setTasks(shared.tasks());
+        snapshot.setChannels(cachedChannels);
+        snapshot.setEvents(shared.events());
+        snapshot.setUnavailable(unavailable);
+        snapshot.setGeneratedAt(LocalDateTime.now());
+
+        if (!unavailable.isEmpty()) {
+            logger.warn("Partial snapshot for operation {}: {}", operationId, unavailable);
+        }
+        return Optional.of(snapshot);
+    }
+
+    private <T> CompletableFuture<T> fetch(String part, long timeoutMs, CompletableFuture<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return call.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> sample.stop(Timer.builder("ops.snapshot.part")
+                        .description("Time to fetch one part of an operation snapshot")
+                        .tag("part", part)
+                        .tag("outcome", error == null ? "success" : unwrap(error) instanceof TimeoutException ? "timeout" : "error")
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry)));
+    }
+
+    // Every future already has its own timeout, so this waits at most for the slowest part
+    private <T> T await(String part, CompletableFuture<T> future, Map<String, String> unavailable) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            unavailable.put(part, cause instanceof TimeoutException ? "timeout" : String.valueOf(cause.getMessage()));
+            return null;
+        }
+    }
+
+    private JsonNode activeTasks(JsonNode tasks) {
+        if (!(tasks instanceof ArrayNode all)) {
+            return tasks;
+        }
+        ArrayNode active = all.arrayNode();
+        all.forEach(task -> {
+            if (!CLOSED_TASK_STATUSES.contains(task.path("status").asText())) {
+                active.add(task);
+            }
+        });
+        return active;
+    }
+
+    // Replay events come back as a Spring Data page
+    private JsonNode content(JsonNode page) {
+        return page != null && page.has("content") ? page.get("content") : page;
+    }
+
+    private String roles(Authentication authentication) {
+        if (authentication == null) {
+            return "";
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    private Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
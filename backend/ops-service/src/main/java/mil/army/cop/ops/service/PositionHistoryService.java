@@ -0,0 +1,202 @@
+package mil.army.cop.ops.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import mil.army.cop.ops.dto.TrackDto;
+import mil.army.cop.ops.dto.TrackPointDto;
+import mil.army.cop.ops.history.PositionRecord;
+import mil.army.cop.ops.history.TrackSimplifier;
+import mil.army.cop.ops.repository.PositionHistoryRepository;
+import mil.army.cop.ops.state.UnitState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only track history of every position report.
+ *
+ * Reports are queued in memory and written to {@code ops.position_history} in JDBC
+ * batches once per flush interval, so recording never blocks the ingest path; if the
+ * database falls behind and the buffer fills, the newest reports are dropped from history
+ * (the live picture is unaffected). The table has one partition per day: partitions are
+ * created ahead of time, thinned to one report per unit per compaction bucket once they
+ * are older than the compaction age, and dropped whole once past retention.
+ */
+@Service
+public class PositionHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PositionHistoryService.class);
+
+    @Autowired
+    private PositionHistoryRepository positionHistoryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ops.history.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.ops.history.buffer-capacity:100000}")
+    private int bufferCapacity;
+
+    @Value("${app.ops.history.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.ops.history.max-points:50000}")
+    private int maxPoints;
+
+    @Value("${app.ops.history.partitions-ahead:2}")
+    private int partitionsAhead;
+
+    @Value("${app.ops.history.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${app.ops.history.compact-after-days:2}")
+    private int compactAfterDays;
+
+    @Value("${app.ops.history.compact-bucket-seconds:30}")
+    private int compactBucketSeconds;
+
+    private BlockingQueue<PositionRecord> buffer;
+    private Counter droppedRecords;
+    private Counter writtenRecords;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void init() {
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        droppedRecords = Counter.builder("ops.history.dropped")
+                .description("Position reports not recorded in history because the buffer was full or a write failed")
+                .register(meterRegistry);
+        writtenRecords = Counter.builder("ops.history.written")
+                .description("Position reports written to history")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("ops.history.flush")
+                .description("Time taken to write buffered position reports to history")
+                .register(meterRegistry);
+        Gauge.builder("ops.history.buffered", buffer, Collection::size)
+                .description("Position reports waiting to be written to history")
+                .register(meterRegistry);
+        if (enabled) {
+            maintainPartitions();
+        }
+    }
+
+    public void record(UUID operationId, UnitState unit) {
+        if (!enabled) {
+            return;
+        }
+        PositionRecord record = new PositionRecord(unit.getCallSign(), operationId, unit.getLastUpdate(),
+                unit.getLatitude(), unit.getLongitude(), unit.getHeading(), unit.getSpeed());
+        if (!buffer.offer(record)) {
+            droppedRecords.increment();
+        }
+    }
+
+    public void record(UUID operationId, List<UnitState> units) {
+        units.forEach(unit -> record(operationId, unit));
+    }
+
+    @Scheduled(fixedDelayString = "${app.ops.history.flush-interval-ms:1000}")
+    public void flush() {
+        List<PositionRecord> records = new ArrayList<>(Math.min(buffer.size(), bufferCapacity));
+        buffer.drainTo(records);
+        if (records.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            positionHistoryRepository.insert(records, batchSize);
+            writtenRecords.increment(records.size());
+        } catch (Exception e) {
+            // History is best effort; retrying would let one bad partition block the buffer
+            logger.error("Failed to write {} position history records: {}", records.size(), e.getMessage());
+            droppedRecords.increment(records.size());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Creates the coming days' partitions, compacts partitions past the compaction age
+     * and drops partitions past retention.
+     */
+    @Scheduled(cron = "${app.ops.history.maintenance-cron:0 15 0 * * *}")
+    public void maintainPartitions() {
+        try {
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i <= partitionsAhead; i++) {
+                positionHistoryRepository.createPartition(today.plusDays(i));
+            }
+            LocalDate retainFrom = today.minusDays(retentionDays);
+            LocalDate compactBefore = today.minusDays(compactAfterDays);
+            for (PositionHistoryRepository.Partition partition : positionHistoryRepository.findPartitions()) {
+                if (partition.day().isBefore(retainFrom)) {
+                    positionHistoryRepository.dropPartition(partition);
+                    logger.info("Dropped position history partition {}", partition.name());
+                } else if (partition.day().isBefore(compactBefore) && !partition.compacted()) {
+                    int deleted = positionHistoryRepository.compactPartition(partition, compactBucketSeconds);
+                    logger.info("Compacted position history partition {}, removed {} rows", partition.name(), deleted);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Position history partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A unit's track in {@code [from, to)}.
+     *
+     * @param bucketSeconds keep the first report per time bucket, done by the database; may be {@code null}
+     * @param toleranceMetres Douglas-Peucker tolerance applied afterwards; may be {@code null}
+     */
+    public TrackDto getUnitTrack(String callSign, LocalDateTime from, LocalDateTime to,
+                                 Integer bucketSeconds, Double toleranceMetres) {
+        PositionHistoryRepository.Tracks tracks = positionHistoryRepository.findTrack(callSign, from, to,
+                bucketSeconds, maxPoints);
+        return new TrackDto(callSign, simplify(tracks.byUnit().getOrDefault(callSign, List.of()), toleranceMetres),
+                tracks.downsampled());
+    }
+
+    /**
+     * The tracks of every unit reported under an operation in {@code [from, to)}.
+     * Beyond {@code app.ops.history.max-points} reports every track is thinned by the same
+     * stride, keeping its first and last point, and marked downsampled.
+     */
+    public List<TrackDto> getOperationTracks(UUID operationId, LocalDateTime from, LocalDateTime to,
+                                             Integer bucketSeconds, Double toleranceMetres) {
+        PositionHistoryRepository.Tracks tracks = positionHistoryRepository.findOperationTracks(operationId, from, to,
+                bucketSeconds, maxPoints);
+        return tracks.byUnit().entrySet().stream()
+                .map(track -> new TrackDto(track.getKey(), simplify(track.getValue(), toleranceMetres),
+                        tracks.downsampled()))
+                .collect(Collectors.toList());
+    }
+
+    private List<TrackPointDto> simplify(List<TrackPointDto> points, Double toleranceMetres) {
+        return toleranceMetres != null ? TrackSimplifier.simplify(points, toleranceMetres) : points;
+    }
+}
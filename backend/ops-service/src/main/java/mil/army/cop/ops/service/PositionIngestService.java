@@ -0,0 +1,114 @@
+package mil.army.cop.ops.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import mil.army.cop.ops.dto.UnitPositionUpdateDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Entry point for position reports.
+ *
+ * In {@code sync} mode the report is applied on the caller's thread. In {@code async}
+ * mode it is only placed on a bounded queue and the caller is acknowledged immediately;
+ * ingest workers apply it and hand the broadcast to the SSE delivery executor. Reports
+ * are partitioned by call sign so each unit's updates are applied in order.
+ */
+@Service
+public class PositionIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PositionIngestService.class);
+
+    @Autowired
+    private UnitStreamService unitStreamService;
+
+    @Value("${app.ops.ingest.mode:sync}")
+    private String mode;
+
+    @Value("${app.ops.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.ops.ingest.workers:2}")
+    private int workerCount;
+
+    private final List<BlockingQueue<PositionReport>> queues = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    @PostConstruct
+    void start() {
+        if (!isAsync()) {
+            return;
+        }
+        int perWorkerCapacity = Math.max(1, queueCapacity / workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            BlockingQueue<PositionReport> queue = new ArrayBlockingQueue<>(perWorkerCapacity);
+            Thread worker = new Thread(() -> runWorker(queue), "position-ingest-" + i);
+            worker.setDaemon(true);
+            queues.add(queue);
+            workers.add(worker);
+            worker.start();
+        }
+        logger.info("Asynchronous position ingest started with {} workers", workerCount);
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.forEach(Thread::interrupt);
+    }
+
+    public boolean isAsync() {
+        return "async".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Accepts a position report.
+     *
+     * @return {@code false} if the ingest queue is full and the report was rejected
+     */
+    public boolean submit(UUID operationId, String unitId, UnitPositionUpdateDto positionUpdate) {
+        if (!isAsync()) {
+            unitStreamService.updateUnitPosition(operationId, unitId, positionUpdate);
+            return true;
+        }
+        BlockingQueue<PositionReport> queue = queues.get(Math.floorMod(unitId.hashCode(), queues.size()));
+        boolean accepted = queue.offer(new PositionReport(operationId, unitId, positionUpdate));
+        if (!accepted) {
+            logger.warn("Position ingest queue full, rejecting update for {}", unitId);
+        }
+        return accepted;
+    }
+
+    private void runWorker(BlockingQueue<PositionReport> queue) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                PositionReport report = queue.take();
+                unitStreamService.updateUnitPosition(report.operationId, report.unitId, report.positionUpdate);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Failed to apply queued position update: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static class PositionReport {
+        private final UUID operationId;
+        private final String unitId;
+        private final UnitPositionUpdateDto positionUpdate;
+
+        PositionReport(UUID operationId, String unitId, UnitPositionUpdateDto positionUpdate) {
+            this.operationId = operationId;
+            this.unitId = unitId;
+            this.positionUpdate = positionUpdate;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package mil.army.cop.ops.service;
+
+import mil.army.cop.ops.repository.OperationRepository;
+import mil.army.cop.ops.state.LiveUnitStore;
+import mil.army.cop.ops.state.UnitClusterIndex;
+import mil.army.cop.ops.state.UnitState;
+import org.locationtech.jts.geom.Envelope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Unit clusters per operation, counting only the units assigned to it.
+ *
+ * An operation's assignments are loaded into the {@link UnitClusterIndex} the first time
+ * its clusters are asked for, and reloaded for every operation seen so far on each
+ * refresh, so assignment changes show within {@code app.ops.cluster.assignment-refresh-ms}.
+ */
+@Service
+public class UnitClusterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnitClusterService.class);
+
+    @Autowired
+    private UnitClusterIndex unitClusterIndex;
+
+    @Autowired
+    private OperationRepository operationRepository;
+
+    @Autowired
+    private LiveUnitStore liveUnitStore;
+
+    public List<UnitClusterIndex.Snapshot> clusters(UUID operationId, int zoom, Envelope bounds) {
+        load(operationId);
+        return unitClusterIndex.clusters(operationId, zoom, bounds);
+    }
+
+    /**
+     * Makes sure the operation's assignments are in the index.
+     */
+    public void load(UUID operationId) {
+        if (!unitClusterIndex.isAssigned(operationId)) {
+            reload(operationId);
+        }
+    }
+
+    /**
+     * Reloads the assignments of every operation seen so far.
+     */
+    @Scheduled(fixedDelayString = "${app.ops.cluster.assignment-refresh-ms:30000}")
+    public void refresh() {
+        List.copyOf(unitClusterIndex.getOperationIds()).forEach(this::reload);
+    }
+
+    private void reload(UUID operationId) {
+        try {
+            List<UnitState> units = operationRepository.findAssignedUnitsById(operationId).stream()
+                    .map(liveUnitStore::get)
+                    .flatMap(Optional::stream)
+                    .toList();
+            unitClusterIndex.assign(operationId, units);
+        } catch (Exception e) {
+            logger.error("Failed to load unit assignments of operation {}: {}", operationId, e.getMessage());
+        }
+    }
+}
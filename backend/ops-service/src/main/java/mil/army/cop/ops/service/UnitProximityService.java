@@ -0,0 +1,174 @@
+package mil.army.cop.ops.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import mil.army.cop.ops.dto.NearbyUnitDto;
+import mil.army.cop.ops.entity.Unit;
+import mil.army.cop.ops.repository.UnitRepository;
+import mil.army.cop.ops.state.LiveUnitStore;
+import mil.army.cop.ops.state.UnitSpatialIndex;
+import mil.army.cop.ops.state.UnitState;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Radius, nearest-neighbour and polygon queries over unit positions.
+ *
+ * Answered from the in-memory {@link UnitSpatialIndex} by default. They go to PostGIS
+ * instead, using the GIST index on {@code ops.units.position}, with
+ * {@code app.ops.spatial.source=database} or while the index holds no units (the live
+ * state store has not been loaded yet). Nearest-neighbour queries there take
+ * {@code nearest-oversample} times the requested count by planar distance and return the
+ * closest of those by geodesic distance.
+ */
+@Service
+public class UnitProximityService {
+
+    @Autowired
+    private UnitSpatialIndex spatialIndex;
+
+    @Autowired
+    private LiveUnitStore liveUnitStore;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ops.spatial.source:memory}")
+    private String source;
+
+    @Value("${app.ops.spatial.nearest-oversample:4}")
+    private int nearestOversample;
+
+    private final Map<String, Timer> timers = new HashMap<>();
+
+    @PostConstruct
+    void registerMetrics() {
+        for (String type : List.of("radius", "nearest", "polygon")) {
+            timers.put(type + ":memory", queryTimer(type, "memory"));
+            timers.put(type + ":database", queryTimer(type, "database"));
+        }
+    }
+
+    public List<NearbyUnitDto> findWithinRadius(double latitude, double longitude, double radiusKm, Unit.UnitStatus status) {
+        boolean database = useDatabase();
+        return timer("radius", database).record(() -> {
+            if (database) {
+                double degrees = radiusKm / 111.0 / Math.max(Math.cos(Math.toRadians(Math.min(89.0, Math.abs(latitude)))), 0.01);
+                return toDtos(unitRepository.findWithinDistance(latitude, longitude, degrees, radiusKm * 1000, name(status)),
+                        latitude, longitude, true);
+            }
+            return spatialIndex.withinRadius(latitude, longitude, radiusKm, statusFilter(status)).stream()
+                    .map(match -> toDto(match.callSign(), match.distanceKm()))
+                    .flatMap(Optional::stream)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    public List<NearbyUnitDto> findNearest(double latitude, double longitude, int count, Unit.UnitStatus status) {
+        boolean database = useDatabase();
+        return timer("nearest", database).record(() -> {
+            if (database) {
+                int candidates = count * Math.max(1, nearestOversample);
+                return toDtos(unitRepository.findNearest(latitude, longitude, count, candidates, name(status)),
+                        latitude, longitude, true);
+            }
+            return spatialIndex.nearest(latitude, longitude, count, statusFilter(status)).stream()
+                    .map(match -> toDto(match.callSign(), match.distanceKm()))
+                    .flatMap(Optional::stream)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    public List<NearbyUnitDto> findWithin(Geometry polygon, Unit.UnitStatus status) {
+        boolean database = useDatabase();
+        return timer("polygon", database).record((Supplier<List<NearbyUnitDto>>) () -> {
+            if (database) {
+                return toDtos(unitRepository.findCoveredBy(polygon.toText(), name(status)), 0, 0, false);
+            }
+            return spatialIndex.within(polygon, statusFilter(status)).stream()
+                    .map(callSign -> toDto(callSign, null))
+                    .flatMap(Optional::stream)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Live state of the given units; unknown call signs are skipped.
+     */
+    public List<NearbyUnitDto> getUnits(Collection<String> callSigns) {
+        return callSigns.stream()
+                .map(callSign -> toDto(callSign, null))
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    private boolean useDatabase() {
+        return "database".equalsIgnoreCase(source) || spatialIndex.size() == 0;
+    }
+
+    private Timer timer(String type, boolean database) {
+        return timers.get(type + (database ? ":database" : ":memory"));
+    }
+
+    private Predicate<String> statusFilter(Unit.UnitStatus status) {
+        if (status == null) {
+            return callSign -> true;
+        }
+        return callSign -> liveUnitStore.get(callSign).map(unit -> unit.getStatus() == status).orElse(false);
+    }
+
+    private Optional<NearbyUnitDto> toDto(String callSign, Double distanceKm) {
+        return liveUnitStore.get(callSign).map(unit -> toDto(unit, distanceKm));
+    }
+
+    private List<NearbyUnitDto> toDtos(List<Unit> units, double latitude, double longitude, boolean withDistance) {
+        return units.stream()
+                .map(UnitState::from)
+                .map(unit -> toDto(unit, withDistance
+                        ? UnitSpatialIndex.distanceKm(latitude, longitude, unit.getLatitude(), unit.getLongitude())
+                        : null))
+                .collect(Collectors.toList());
+    }
+
+    private NearbyUnitDto toDto(UnitState unit, Double distanceKm) {
+        NearbyUnitDto dto = new NearbyUnitDto();
+        dto.setCallSign(unit.getCallSign());
+        dto.setUnitType(unit.getUnitType());
+        dto.setStatus(unit.getStatus().name());
+        dto.setLatitude(unit.getLatitude());
+        dto.setLongitude(unit.getLongitude());
+        dto.setHeading(unit.getHeading());
+        dto.setSpeed(unit.getSpeed());
+        dto.setLastUpdate(unit.getLastUpdate());
+        dto.setDistanceKm(distanceKm);
+        return dto;
+    }
+
+    private String name(Unit.UnitStatus status) {
+        return status != null ? status.name() : null;
+    }
+
+    private Timer queryTimer(String type, String source) {
+        return Timer.builder("ops.spatial.query")
+                .description("Proximity query latency")
+                .tag("type", type)
+                .tag("source", source)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
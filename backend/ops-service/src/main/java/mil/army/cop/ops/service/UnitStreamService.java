@@ -1,128 +1,382 @@
 package mil.army.cop.ops.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import mil.army.cop.ops.broker.StreamBroker;
+import mil.army.cop.ops.broker.StreamMessage;
+import mil.army.cop.ops.dto.BulkPositionUpdateResultDto;
+import mil.army.cop.ops.dto.GeofenceEventDto;
 import mil.army.cop.ops.dto.UnitPositionDto;
 import mil.army.cop.ops.dto.UnitPositionUpdateDto;
-import mil.army.cop.ops.entity.Unit;
-import mil.army.cop.ops.repository.UnitRepository;
+import mil.army.cop.ops.geofence.FenceCrossing;
+import mil.army.cop.ops.repository.OperationRepository;
+import mil.army.cop.ops.state.DeadReckoning;
+import mil.army.cop.ops.state.LiveUnitStore;
+import mil.army.cop.ops.state.UnitClusterIndex;
+import mil.army.cop.ops.state.UnitState;
+import mil.army.cop.ops.stream.BinaryPositionCodec;
+import mil.army.cop.ops.stream.ClusterFeed;
+import mil.army.cop.ops.stream.DeltaPositionFeed;
+import mil.army.cop.ops.stream.OperationStreamHistory;
+import mil.army.cop.ops.stream.PositionFormat;
+import mil.army.cop.ops.stream.PositionStream;
+import mil.army.cop.ops.stream.PositionStreamOptions;
+import mil.army.cop.ops.stream.SseFrame;
+import mil.army.cop.ops.stream.SseSubscriber;
+import mil.army.cop.ops.stream.StreamJournal;
+import mil.army.cop.ops.stream.UnitDictionary;
 import mil.army.cop.shared.exception.CopException;
-import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.geom.Point;
+import mil.army.cop.shared.stream.SubscriberRegistry;
+import org.locationtech.jts.geom.Geometry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 public class UnitStreamService {
 
     private static final Logger logger = LoggerFactory.getLogger(UnitStreamService.class);
     private static final long SSE_TIMEOUT = 30 * 60 * 1000L; // 30 minutes
+    private static final SseFrame HEARTBEAT = SseFrame.comment("heartbeat");
+    // Call signs never start with ':', so these cannot coalesce with a unit's frame
+    private static final String HEARTBEAT_KEY = ":heartbeat";
+    private static final String PREDICTION_KEY = ":predicted";
 
     @Autowired
-    private UnitRepository unitRepository;
+    private LiveUnitStore liveUnitStore;
+
+    @Autowired
+    private UnitClusterIndex unitClusterIndex;
+
+    @Autowired
+    private UnitClusterService unitClusterService;
 
     @Autowired
     private ObjectMapper objectMapper;
 
     @Autowired
-    private GeometryFactory geometryFactory;
+    @Qualifier("sseDeliveryExecutor")
+    private ExecutorService deliveryExecutor;
+
+    @Autowired
+    @Qualifier("sseDeltaScheduler")
+    private ScheduledExecutorService deltaScheduler;
+
+    @Autowired
+    private StreamBroker streamBroker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ops.stream.outbox-capacity:256}")
+    private int outboxCapacity;
+
+    @Value("${app.ops.stream.delta.min-interval-ms:250}")
+    private long minDeltaIntervalMs;
+
+    @Value("${app.ops.stream.replay-buffer-size:4096}")
+    private int replayBufferSize;
+
+    @Value("${app.ops.stream.stall-timeout-ms:30000}")
+    private long stallTimeoutMs;
+
+    @Value("${app.ops.prediction.max-extrapolation-s:30}")
+    private double maxExtrapolationSeconds;
+
+    @Value("${app.ops.stale-track.threshold-s:120}")
+    private long staleThresholdSeconds;
+
+    @Autowired
+    private OperationRepository operationRepository;
+
+    @Autowired
+    private GeofenceService geofenceService;
+
+    @Autowired
+    private PositionHistoryService positionHistoryService;
 
     // Store active SSE connections by operation ID
-    private final Map<UUID, CopyOnWriteArrayList<SseEmitter>> positionStreams = new ConcurrentHashMap<>();
-    private final Map<UUID, CopyOnWriteArrayList<SseEmitter>> eventStreams = new ConcurrentHashMap<>();
+    private final Map<UUID, PositionStream> positionStreams = new ConcurrentHashMap<>();
+    private final SubscriberRegistry<UUID, SseSubscriber> eventStreams = new SubscriberRegistry<>();
+    private final Map<UUID, OperationStreamHistory> histories = new ConcurrentHashMap<>();
+    // Call signs per operation already announced as stale
+    private final Map<UUID, Set<String>> staleUnits = new ConcurrentHashMap<>();
 
-    public SseEmitter createPositionStream(UUID operationId) {
-        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT);
-        
-        // Add to active streams
-        positionStreams.computeIfAbsent(operationId, k -> new CopyOnWriteArrayList<>()).add(emitter);
-        
-        // Handle completion and timeout
-        emitter.onCompletion(() -> removePositionStream(operationId, emitter));
-        emitter.onTimeout(() -> removePositionStream(operationId, emitter));
-        emitter.onError((ex) -> {
-            logger.error("SSE error for operation {}: {}", operationId, ex.getMessage());
-            removePositionStream(operationId, emitter);
+    // Identifies this replica's messages on the broker
+    private final String nodeId = UUID.randomUUID().toString();
+    private Counter publishedMessages;
+    private Timer hopLatency;
+    private Counter evictedSubscribers;
+    private MultiGauge operationSubscribers;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("ops.stream.subscribers", this, UnitStreamService::getSubscriberCount)
+                .description("Open SSE emitters across all operations")
+                .register(meterRegistry);
+        operationSubscribers = MultiGauge.builder("ops.stream.operation.subscribers")
+                .description("Open SSE emitters per operation and stream, refreshed every heartbeat")
+                .register(meterRegistry);
+        Gauge.builder("ops.tracks.stale", staleUnits, units -> units.values().stream().mapToInt(Set::size).sum())
+                .description("Units whose last report is older than the stale track threshold")
+                .register(meterRegistry);
+        evictedSubscribers = Counter.builder("ops.stream.evicted")
+                .description("Subscribers evicted because a write to them stalled")
+                .register(meterRegistry);
+        publishedMessages = Counter.builder("ops.stream.broker.published")
+                .description("Stream messages published to other nodes")
+                .register(meterRegistry);
+        hopLatency = Timer.builder("ops.stream.broker.hop")
+                .description("Time from publish on another node to local delivery (wall clocks, so includes skew)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        streamBroker.subscribe(this::onClusterMessage);
+    }
+
+    /**
+     * Opens a position stream limited to the requested region, or to the operation's area
+     * of interest when none is given. The subscription ID needed to move the region later
+     * is sent to the client in a {@code subscribed} event. With a delta interval the client
+     * receives {@link DeltaPositionFeed} frames instead of one frame per report. Binary
+     * subscribers get {@link BinaryPositionCodec} payloads, preceded by
+     * {@code unit_dictionary} events naming the unit IDs they use. Smoothing subscribers
+     * also get {@link #publishPredictions() predicted positions} between reports.
+     * Cluster subscribers get {@link ClusterFeed} frames of aggregated cells instead of
+     * positions, starting with every cell in their region.
+     *
+     * A client resuming with a Last-Event-ID still covered by the replay buffer gets the
+     * latest position of each unit that moved since then; anyone else gets a
+     * {@code snapshot} of every unit in its region.
+     */
+    public SseEmitter createPositionStream(UUID operationId, PositionStreamOptions options) {
+        Geometry effectiveRegion = options.getRegion() != null
+                ? options.getRegion()
+                : operationRepository.findAreaOfInterestById(operationId).orElse(null);
+
+        SseSubscriber subscriber = openSubscriber(operationId, "position");
+        if (subscriber == null) {
+            return null;
+        }
+        subscriber.onClose(() -> positionStreams.computeIfPresent(operationId, (id, stream) -> {
+            stream.remove(subscriber);
+            return stream.isEmpty() ? null : stream;
+        }));
+        subscriber.offer(null, encodeFrame("subscribed", Map.of("subscriptionId", subscriber.getId())));
+
+        if (options.isClustered()) {
+            ClusterFeed clusterFeed = startClusterFeed(operationId, subscriber, options.getClusterZoom(), effectiveRegion,
+                    options.getClusterIntervalMs());
+            positionStreams.compute(operationId, (id, stream) -> {
+                PositionStream target = stream != null ? stream : new PositionStream();
+                target.addClustered(subscriber, clusterFeed);
+                return target;
+            });
+            return subscriber.getEmitter();
+        }
+
+        DeltaPositionFeed deltaFeed = options.isDelta() ? startDeltaFeed(subscriber, options.getDeltaIntervalMs()) : null;
+        positionStreams.compute(operationId, (id, stream) -> {
+            PositionStream target = stream != null ? stream : new PositionStream();
+            if (options.getFormat() == PositionFormat.BINARY) {
+                UnitDictionary dictionary = target.getUnitDictionary();
+                synchronized (dictionary) {
+                    target.add(subscriber, effectiveRegion, options.getFormat(), deltaFeed, options.isSmoothing());
+                    subscriber.offer(null, encodeFrame("unit_dictionary", dictionary.entries()));
+                }
+            } else {
+                target.add(subscriber, effectiveRegion, options.getFormat(), deltaFeed, options.isSmoothing());
+            }
+            return target;
         });
 
-        // Send initial connection event
-        try {
-            emitter.send(SseEmitter.event()
-                    .name("connected")
-                    .data("Connected to position stream for operation: " + operationId));
-        } catch (IOException e) {
-            logger.error("Failed to send initial SSE event", e);
-            removePositionStream(operationId, emitter);
+        // Registered first so nothing broadcast from here on is missed; the outbox keeps
+        // the newest frame per unit behind the resume frame, so ordering stays correct
+        resumePositions(operationId, subscriber, options.getLastEventId());
+        return subscriber.getEmitter();
+    }
+
+    /**
+     * Moves an open position subscription to a new region; {@code null} removes the filter.
+     *
+     * @return {@code false} if no such subscription is open
+     */
+    public boolean updatePositionStreamRegion(UUID operationId, UUID subscriptionId, Geometry region) {
+        PositionStream stream = positionStreams.get(operationId);
+        return stream != null && stream.updateRegion(subscriptionId, region);
+    }
+
+    /**
+     * Opens an event stream. A client resuming with a Last-Event-ID gets the events it
+     * missed, or a {@code resync} event if they are no longer buffered.
+     */
+    public SseEmitter createEventStream(UUID operationId, Long lastEventId) {
+        SseSubscriber subscriber = openSubscriber(operationId, "event");
+        if (subscriber == null) {
+            return null;
         }
+        subscriber.onClose(() -> eventStreams.remove(operationId, subscriber));
+
+        // Add to active streams
+        eventStreams.add(operationId, subscriber);
 
-        return emitter;
+        if (lastEventId != null) {
+            StreamJournal.Replay<SseFrame> missed = history(operationId).getEvents().since(lastEventId);
+            if (missed != null) {
+                missed.entries().forEach(frame -> subscriber.offer(null, frame));
+            } else {
+                subscriber.offer(null, encodeFrame("resync", Map.of("lastEventId", lastEventId)));
+            }
+        }
+        return subscriber.getEmitter();
     }
 
-    public SseEmitter createEventStream(UUID operationId) {
+    private void resumePositions(UUID operationId, SseSubscriber subscriber, Long lastEventId) {
+        OperationStreamHistory history = history(operationId);
+        StreamJournal.Replay<UnitPositionDto> missed = lastEventId != null
+                ? history.getPositions().since(lastEventId)
+                : null;
+
+        String eventName;
+        long sequence;
+        Map<String, UnitPositionDto> latest = new LinkedHashMap<>();
+        if (missed != null) {
+            eventName = "position_batch";
+            sequence = missed.lastSequence();
+            missed.entries().forEach(position -> latest.put(position.getUnitId(), position));
+        } else {
+            eventName = "snapshot";
+            sequence = history.getPositions().lastSequence();
+            // Assigned units that have not reported since startup come from the live store
+            operationRepository.findAssignedUnitsById(operationId).forEach(callSign ->
+                    liveUnitStore.get(callSign).ifPresent(unit -> latest.put(callSign, toPositionDto(unit))));
+            history.getLatestPositions().forEach(position -> latest.put(position.getUnitId(), position));
+        }
+
+        PositionStream stream = positionStreams.get(operationId);
+        if (stream == null) {
+            return;
+        }
+        List<UnitPositionDto> visible = latest.values().stream()
+                .filter(position -> stream.isVisible(subscriber, position.getLongitude(), position.getLatitude()))
+                .collect(Collectors.toList());
+
+        DeltaPositionFeed deltaFeed = stream.getDeltaFeed(subscriber);
+        if (deltaFeed != null) {
+            visible.forEach(position -> deltaFeed.offer(position, sequence));
+        } else if (missed == null || !visible.isEmpty()) {
+            SseFrame frame = stream.isBinary(subscriber)
+                    ? encodeBinaryFrame(stream, eventName, sequence, visible)
+                    : encodeFrame(eventName, sequence, visible);
+            if (frame != null) {
+                subscriber.offer(null, frame);
+            }
+        }
+    }
+
+    private OperationStreamHistory history(UUID operationId) {
+        return histories.computeIfAbsent(operationId, id -> new OperationStreamHistory(replayBufferSize));
+    }
+
+    private DeltaPositionFeed startDeltaFeed(SseSubscriber subscriber, long intervalMs) {
+        DeltaPositionFeed deltaFeed = new DeltaPositionFeed(subscriber, objectMapper);
+        long period = Math.max(intervalMs, minDeltaIntervalMs);
+        deltaFeed.setSchedule(deltaScheduler.scheduleAtFixedRate(() -> {
+            try {
+                deltaFeed.flush();
+            } catch (Exception e) {
+                // An exception would cancel the schedule for good
+                logger.error("Failed to flush position deltas: {}", e.getMessage());
+            }
+        }, period, period, TimeUnit.MILLISECONDS));
+        return deltaFeed;
+    }
+
+    private ClusterFeed startClusterFeed(UUID operationId, SseSubscriber subscriber, int zoom, Geometry region,
+                                         long intervalMs) {
+        unitClusterService.load(operationId);
+        ClusterFeed clusterFeed = new ClusterFeed(subscriber, unitClusterIndex, operationId, objectMapper, zoom, region);
+        long period = Math.max(intervalMs, minDeltaIntervalMs);
+        clusterFeed.setSchedule(deltaScheduler.scheduleAtFixedRate(() -> {
+            try {
+                clusterFeed.flush();
+            } catch (Exception e) {
+                // An exception would cancel the schedule for good
+                logger.error("Failed to flush unit clusters: {}", e.getMessage());
+            }
+        }, 0, period, TimeUnit.MILLISECONDS));
+        return clusterFeed;
+    }
+
+    private SseSubscriber openSubscriber(UUID operationId, String streamName) {
         SseEmitter emitter = new SseEmitter(SSE_TIMEOUT);
-        
-        // Add to active streams
-        eventStreams.computeIfAbsent(operationId, k -> new CopyOnWriteArrayList<>()).add(emitter);
-        
+        SseSubscriber subscriber = new SseSubscriber(emitter, deliveryExecutor, outboxCapacity);
+
         // Handle completion and timeout
-        emitter.onCompletion(() -> removeEventStream(operationId, emitter));
-        emitter.onTimeout(() -> removeEventStream(operationId, emitter));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
         emitter.onError((ex) -> {
             logger.error("SSE error for operation {}: {}", operationId, ex.getMessage());
-            removeEventStream(operationId, emitter);
+            subscriber.close();
         });
 
         // Send initial connection event
         try {
             emitter.send(SseEmitter.event()
                     .name("connected")
-                    .data("Connected to event stream for operation: " + operationId));
+                    .data("Connected to " + streamName + " stream for operation: " + operationId));
         } catch (IOException e) {
             logger.error("Failed to send initial SSE event", e);
-            removeEventStream(operationId, emitter);
+            return null;
         }
-
-        return emitter;
+        return subscriber;
     }
 
     public void updateUnitPosition(UUID operationId, String unitId, UnitPositionUpdateDto positionUpdate) {
         try {
-            // Find and update unit
-            Unit unit = unitRepository.findByCallSign(unitId)
-                    .orElseThrow(() -> new CopException("Unit not found: " + unitId, "UNIT_NOT_FOUND"));
-
-            // Update position
-            Point newPosition = geometryFactory.createPoint(
-                    new Coordinate(positionUpdate.getLongitude(), positionUpdate.getLatitude()));
-            unit.setPosition(newPosition);
-            unit.setHeading(positionUpdate.getHeading());
-            unit.setSpeed(positionUpdate.getSpeed());
-            unit.setLastUpdate(LocalDateTime.now());
-
-            unitRepository.save(unit);
-
-            // Create position DTO for streaming
-            UnitPositionDto positionDto = new UnitPositionDto();
-            positionDto.setUnitId(unit.getCallSign());
-            positionDto.setLatitude(positionUpdate.getLatitude());
-            positionDto.setLongitude(positionUpdate.getLongitude());
-            positionDto.setHeading(positionUpdate.getHeading());
-            positionDto.setSpeed(positionUpdate.getSpeed());
-            positionDto.setStatus(unit.getStatus().name());
-            positionDto.setTimestamp(unit.getLastUpdate());
+            UnitState previous = liveUnitStore.get(unitId).orElse(null);
+            UnitState unit = liveUnitStore.updatePosition(unitId,
+                    positionUpdate.getLatitude(), positionUpdate.getLongitude(),
+                    positionUpdate.getHeading(), positionUpdate.getSpeed());
+
+            positionHistoryService.record(operationId, unit);
+            UnitPositionDto positionDto = toPositionDto(unit);
 
             // Broadcast to all position streams for this operation
             broadcastPositionUpdate(operationId, positionDto);
+            broadcastCrossings(operationId, previous, unit);
 
         } catch (Exception e) {
             logger.error("Failed to update unit position for {}: {}", unitId, e.getMessage());
@@ -130,57 +384,388 @@ public class UnitStreamService {
         }
     }
 
+    /**
+     * Applies a gateway batch and emits a single {@code position_batch} frame per operation.
+     */
+    public BulkPositionUpdateResultDto updateUnitPositions(UUID operationId, List<UnitPositionUpdateDto> positionUpdates) {
+        Map<String, UnitState> previous = new HashMap<>();
+        for (UnitPositionUpdateDto update : positionUpdates) {
+            liveUnitStore.get(update.getCallSign()).ifPresent(unit -> previous.putIfAbsent(unit.getCallSign(), unit));
+        }
+        List<UnitState> updated = liveUnitStore.updatePositions(positionUpdates);
+        positionHistoryService.record(operationId, updated);
+
+        List<UnitPositionDto> positions = updated.stream()
+                .map(this::toPositionDto)
+                .collect(Collectors.toList());
+        broadcastPositionBatch(operationId, positions);
+        // A unit reported more than once moves from each of its positions to the next
+        for (UnitState unit : updated) {
+            broadcastCrossings(operationId, previous.put(unit.getCallSign(), unit), unit);
+        }
+
+        Set<String> updatedCallSigns = updated.stream()
+                .map(UnitState::getCallSign)
+                .collect(Collectors.toSet());
+        List<String> unknownUnits = positionUpdates.stream()
+                .map(UnitPositionUpdateDto::getCallSign)
+                .filter(callSign -> !updatedCallSigns.contains(callSign))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!unknownUnits.isEmpty()) {
+            logger.warn("Bulk position update for operation {} skipped unknown units: {}", operationId, unknownUnits);
+        }
+        return new BulkPositionUpdateResultDto(updated.size(), unknownUnits);
+    }
+
+    /**
+     * Sends a batch to the subscribers on every node.
+     */
+    public void broadcastPositionBatch(UUID operationId, List<UnitPositionDto> positions) {
+        if (positions.isEmpty()) {
+            return;
+        }
+        deliverPositionBatch(operationId, positions);
+        StreamMessage message = new StreamMessage(nodeId, operationId, StreamMessage.Kind.POSITION_BATCH);
+        message.setPositions(positions);
+        publish(message);
+    }
+
     public void broadcastPositionUpdate(UUID operationId, UnitPositionDto positionDto) {
-        CopyOnWriteArrayList<SseEmitter> streams = positionStreams.get(operationId);
-        if (streams != null && !streams.isEmpty()) {
-            streams.removeIf(emitter -> {
-                try {
-                    emitter.send(SseEmitter.event()
-                            .name("position_update")
-                            .data(objectMapper.writeValueAsString(positionDto)));
-                    return false; // Keep emitter
-                } catch (IOException e) {
-                    logger.warn("Failed to send position update, removing emitter: {}", e.getMessage());
-                    return true; // Remove emitter
+        deliverPositionUpdate(operationId, positionDto);
+        StreamMessage message = new StreamMessage(nodeId, operationId, StreamMessage.Kind.POSITION_UPDATE);
+        message.setPositions(List.of(positionDto));
+        publish(message);
+    }
+
+    public void broadcastOperationEvent(UUID operationId, String eventType, Object eventData) {
+        JsonNode data = objectMapper.valueToTree(eventData);
+        deliverOperationEvent(operationId, eventType, data);
+        StreamMessage message = new StreamMessage(nodeId, operationId, StreamMessage.Kind.OPERATION_EVENT);
+        message.setEventType(eventType);
+        message.setEventData(data);
+        publish(message);
+    }
+
+    /**
+     * Raises an operation event for every fence the unit entered, exited or crossed.
+     */
+    private void broadcastCrossings(UUID operationId, UnitState previous, UnitState unit) {
+        if (previous == null) {
+            return;
+        }
+        try {
+            for (FenceCrossing crossing : geofenceService.evaluate(operationId, previous, unit)) {
+                broadcastOperationEvent(operationId, crossing.transition().getEventType(), toGeofenceEvent(crossing, unit));
+            }
+        } catch (Exception e) {
+            logger.error("Geofence evaluation failed for {}: {}", unit.getCallSign(), e.getMessage());
+        }
+    }
+
+    private void publish(StreamMessage message) {
+        streamBroker.publish(message);
+        publishedMessages.increment();
+    }
+
+    /**
+     * Delivers a broadcast published by another node to the subscribers on this one.
+     */
+    private void onClusterMessage(StreamMessage message) {
+        if (nodeId.equals(message.getOrigin())) {
+            return;
+        }
+        hopLatency.record(Math.max(0, System.currentTimeMillis() - message.getPublishedAt()), TimeUnit.MILLISECONDS);
+        if (message.getKind() != StreamMessage.Kind.OPERATION_EVENT) {
+            // Keeps proximity, clusters, geofence baselines and snapshots current on every replica
+            try {
+                liveUnitStore.applyRemotePositions(message.getPositions());
+            } catch (Exception e) {
+                logger.error("Failed to apply {} remote positions: {}", message.getPositions().size(), e.getMessage());
+            }
+        }
+        switch (message.getKind()) {
+            case POSITION_UPDATE -> message.getPositions().forEach(position ->
+                    deliverPositionUpdate(message.getOperationId(), position));
+            case POSITION_BATCH -> deliverPositionBatch(message.getOperationId(), message.getPositions());
+            case OPERATION_EVENT -> deliverOperationEvent(message.getOperationId(), message.getEventType(), message.getEventData());
+        }
+    }
+
+    /**
+     * Sends each local subscriber one frame holding only the positions inside its region.
+     * Subscribers that see the same subset share a single encoded frame.
+     */
+    private void deliverPositionBatch(UUID operationId, List<UnitPositionDto> positions) {
+        long sequence = history(operationId).recordPositions(positions);
+        positions.forEach(position -> clearStale(operationId, position));
+        PositionStream stream = positionStreams.get(operationId);
+        if (stream == null || stream.isEmpty()) {
+            return;
+        }
+        Map<SseSubscriber, List<UnitPositionDto>> visibleJson = new IdentityHashMap<>();
+        Map<SseSubscriber, List<UnitPositionDto>> visibleBinary = new IdentityHashMap<>();
+        for (UnitPositionDto position : positions) {
+            for (SseSubscriber subscriber : stream.subscribersAt(position.getLongitude(), position.getLatitude())) {
+                DeltaPositionFeed deltaFeed = stream.getDeltaFeed(subscriber);
+                if (deltaFeed != null) {
+                    deltaFeed.offer(position, sequence);
+                } else {
+                    Map<SseSubscriber, List<UnitPositionDto>> visible = stream.isBinary(subscriber) ? visibleBinary : visibleJson;
+                    visible.computeIfAbsent(subscriber, k -> new ArrayList<>()).add(position);
                 }
-            });
+            }
         }
+
+        groupBySubset(visibleJson).forEach((subset, subscribers) ->
+                offerAll(subscribers, encodeFrame("position_batch", sequence, subset)));
+        groupBySubset(visibleBinary).forEach((subset, subscribers) ->
+                offerAll(subscribers, encodeBinaryFrame(stream, "position_batch", sequence, subset)));
     }
 
-    public void broadcastOperationEvent(UUID operationId, String eventType, Object eventData) {
-        CopyOnWriteArrayList<SseEmitter> streams = eventStreams.get(operationId);
-        if (streams != null && !streams.isEmpty()) {
-            streams.removeIf(emitter -> {
-                try {
-                    emitter.send(SseEmitter.event()
-                            .name(eventType)
-                            .data(objectMapper.writeValueAsString(eventData)));
-                    return false; // Keep emitter
-                } catch (IOException e) {
-                    logger.warn("Failed to send operation event, removing emitter: {}", e.getMessage());
-                    return true; // Remove emitter
+    private static Map<List<UnitPositionDto>, List<SseSubscriber>> groupBySubset(Map<SseSubscriber, List<UnitPositionDto>> visible) {
+        return visible.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+    }
+
+    private static void offerAll(List<SseSubscriber> subscribers, SseFrame frame) {
+        if (frame != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(null, frame));
+        }
+    }
+
+    private void deliverPositionUpdate(UUID operationId, UnitPositionDto positionDto) {
+        long sequence = history(operationId).recordPosition(positionDto);
+        clearStale(operationId, positionDto);
+        PositionStream stream = positionStreams.get(operationId);
+        if (stream == null || stream.isEmpty()) {
+            return;
+        }
+        SseFrame jsonFrame = null;
+        SseFrame binaryFrame = null;
+        for (SseSubscriber subscriber : stream.subscribersAt(positionDto.getLongitude(), positionDto.getLatitude())) {
+            DeltaPositionFeed deltaFeed = stream.getDeltaFeed(subscriber);
+            if (deltaFeed != null) {
+                deltaFeed.offer(positionDto, sequence);
+                continue;
+            }
+            SseFrame frame;
+            if (stream.isBinary(subscriber)) {
+                if (binaryFrame == null) {
+                    binaryFrame = encodeBinaryFrame(stream, "position_update", sequence, List.of(positionDto));
                 }
-            });
+                frame = binaryFrame;
+            } else {
+                if (jsonFrame == null) {
+                    jsonFrame = encodeFrame("position_update", sequence, positionDto);
+                }
+                frame = jsonFrame;
+            }
+            if (frame != null) {
+                // Latest position per unit wins in each subscriber's outbox
+                subscriber.offer(positionDto.getUnitId(), frame);
+            }
         }
     }
 
-    private void removePositionStream(UUID operationId, SseEmitter emitter) {
-        CopyOnWriteArrayList<SseEmitter> streams = positionStreams.get(operationId);
-        if (streams != null) {
-            streams.remove(emitter);
-            if (streams.isEmpty()) {
-                positionStreams.remove(operationId);
+    private void deliverOperationEvent(UUID operationId, String eventType, JsonNode eventData) {
+        byte[] data;
+        try {
+            data = objectMapper.writeValueAsBytes(eventData);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize {} event: {}", eventType, e.getMessage());
+            return;
+        }
+        // Journaled even without subscribers so a reconnecting client can catch up
+        SseFrame frame = history(operationId).recordEvent(eventType, data);
+
+        eventStreams.get(operationId).forEach(subscriber -> subscriber.offer(null, frame));
+    }
+
+    /**
+     * Sends smoothing subscribers the dead-reckoned position of every moving unit in their
+     * region as a {@code position_predicted} frame. Predictions carry no event ID and only
+     * the newest one waits in an outbox, so they never hold back real reports.
+     */
+    @Scheduled(fixedRateString = "${app.ops.prediction.interval-ms:1000}")
+    public void publishPredictions() {
+        LocalDateTime now = LocalDateTime.now();
+        positionStreams.forEach((operationId, stream) -> {
+            if (stream.getSmoothingSubscribers().isEmpty()) {
+                return;
+            }
+            List<UnitPositionDto> predicted = history(operationId).getLatestPositions().stream()
+                    .map(position -> DeadReckoning.extrapolate(position, now, maxExtrapolationSeconds))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            if (predicted.isEmpty()) {
+                return;
+            }
+
+            Map<SseSubscriber, List<UnitPositionDto>> visibleJson = new IdentityHashMap<>();
+            Map<SseSubscriber, List<UnitPositionDto>> visibleBinary = new IdentityHashMap<>();
+            for (SseSubscriber subscriber : stream.getSmoothingSubscribers()) {
+                List<UnitPositionDto> visible = predicted.stream()
+                        .filter(position -> stream.isVisible(subscriber, position.getLongitude(), position.getLatitude()))
+                        .collect(Collectors.toList());
+                if (!visible.isEmpty()) {
+                    (stream.isBinary(subscriber) ? visibleBinary : visibleJson).put(subscriber, visible);
+                }
+            }
+            groupBySubset(visibleJson).forEach((subset, subscribers) ->
+                    offerPrediction(subscribers, encodeFrame("position_predicted", subset)));
+            groupBySubset(visibleBinary).forEach((subset, subscribers) ->
+                    offerPrediction(subscribers, encodeBinaryFrame(stream, "position_predicted", null, subset)));
+        });
+    }
+
+    /**
+     * Raises a {@code unit_stale} event for every unit whose last report is older than the
+     * stale track threshold, and {@code unit_resumed} when it reports again. Every node
+     * tracks this for its own subscribers, so these events are not published to the broker.
+     * Last reports come from the {@link LiveUnitStore}, which also holds positions received
+     * by other replicas and units that have not reported since startup. Assignments come from
+     * the {@link UnitClusterIndex}, loaded once per operation and refreshed every
+     * {@code app.ops.cluster.assignment-refresh-ms}, so a sweep does not query the database.
+     */
+    @Scheduled(fixedDelayString = "${app.ops.stale-track.check-interval-ms:5000}")
+    public void detectStaleTracks() {
+        LocalDateTime threshold = LocalDateTime.now().minusSeconds(staleThresholdSeconds);
+        Set<UUID> operationIds = new HashSet<>(histories.keySet());
+        operationIds.addAll(positionStreams.keySet());
+        eventStreams.forEachGroup((operationId, subscribers) -> operationIds.add(operationId));
+        for (UUID operationId : operationIds) {
+            unitClusterService.load(operationId);
+            for (String callSign : unitClusterIndex.getAssignedUnits(operationId)) {
+                LocalDateTime lastUpdate = liveUnitStore.get(callSign).map(UnitState::getLastUpdate).orElse(null);
+                if (lastUpdate == null || !lastUpdate.isBefore(threshold)) {
+                    continue;
+                }
+                if (staleUnits.computeIfAbsent(operationId, id -> ConcurrentHashMap.newKeySet()).add(callSign)) {
+                    deliverOperationEvent(operationId, "unit_stale", objectMapper.valueToTree(Map.of(
+                            "unitId", callSign,
+                            "lastUpdate", lastUpdate)));
+                }
+            }
+        }
+    }
+
+    private void clearStale(UUID operationId, UnitPositionDto position) {
+        Set<String> stale = staleUnits.get(operationId);
+        if (stale != null && stale.remove(position.getUnitId())) {
+            deliverOperationEvent(operationId, "unit_resumed", objectMapper.valueToTree(Map.of(
+                    "unitId", position.getUnitId(),
+                    "lastUpdate", position.getTimestamp())));
+        }
+    }
+
+    private static void offerPrediction(List<SseSubscriber> subscribers, SseFrame frame) {
+        if (frame != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(PREDICTION_KEY, frame));
+        }
+    }
+
+    /**
+     * Sends a comment to every subscriber so proxies keep idle connections open and
+     * half-open ones fill their socket buffer; a subscriber whose write has been blocked
+     * for longer than the stall timeout is evicted.
+     */
+    @Scheduled(fixedDelayString = "${app.ops.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long stallNanos = TimeUnit.MILLISECONDS.toNanos(stallTimeoutMs);
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        positionStreams.forEach((operationId, stream) -> {
+            heartbeat(stream.getSubscribers(), stallNanos);
+            rows.add(MultiGauge.Row.of(Tags.of("operation", operationId.toString(), "stream", "position"),
+                    stream.getSubscribers().size()));
+        });
+        eventStreams.forEachGroup((operationId, subscribers) -> {
+            heartbeat(subscribers, stallNanos);
+            rows.add(MultiGauge.Row.of(Tags.of("operation", operationId.toString(), "stream", "event"),
+                    subscribers.size()));
+        });
+        operationSubscribers.register(rows, true);
+    }
+
+    public int getSubscriberCount() {
+        return positionStreams.values().stream().mapToInt(stream -> stream.getSubscribers().size()).sum()
+                + eventStreams.size();
+    }
+
+    private void heartbeat(Collection<SseSubscriber> subscribers, long stallNanos) {
+        for (SseSubscriber subscriber : subscribers) {
+            if (subscriber.isStalled(stallNanos)) {
+                evict(subscriber);
+            } else {
+                subscriber.offer(HEARTBEAT_KEY, HEARTBEAT);
             }
         }
     }
 
-    private void removeEventStream(UUID operationId, SseEmitter emitter) {
-        CopyOnWriteArrayList<SseEmitter> streams = eventStreams.get(operationId);
-        if (streams != null) {
-            streams.remove(emitter);
-            if (streams.isEmpty()) {
-                eventStreams.remove(operationId);
+    private void evict(SseSubscriber subscriber) {
+        logger.warn("Evicting stalled SSE subscriber {}", subscriber.getId());
+        evictedSubscribers.increment();
+        subscriber.fail(new IOException("SSE write stalled for over " + stallTimeoutMs + " ms"));
+    }
+
+    private UnitPositionDto toPositionDto(UnitState unit) {
+        UnitPositionDto positionDto = new UnitPositionDto();
+        positionDto.setUnitId(unit.getCallSign());
+        positionDto.setLatitude(unit.getLatitude());
+        positionDto.setLongitude(unit.getLongitude());
+        positionDto.setHeading(unit.getHeading());
+        positionDto.setSpeed(unit.getSpeed());
+        positionDto.setStatus(unit.getStatus().name());
+        positionDto.setTimestamp(unit.getLastUpdate());
+        return positionDto;
+    }
+
+    private GeofenceEventDto toGeofenceEvent(FenceCrossing crossing, UnitState unit) {
+        GeofenceEventDto event = new GeofenceEventDto();
+        event.setFenceId(crossing.fence().getId());
+        event.setFenceName(crossing.fence().getName());
+        event.setFenceType(crossing.fence().getKind().name());
+        event.setCallSign(unit.getCallSign());
+        event.setLatitude(unit.getLatitude());
+        event.setLongitude(unit.getLongitude());
+        event.setTimestamp(unit.getLastUpdate());
+        return event;
+    }
+
+    /**
+     * Encodes positions for binary subscribers, first publishing any call signs they have
+     * not been given an ID for yet. A client that meets an unknown ID (its outbox overflowed
+     * and dropped a dictionary event) reconnects and receives the full dictionary again.
+     */
+    private SseFrame encodeBinaryFrame(PositionStream stream, String eventName, Long sequence, List<UnitPositionDto> positions) {
+        UnitDictionary dictionary = stream.getUnitDictionary();
+        synchronized (dictionary) {
+            Map<Integer, String> added = dictionary.intern(positions.stream()
+                    .map(UnitPositionDto::getUnitId)
+                    .collect(Collectors.toList()));
+            if (!added.isEmpty()) {
+                SseFrame dictionaryFrame = encodeFrame("unit_dictionary", added);
+                if (dictionaryFrame == null) {
+                    return null;
+                }
+                stream.getBinarySubscribers().forEach(subscriber -> subscriber.offer(null, dictionaryFrame));
             }
         }
+        byte[] payload = BinaryPositionCodec.encode(positions, dictionary::idOf);
+        return SseFrame.of(eventName, sequence, Base64.getEncoder().encode(payload));
+    }
+
+    private SseFrame encodeFrame(String eventName, Object payload) {
+        return encodeFrame(eventName, null, payload);
+    }
+
+    private SseFrame encodeFrame(String eventName, Long sequence, Object payload) {
+        try {
+            return SseFrame.of(eventName, sequence, objectMapper.writeValueAsBytes(payload));
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize {} event: {}", eventName, e.getMessage());
+            return null;
+        }
     }
 }
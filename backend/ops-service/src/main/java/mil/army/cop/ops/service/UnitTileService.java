@@ -0,0 +1,65 @@
+package mil.army.cop.ops.service;
+
+import jakarta.annotation.PostConstruct;
+import mil.army.cop.ops.repository.TileRepository;
+import mil.army.cop.ops.state.LiveUnitStore;
+import mil.army.cop.ops.state.UnitState;
+import mil.army.cop.shared.tile.TileCache;
+import mil.army.cop.shared.tile.TileKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves the unit layer as cached vector tiles.
+ *
+ * Tiles are rendered from {@code ops.units}, so they are invalidated when
+ * {@link LiveUnitStore} writes a position rather than when it is reported; invalidating
+ * on report would let a request arriving before the write-behind flush cache the old
+ * position. Both the tile a unit left and the one it moved to are invalidated.
+ */
+@Service
+public class UnitTileService {
+
+    @Autowired
+    private TileRepository tileRepository;
+
+    @Autowired
+    private LiveUnitStore liveUnitStore;
+
+    @Autowired
+    @Qualifier("unitTileCache")
+    private TileCache tileCache;
+
+    // Call sign -> {longitude, latitude} as last written to ops.units
+    private final Map<String, double[]> writtenPositions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        liveUnitStore.getAll().forEach(unit ->
+                writtenPositions.put(unit.getCallSign(), new double[] {unit.getLongitude(), unit.getLatitude()}));
+        liveUnitStore.addWriteListener(this::onUnitsWritten);
+    }
+
+    public byte[] getUnitTile(int z, int x, int y) {
+        return tileCache.get(new TileKey(z, x, y), tileRepository::findUnitTile);
+    }
+
+    private void onUnitsWritten(List<UnitState> units) {
+        List<double[]> changed = new ArrayList<>(units.size() * 2);
+        for (UnitState unit : units) {
+            double[] position = {unit.getLongitude(), unit.getLatitude()};
+            double[] previous = writtenPositions.put(unit.getCallSign(), position);
+            changed.add(position);
+            if (previous != null) {
+                changed.add(previous);
+            }
+        }
+        tileCache.invalidatePoints(changed);
+    }
+}
@@ -0,0 +1,71 @@
+package mil.army.cop.ops.state;
+
+import mil.army.cop.ops.dto.UnitPositionDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Extrapolates a unit's position from its last reported heading and speed.
+ *
+ * Heading is in degrees clockwise from north and speed in metres per second. The unit is
+ * assumed to hold both along a great circle, which is accurate enough over the few
+ * hundred metres covered between reports.
+ */
+public final class DeadReckoning {
+
+    private static final double EARTH_RADIUS_M = 6_371_000.0;
+
+    private DeadReckoning() {}
+
+    /**
+     * Where the unit is expected to be at {@code at}.
+     *
+     * @param maxSeconds how long after the report predictions are made, so a unit that has
+     *                   stopped reporting does not keep drifting across the map
+     * @return the predicted position stamped with {@code at}, or {@code null} if the unit
+     *         is not moving, the report is older than {@code maxSeconds} or carries no
+     *         heading, speed or timestamp
+     */
+    public static UnitPositionDto extrapolate(UnitPositionDto last, LocalDateTime at, double maxSeconds) {
+        if (last.getHeading() == null || last.getSpeed() == null || last.getSpeed() <= 0
+                || last.getTimestamp() == null || last.getLatitude() == null || last.getLongitude() == null) {
+            return null;
+        }
+        double elapsed = Duration.between(last.getTimestamp(), at).toMillis() / 1000.0;
+        if (elapsed <= 0 || elapsed > maxSeconds) {
+            return null;
+        }
+        double[] position = destination(last.getLatitude(), last.getLongitude(), last.getHeading(),
+                last.getSpeed() * elapsed);
+
+        UnitPositionDto predicted = new UnitPositionDto();
+        predicted.setUnitId(last.getUnitId());
+        predicted.setLatitude(position[0]);
+        predicted.setLongitude(position[1]);
+        predicted.setHeading(last.getHeading());
+        predicted.setSpeed(last.getSpeed());
+        predicted.setStatus(last.getStatus());
+        predicted.setTimestamp(at);
+        return predicted;
+    }
+
+    /**
+     * Point reached travelling {@code distanceM} metres from a start point on a bearing.
+     *
+     * @return {@code {latitude, longitude}} in degrees
+     */
+    public static double[] destination(double latitude, double longitude, double bearingDegrees, double distanceM) {
+        double angular = distanceM / EARTH_RADIUS_M;
+        double bearing = Math.toRadians(bearingDegrees);
+        double lat1 = Math.toRadians(latitude);
+        double lon1 = Math.toRadians(longitude);
+
+        double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angular)
+                + Math.cos(lat1) * Math.sin(angular) * Math.cos(bearing));
+        double lon2 = lon1 + Math.atan2(Math.sin(bearing) * Math.sin(angular) * Math.cos(lat1),
+                Math.cos(angular) - Math.sin(lat1) * Math.sin(lat2));
+        double normalizedLongitude = (Math.toDegrees(lon2) + 540) % 360 - 180;
+        return new double[] {Math.toDegrees(lat2), normalizedLongitude};
+    }
+}
@@ -0,0 +1,286 @@
+package mil.army.cop.ops.state;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import mil.army.cop.ops.dto.UnitPositionDto;
+import mil.army.cop.ops.dto.UnitPositionUpdateDto;
+import mil.army.cop.ops.repository.UnitRepository;
+import mil.army.cop.shared.exception.CopException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Authoritative in-memory state of all units, keyed by call sign.
+ *
+ * Loaded from {@code ops.units} at startup. Position reports only touch this map; changed
+ * units are marked dirty and written back by {@link #flush()} once per flush interval,
+ * so any number of reports for a unit within an interval cost a single row update.
+ * The flush interval is therefore the maximum window of position data lost on a crash.
+ * With {@code app.ops.live-state.write-behind=false} every update is written through.
+ * Positions reported to other replicas are applied through {@link #applyRemotePositions}
+ * so every replica's picture is complete; they are not written back here, the replica
+ * that received them does that. Every position change is also applied to the
+ * {@link UnitSpatialIndex} and the {@link UnitClusterIndex}. Write listeners are told about each batch of units once it
+ * has been written.
+ */
+@Component
+public class LiveUnitStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveUnitStore.class);
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private UnitStateWriter unitStateWriter;
+
+    @Autowired
+    private UnitSpatialIndex spatialIndex;
+
+    @Autowired
+    private UnitClusterIndex clusterIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ops.live-state.write-behind:true}")
+    private boolean writeBehind;
+
+    @Value("${app.ops.live-state.max-batch-size:500}")
+    private int maxBatchSize;
+
+    private final Map<String, UnitState> units = new ConcurrentHashMap<>();
+    // Call sign -> System.nanoTime() of the oldest change not yet written
+    private final Map<String, Long> dirty = new ConcurrentHashMap<>();
+    private final List<Consumer<List<UnitState>>> writeListeners = new CopyOnWriteArrayList<>();
+
+    private Timer flushTimer;
+    private Counter flushedRows;
+
+    @PostConstruct
+    void load() {
+        unitRepository.findAll().forEach(unit -> {
+            UnitState state = UnitState.from(unit);
+            units.put(unit.getCallSign(), state);
+            index(state);
+        });
+        logger.info("Loaded {} units into live state store", units.size());
+
+        flushTimer = Timer.builder("ops.live_state.flush")
+                .description("Time taken to write dirty unit state to the database")
+                .register(meterRegistry);
+        flushedRows = Counter.builder("ops.live_state.flushed")
+                .description("Unit rows written by the write-behind flusher")
+                .register(meterRegistry);
+        Gauge.builder("ops.live_state.flush.lag", this, LiveUnitStore::getFlushLagSeconds)
+                .description("Age of the oldest unit change not yet written to the database")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("ops.live_state.dirty", dirty, Map::size)
+                .description("Units with changes not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("ops.live_state.units", units, Map::size)
+                .description("Units held in the live state store")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a callback run with every batch of units written to {@code ops.units}.
+     */
+    public void addWriteListener(Consumer<List<UnitState>> listener) {
+        writeListeners.add(listener);
+    }
+
+    public Optional<UnitState> get(String callSign) {
+        return Optional.ofNullable(units.get(callSign));
+    }
+
+    public Collection<UnitState> getAll() {
+        return units.values();
+    }
+
+    public UnitState updatePosition(String callSign, double latitude, double longitude, Double heading, Double speed) {
+        UnitState current = units.get(callSign);
+        if (current == null) {
+            // Units created after startup are picked up on first report
+            current = unitRepository.findByCallSign(callSign)
+                    .map(UnitState::from)
+                    .orElseThrow(() -> new CopException("Unit not found: " + callSign, "UNIT_NOT_FOUND"));
+            units.putIfAbsent(callSign, current);
+        }
+
+        UnitState updated = units.compute(callSign, (key, existing) ->
+                existing.withPosition(latitude, longitude, heading, speed, LocalDateTime.now()));
+        index(updated);
+        markDirty(callSign);
+        return updated;
+    }
+
+    /**
+     * Applies a batch of reports keyed by {@link UnitPositionUpdateDto#getCallSign()}.
+     *
+     * Units not yet in memory are resolved with a single {@code IN} query, and in
+     * write-through mode the whole batch is persisted in one transaction.
+     * Reports for unknown call signs are skipped.
+     *
+     * @return the updated states, in report order
+     */
+    public List<UnitState> updatePositions(List<UnitPositionUpdateDto> updates) {
+        List<String> missing = updates.stream()
+                .map(UnitPositionUpdateDto::getCallSign)
+                .filter(callSign -> !units.containsKey(callSign))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            unitRepository.findByCallSignIn(missing)
+                    .forEach(unit -> units.putIfAbsent(unit.getCallSign(), UnitState.from(unit)));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UnitState> updated = new ArrayList<>(updates.size());
+        for (UnitPositionUpdateDto update : updates) {
+            UnitState state = units.computeIfPresent(update.getCallSign(), (key, existing) ->
+                    existing.withPosition(update.getLatitude(), update.getLongitude(),
+                            update.getHeading(), update.getSpeed(), now));
+            if (state != null) {
+                index(state);
+                updated.add(state);
+            }
+        }
+
+        if (writeBehind) {
+            long since = System.nanoTime();
+            updated.forEach(state -> dirty.putIfAbsent(state.getCallSign(), since));
+        } else {
+            write(updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Applies positions broadcast by another replica, keyed by {@link UnitPositionDto#getUnitId()}.
+     *
+     * They update the live state and indexes but are not marked dirty. A position older
+     * than the one already held is ignored, so a late broadcast cannot move a unit back.
+     */
+    public void applyRemotePositions(List<UnitPositionDto> positions) {
+        List<String> missing = positions.stream()
+                .map(UnitPositionDto::getUnitId)
+                .filter(callSign -> !units.containsKey(callSign))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            unitRepository.findByCallSignIn(missing)
+                    .forEach(unit -> units.putIfAbsent(unit.getCallSign(), UnitState.from(unit)));
+        }
+
+        for (UnitPositionDto position : positions) {
+            if (position.getLatitude() == null || position.getLongitude() == null) {
+                continue;
+            }
+            LocalDateTime reportedAt = position.getTimestamp() != null ? position.getTimestamp() : LocalDateTime.now();
+            UnitState current = units.get(position.getUnitId());
+            UnitState state = units.computeIfPresent(position.getUnitId(), (key, existing) ->
+                    existing.getLastUpdate() != null && !reportedAt.isAfter(existing.getLastUpdate())
+                            ? existing
+                            : existing.withPosition(position.getLatitude(), position.getLongitude(),
+                                    position.getHeading(), position.getSpeed(), reportedAt));
+            if (state != null && state != current) {
+                index(state);
+            }
+        }
+    }
+
+    /**
+     * Writes every dirty unit's latest state back to {@code ops.units}.
+     */
+    @Scheduled(fixedDelayString = "${app.ops.live-state.flush-interval-ms:1000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<String> callSigns = new ArrayList<>(dirty.keySet());
+        for (int from = 0; from < callSigns.size(); from += maxBatchSize) {
+            flushBatch(callSigns.subList(from, Math.min(from + maxBatchSize, callSigns.size())));
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    public double getFlushLagSeconds() {
+        long now = System.nanoTime();
+        long oldest = dirty.values().stream().mapToLong(Long::longValue).min().orElse(now);
+        return (now - oldest) / 1_000_000_000.0;
+    }
+
+    private void index(UnitState state) {
+        spatialIndex.update(state.getCallSign(), state.getLatitude(), state.getLongitude());
+        clusterIndex.update(state);
+    }
+
+    private void write(List<UnitState> states) {
+        unitStateWriter.write(states);
+        for (Consumer<List<UnitState>> listener : writeListeners) {
+            try {
+                listener.accept(states);
+            } catch (Exception e) {
+                logger.error("Unit write listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void markDirty(String callSign) {
+        if (writeBehind) {
+            dirty.putIfAbsent(callSign, System.nanoTime());
+        } else {
+            write(List.of(units.get(callSign)));
+        }
+    }
+
+    private void flushBatch(List<String> callSigns) {
+        Map<String, Long> claimed = new HashMap<>();
+        List<UnitState> states = new ArrayList<>(callSigns.size());
+        for (String callSign : callSigns) {
+            Long since = dirty.remove(callSign);
+            if (since != null) {
+                claimed.put(callSign, since);
+                states.add(units.get(callSign));
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            write(states);
+            flushedRows.increment(states.size());
+        } catch (Exception e) {
+            logger.error("Failed to flush {} units, will retry: {}", states.size(), e.getMessage());
+            claimed.forEach((callSign, since) -> dirty.merge(callSign, since, Math::min));
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package mil.army.cop.ops.state;
+
+import mil.army.cop.ops.dto.UnitClusterDto;
+import mil.army.cop.ops.entity.Unit;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Per-operation, per-zoom grid aggregates of live units, kept current by {@link LiveUnitStore}.
+ *
+ * Each operation has its own grids holding only the units assigned to it, set with
+ * {@link #assign}; a unit assigned to several operations is counted in each of them.
+ * Every zoom level up to {@code app.ops.cluster.max-zoom} has its own grid of
+ * {@code cells-per-tile} x {@code cells-per-tile} cells per map tile width. Each cell keeps
+ * running counts per {@link Unit.UnitStatus} and unit type and the coordinate sums for its
+ * centroid, so a moving unit costs one subtract and one add per level and a cluster query
+ * only reads the cells it covers. Cells are square in degrees rather than in mercator,
+ * which only matters near the poles. Every change bumps the cell's version so feeds can
+ * send just the cells that changed.
+ */
+@Component
+public class UnitClusterIndex {
+
+    private final int maxZoom;
+    private final int cellsPerTile;
+    private final Map<UUID, Layer> operations = new ConcurrentHashMap<>();
+    // Call sign -> operations whose grids hold the unit
+    private final Map<String, Set<UUID>> assignments = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public UnitClusterIndex(@Value("${app.ops.cluster.max-zoom:12}") int maxZoom,
+                            @Value("${app.ops.cluster.cells-per-tile:4}") int cellsPerTile) {
+        this.maxZoom = maxZoom;
+        this.cellsPerTile = cellsPerTile;
+    }
+
+    /**
+     * A cell as last read, with the version it was read at.
+     */
+    public record Snapshot(long key, long version, UnitClusterDto cluster) {}
+
+    /**
+     * Moves the unit in the grids of every operation it is assigned to.
+     */
+    public void update(UnitState unit) {
+        Set<UUID> operationIds = assignments.get(unit.getCallSign());
+        if (operationIds == null) {
+            return;
+        }
+        for (UUID operationId : operationIds) {
+            Layer layer = operations.get(operationId);
+            if (layer != null) {
+                layer.update(unit);
+            }
+        }
+    }
+
+    /**
+     * Sets the units counted for an operation: units no longer in {@code units} are taken
+     * out of its grids and the others placed at the given state. An operation assigned no
+     * units keeps its empty grids, so it counts as loaded like any other.
+     */
+    public void assign(UUID operationId, Collection<UnitState> units) {
+        Layer layer = operations.computeIfAbsent(operationId, id -> new Layer());
+        Set<String> callSigns = units.stream().map(UnitState::getCallSign).collect(Collectors.toSet());
+        for (String callSign : new ArrayList<>(layer.entries.keySet())) {
+            if (!callSigns.contains(callSign)) {
+                unassign(operationId, callSign);
+                layer.remove(callSign);
+            }
+        }
+        for (UnitState unit : units) {
+            assignments.computeIfAbsent(unit.getCallSign(), k -> ConcurrentHashMap.newKeySet()).add(operationId);
+            layer.update(unit);
+        }
+    }
+
+    /**
+     * Call signs of the units counted for the operation (those assigned to it that have a
+     * live state), as a live view; empty for an operation that has not been assigned units.
+     */
+    public Set<String> getAssignedUnits(UUID operationId) {
+        Layer layer = operations.get(operationId);
+        return layer != null ? Collections.unmodifiableSet(layer.entries.keySet()) : Set.of();
+    }
+
+    public boolean isAssigned(UUID operationId) {
+        return operations.containsKey(operationId);
+    }
+
+    public Set<UUID> getOperationIds() {
+        return operations.keySet();
+    }
+
+    /**
+     * The grid level for a request giving either a map zoom or a cell size in degrees;
+     * a cell size maps to the level whose cells come closest to it.
+     */
+    public int resolveZoom(Integer zoom, Double cellSizeDegrees) {
+        if ((zoom == null) == (cellSizeDegrees == null)) {
+            throw new IllegalArgumentException("Give exactly one of zoom or cellSizeDeg");
+        }
+        if (zoom != null) {
+            if (zoom < 0) {
+                throw new IllegalArgumentException("zoom must not be negative");
+            }
+            return Math.min(zoom, maxZoom);
+        }
+        if (!(cellSizeDegrees > 0)) {
+            throw new IllegalArgumentException("cellSizeDeg must be positive");
+        }
+        int best = 0;
+        for (int z = 1; z <= maxZoom; z++) {
+            if (Math.abs(Math.log(cellSize(z) / cellSizeDegrees)) < Math.abs(Math.log(cellSize(best) / cellSizeDegrees))) {
+                best = z;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The operation's non-empty cells at a zoom level overlapping {@code bounds}
+     * ({@code null} for all); none for an operation that has not been assigned units.
+     * Zoom levels beyond the maximum use the finest grid.
+     */
+    public List<Snapshot> clusters(UUID operationId, int zoom, Envelope bounds) {
+        Layer layer = operations.get(operationId);
+        if (layer == null) {
+            return List.of();
+        }
+        int z = Math.max(0, Math.min(zoom, maxZoom));
+        Map<Long, Cell> cells = layer.levels.get(z);
+        List<Snapshot> snapshots = new ArrayList<>();
+        if (bounds == null) {
+            cells.forEach((key, cell) -> addSnapshot(snapshots, z, key, cell));
+            return snapshots;
+        }
+
+        long columns = columns(z);
+        long minColumn = column(z, bounds.getMinX());
+        long maxColumn = column(z, bounds.getMaxX());
+        long minRow = row(z, bounds.getMinY());
+        long maxRow = row(z, bounds.getMaxY());
+        if ((maxColumn - minColumn + 1) * (maxRow - minRow + 1) > cells.size()) {
+            cells.forEach((key, cell) -> {
+                long row = key / columns;
+                long column = key % columns;
+                if (row >= minRow && row <= maxRow && column >= minColumn && column <= maxColumn) {
+                    addSnapshot(snapshots, z, key, cell);
+                }
+            });
+        } else {
+            for (long row = minRow; row <= maxRow; row++) {
+                for (long column = minColumn; column <= maxColumn; column++) {
+                    long key = row * columns + column;
+                    Cell cell = cells.get(key);
+                    if (cell != null) {
+                        addSnapshot(snapshots, z, key, cell);
+                    }
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    private void addSnapshot(List<Snapshot> snapshots, int z, long key, Cell cell) {
+        Snapshot snapshot = cell.snapshot(z, key, columns(z));
+        if (snapshot != null) {
+            snapshots.add(snapshot);
+        }
+    }
+
+    private void unassign(UUID operationId, String callSign) {
+        assignments.computeIfPresent(callSign, (k, operationIds) -> {
+            operationIds.remove(operationId);
+            return operationIds.isEmpty() ? null : operationIds;
+        });
+    }
+
+    private double cellSize(int z) {
+        return 360.0 / ((1L << z) * cellsPerTile);
+    }
+
+    private long columns(int z) {
+        return (1L << z) * cellsPerTile;
+    }
+
+    private long column(int z, double longitude) {
+        return Math.max(0, Math.min(columns(z) - 1, (long) Math.floor((longitude + 180.0) / cellSize(z))));
+    }
+
+    private long row(int z, double latitude) {
+        long rows = (long) Math.ceil(180.0 / cellSize(z));
+        return Math.max(0, Math.min(rows - 1, (long) Math.floor((latitude + 90.0) / cellSize(z))));
+    }
+
+    private long cellKey(int z, double latitude, double longitude) {
+        return row(z, latitude) * columns(z) + column(z, longitude);
+    }
+
+    private record Entry(Unit.UnitStatus status, String unitType, double latitude, double longitude,
+                         LocalDateTime lastUpdate, long[] keys) {}
+
+    /**
+     * One operation's units and grids.
+     */
+    private final class Layer {
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        private final List<Map<Long, Cell>> levels = new ArrayList<>();
+
+        Layer() {
+            for (int z = 0; z <= maxZoom; z++) {
+                levels.add(new ConcurrentHashMap<>());
+            }
+        }
+
+        void update(UnitState unit) {
+            entries.compute(unit.getCallSign(), (callSign, previous) -> {
+                // assign() may race a newer report for the same unit
+                if (previous != null && previous.lastUpdate() != null && unit.getLastUpdate() != null
+                        && unit.getLastUpdate().isBefore(previous.lastUpdate())) {
+                    return previous;
+                }
+                Entry current = new Entry(unit.getStatus(), unit.getUnitType(), unit.getLatitude(), unit.getLongitude(),
+                        unit.getLastUpdate(), new long[levels.size()]);
+                for (int z = 0; z < levels.size(); z++) {
+                    current.keys[z] = cellKey(z, unit.getLatitude(), unit.getLongitude());
+                    if (previous != null) {
+                        remove(z, previous.keys[z], previous);
+                    }
+                    add(z, current.keys[z], current);
+                }
+                return current;
+            });
+        }
+
+        void remove(String callSign) {
+            entries.computeIfPresent(callSign, (k, previous) -> {
+                for (int z = 0; z < levels.size(); z++) {
+                    remove(z, previous.keys[z], previous);
+                }
+                return null;
+            });
+        }
+
+        private void add(int z, long key, Entry entry) {
+            levels.get(z).compute(key, (k, cell) -> {
+                Cell target = cell != null ? cell : new Cell();
+                target.add(entry, 1, versions.incrementAndGet());
+                return target;
+            });
+        }
+
+        private void remove(int z, long key, Entry entry) {
+            levels.get(z).computeIfPresent(key, (k, cell) -> cell.add(entry, -1, versions.incrementAndGet()) == 0 ? null : cell);
+        }
+    }
+
+    /**
+     * Running aggregates of one grid cell.
+     */
+    private static final class Cell {
+        private final int[] statusCounts = new int[Unit.UnitStatus.values().length];
+        private final Map<String, Integer> typeCounts = new HashMap<>();
+        private int count;
+        private double latitudeSum;
+        private double longitudeSum;
+        private long version;
+
+        /**
+         * @param sign 1 to add the unit, -1 to remove it
+         * @return the count afterwards
+         */
+        synchronized int add(Entry entry, int sign, long version) {
+            count += sign;
+            latitudeSum += sign * entry.latitude();
+            longitudeSum += sign * entry.longitude();
+            if (entry.status() != null) {
+                statusCounts[entry.status().ordinal()] += sign;
+            }
+            if (entry.unitType() != null) {
+                typeCounts.merge(entry.unitType(), sign, (a, b) -> a + b == 0 ? null : a + b);
+            }
+            this.version = version;
+            return count;
+        }
+
+        synchronized Snapshot snapshot(int z, long key, long columns) {
+            if (count == 0) {
+                return null;
+            }
+            UnitClusterDto cluster = new UnitClusterDto();
+            cluster.setId(z + "/" + key % columns + "/" + key / columns);
+            cluster.setLatitude(latitudeSum / count);
+            cluster.setLongitude(longitudeSum / count);
+            cluster.setCount(count);
+            cluster.setFriendly(statusCounts[Unit.UnitStatus.FRIENDLY.ordinal()]);
+            cluster.setEnemy(statusCounts[Unit.UnitStatus.ENEMY.ordinal()]);
+            cluster.setNeutral(statusCounts[Unit.UnitStatus.NEUTRAL.ordinal()]);
+            cluster.setUnknown(statusCounts[Unit.UnitStatus.UNKNOWN.ordinal()]);
+            cluster.setDominantUnitType(typeCounts.entrySet().stream()
+                    .max(Map.Entry.<String, Integer>comparingByValue()
+                            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                    .map(Map.Entry::getKey)
+                    .orElse(null));
+            return new Snapshot(key, version, cluster);
+        }
+    }
+}
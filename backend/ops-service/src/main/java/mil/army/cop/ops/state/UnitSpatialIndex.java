@@ -0,0 +1,231 @@
+package mil.army.cop.ops.state;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * In-memory spatial index of live unit positions, kept current by {@link LiveUnitStore}.
+ *
+ * Units are bucketed into a uniform lat/lon grid. Moving a unit is two O(1) set updates,
+ * which suits thousands of position reports per second better than a tree that has to be
+ * rebalanced or (like JTS STRtree) rebuilt. Radius and polygon queries scan only the
+ * cells overlapping the query envelope, falling back to a full scan when that is
+ * cheaper; nearest-neighbour queries search outward ring by ring until no closer unit
+ * can remain. The antimeridian is not handled.
+ */
+@Component
+public class UnitSpatialIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private final double cellSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> cells = new ConcurrentHashMap<>();
+
+    public UnitSpatialIndex(@Value("${app.ops.spatial.cell-size-deg:0.05}") double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    public void update(String callSign, double latitude, double longitude) {
+        long cell = cellOf(latitude, longitude);
+        entries.compute(callSign, (key, previous) -> {
+            if (previous == null || previous.cell != cell) {
+                if (previous != null) {
+                    removeFromCell(previous.cell, callSign);
+                }
+                cells.compute(cell, (k, members) -> {
+                    Set<String> target = members != null ? members : ConcurrentHashMap.newKeySet();
+                    target.add(callSign);
+                    return target;
+                });
+            }
+            return new Entry(callSign, latitude, longitude, cell);
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Units within {@code radiusKm} of the point, nearest first.
+     */
+    public List<Match> withinRadius(double latitude, double longitude, double radiusKm, Predicate<String> filter) {
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        double lonDelta = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(Math.min(89.9, Math.abs(latitude) + latDelta))), 1e-6));
+        Envelope envelope = new Envelope(longitude - lonDelta, longitude + lonDelta, latitude - latDelta, latitude + latDelta);
+
+        List<Match> matches = new ArrayList<>();
+        forEachCandidate(envelope, entry -> {
+            double distance = distanceKm(latitude, longitude, entry.latitude, entry.longitude);
+            if (distance <= radiusKm && filter.test(entry.callSign)) {
+                matches.add(new Match(entry.callSign, distance));
+            }
+        });
+        matches.sort(Comparator.comparingDouble(Match::distanceKm));
+        return matches;
+    }
+
+    /**
+     * The {@code count} units nearest to the point, nearest first.
+     */
+    public List<Match> nearest(double latitude, double longitude, int count, Predicate<String> filter) {
+        if (count <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Match> best = new PriorityQueue<>(Comparator.comparingDouble(Match::distanceKm).reversed());
+        Consumer<Entry> consider = entry -> {
+            if (filter.test(entry.callSign)) {
+                best.add(new Match(entry.callSign, distanceKm(latitude, longitude, entry.latitude, entry.longitude)));
+                if (best.size() > count) {
+                    best.poll();
+                }
+            }
+        };
+
+        int row = row(latitude);
+        int col = col(longitude);
+        int total = entries.size();
+        int visited = 0;
+        long cellsScanned = 0;
+        for (int ring = 0; visited < total; ring++) {
+            // Sparse surroundings: walking empty cells would cost more than a full scan
+            if (cellsScanned > total) {
+                best.clear();
+                entries.values().forEach(consider);
+                break;
+            }
+            for (int r = row - ring; r <= row + ring; r++) {
+                boolean edgeRow = r == row - ring || r == row + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int c = col - ring; c <= col + ring; c += step) {
+                    cellsScanned++;
+                    Set<String> members = cells.get(key(r, c));
+                    if (members == null) {
+                        continue;
+                    }
+                    for (String callSign : members) {
+                        Entry entry = entries.get(callSign);
+                        if (entry != null) {
+                            visited++;
+                            consider.accept(entry);
+                        }
+                    }
+                }
+            }
+            // Anything beyond this ring is at least `ring` whole cells away along one axis
+            if (best.size() == count && best.peek().distanceKm() <= ringClearanceKm(latitude, ring)) {
+                break;
+            }
+        }
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(Comparator.comparingDouble(Match::distanceKm));
+        return matches;
+    }
+
+    /**
+     * Units covered by the polygon, in no particular order.
+     */
+    public List<String> within(Geometry polygon, Predicate<String> filter) {
+        PreparedGeometry prepared = PreparedGeometryFactory.prepare(polygon);
+        List<String> matches = new ArrayList<>();
+        forEachCandidate(polygon.getEnvelopeInternal(), entry -> {
+            if (filter.test(entry.callSign)
+                    && prepared.covers(GEOMETRY_FACTORY.createPoint(new Coordinate(entry.longitude, entry.latitude)))) {
+                matches.add(entry.callSign);
+            }
+        });
+        return matches;
+    }
+
+    /**
+     * Great-circle distance in kilometres.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void forEachCandidate(Envelope envelope, Consumer<Entry> action) {
+        int minRow = row(envelope.getMinY());
+        int maxRow = row(envelope.getMaxY());
+        int minCol = col(envelope.getMinX());
+        int maxCol = col(envelope.getMaxX());
+        long cellCount = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+        if (cellCount > entries.size()) {
+            for (Entry entry : entries.values()) {
+                if (envelope.covers(entry.longitude, entry.latitude)) {
+                    action.accept(entry);
+                }
+            }
+            return;
+        }
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                Set<String> members = cells.get(key(r, c));
+                if (members == null) {
+                    continue;
+                }
+                for (String callSign : members) {
+                    Entry entry = entries.get(callSign);
+                    if (entry != null && envelope.covers(entry.longitude, entry.latitude)) {
+                        action.accept(entry);
+                    }
+                }
+            }
+        }
+    }
+
+    private double ringClearanceKm(double latitude, int ring) {
+        double farthestLatitude = Math.min(90, Math.abs(latitude) + (ring + 1) * cellSize);
+        return ring * cellSize * KM_PER_DEGREE * Math.cos(Math.toRadians(farthestLatitude));
+    }
+
+    private void removeFromCell(long cell, String callSign) {
+        cells.computeIfPresent(cell, (k, members) -> {
+            members.remove(callSign);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return key(row(latitude), col(longitude));
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellSize);
+    }
+
+    private int col(double longitude) {
+        return (int) Math.floor(longitude / cellSize);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private record Entry(String callSign, double latitude, double longitude, long cell) {}
+
+    public record Match(String callSign, double distanceKm) {}
+}
@@ -0,0 +1,60 @@
+package mil.army.cop.ops.state;
+
+import mil.army.cop.ops.entity.Unit;
+import org.locationtech.jts.geom.Point;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of a unit's live state as held by {@link LiveUnitStore}.
+ */
+public final class UnitState {
+    private final UUID id;
+    private final String callSign;
+    private final String unitType;
+    private final Unit.UnitStatus status;
+    private final double latitude;
+    private final double longitude;
+    private final Double heading;
+    private final Double speed;
+    private final LocalDateTime lastUpdate;
+    private final String commanderId;
+
+    public UnitState(UUID id, String callSign, String unitType, Unit.UnitStatus status,
+                     double latitude, double longitude, Double heading, Double speed,
+                     LocalDateTime lastUpdate, String commanderId) {
+        this.id = id;
+        this.callSign = callSign;
+        this.unitType = unitType;
+        this.status = status;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.heading = heading;
+        this.speed = speed;
+        this.lastUpdate = lastUpdate;
+        this.commanderId = commanderId;
+    }
+
+    public static UnitState from(Unit unit) {
+        Point position = unit.getPosition();
+        return new UnitState(unit.getId(), unit.getCallSign(), unit.getUnitType(), unit.getStatus(),
+                position.getY(), position.getX(), unit.getHeading(), unit.getSpeed(),
+                unit.getLastUpdate(), unit.getCommanderId());
+    }
+
+    public UnitState withPosition(double latitude, double longitude, Double heading, Double speed, LocalDateTime lastUpdate) {
+        return new UnitState(id, callSign, unitType, status, latitude, longitude, heading, speed, lastUpdate, commanderId);
+    }
+
+    public UUID getId() { return id; }
+    public String getCallSign() { return callSign; }
+    public String getUnitType() { return unitType; }
+    public Unit.UnitStatus getStatus() { return status; }
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public Double getHeading() { return heading; }
+    public Double getSpeed() { return speed; }
+    public LocalDateTime getLastUpdate() { return lastUpdate; }
+    public String getCommanderId() { return commanderId; }
+}
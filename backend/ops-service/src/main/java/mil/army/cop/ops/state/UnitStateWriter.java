@@ -0,0 +1,48 @@
+package mil.army.cop.ops.state;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Persists unit state snapshots to {@code ops.units}.
+ *
+ * The rows are updated with one JDBC batch in one transaction. Each update only applies
+ * if the row's {@code last_update} is older than the snapshot's, so when several replicas
+ * flush the same unit the newest position wins whatever order the flushes commit in
+ * (a concurrent update waits for the row lock and re-checks the condition).
+ */
+@Component
+public class UnitStateWriter {
+
+    private static final String UPDATE = "UPDATE ops.units SET position = ST_SetSRID(ST_MakePoint(?, ?), 4326), "
+            + "heading = ?, speed = ?, last_update = ?, updated_at = CURRENT_TIMESTAMP "
+            + "WHERE call_sign = ? AND last_update < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void write(Collection<UnitState> states) {
+        if (states.isEmpty()) {
+            return;
+        }
+        List<UnitState> batch = List.copyOf(states);
+        jdbcTemplate.batchUpdate(UPDATE, batch, batch.size(), (statement, state) -> {
+            Timestamp lastUpdate = Timestamp.valueOf(state.getLastUpdate());
+            statement.setDouble(1, state.getLongitude());
+            statement.setDouble(2, state.getLatitude());
+            statement.setObject(3, state.getHeading(), Types.DOUBLE);
+            statement.setObject(4, state.getSpeed(), Types.DOUBLE);
+            statement.setTimestamp(5, lastUpdate);
+            statement.setString(6, state.getCallSign());
+            statement.setTimestamp(7, lastUpdate);
+        });
+    }
+}
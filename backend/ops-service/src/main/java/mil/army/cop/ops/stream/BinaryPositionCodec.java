@@ -0,0 +1,119 @@
+package mil.army.cop.ops.stream;
+
+import mil.army.cop.ops.dto.UnitPositionDto;
+import mil.army.cop.ops.entity.Unit;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Fixed-layout binary encoding of a list of positions, big-endian:
+ *
+ * <pre>
+ * header  version u8 | count u16 | base time i64 (epoch ms)
+ * entry   unit id u16 | lat i32 (1e-7 deg) | lon i32 (1e-7 deg)
+ *         | heading i16 (0.1 deg) | speed i16 (0.1 m/s) | status u8 | time offset i32 (10 ms units from base)
+ * </pre>
+ *
+ * An entry is 19 bytes. Unit IDs come from the stream's {@link UnitDictionary}; status is
+ * the {@link Unit.UnitStatus} ordinal and a missing heading or speed is
+ * {@link Short#MIN_VALUE}, a missing status 255 and a missing time {@link Integer#MIN_VALUE}.
+ * Time offsets cover about 248 days either side of the base and are clamped beyond that.
+ */
+public final class BinaryPositionCodec {
+
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 11;
+    public static final int ENTRY_SIZE = 19;
+
+    private static final double COORDINATE_SCALE = 1e7;
+    private static final double MOTION_SCALE = 10;
+    private static final int NO_STATUS = 0xFF;
+    private static final int NO_TIME = Integer.MIN_VALUE;
+    private static final long TIME_UNIT_MS = 10;
+    private static final Unit.UnitStatus[] STATUSES = Unit.UnitStatus.values();
+
+    private BinaryPositionCodec() {}
+
+    public static byte[] encode(List<UnitPositionDto> positions, ToIntFunction<String> unitIds) {
+        if (positions.size() > 0xFFFF) {
+            throw new IllegalArgumentException("At most 65535 positions per frame");
+        }
+        long baseTime = positions.stream()
+                .filter(position -> position.getTimestamp() != null)
+                .findFirst()
+                .map(position -> toEpochMilli(position.getTimestamp()))
+                .orElse(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + positions.size() * ENTRY_SIZE);
+        buffer.put((byte) VERSION);
+        buffer.putShort((short) positions.size());
+        buffer.putLong(baseTime);
+        for (UnitPositionDto position : positions) {
+            buffer.putShort((short) unitIds.applyAsInt(position.getUnitId()));
+            buffer.putInt((int) Math.round(position.getLatitude() * COORDINATE_SCALE));
+            buffer.putInt((int) Math.round(position.getLongitude() * COORDINATE_SCALE));
+            buffer.putShort(toShort(position.getHeading()));
+            buffer.putShort(toShort(position.getSpeed()));
+            buffer.put((byte) (position.getStatus() != null
+                    ? Unit.UnitStatus.valueOf(position.getStatus()).ordinal()
+                    : NO_STATUS));
+            buffer.putInt(position.getTimestamp() != null
+                    ? toTimeOffset(toEpochMilli(position.getTimestamp()) - baseTime)
+                    : NO_TIME);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Reference decoder, mirroring what clients implement.
+     */
+    public static List<UnitPositionDto> decode(byte[] frame, IntFunction<String> callSigns) {
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        int version = buffer.get() & 0xFF;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary position version " + version);
+        }
+        int count = buffer.getShort() & 0xFFFF;
+        long baseTime = buffer.getLong();
+        List<UnitPositionDto> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UnitPositionDto position = new UnitPositionDto();
+            position.setUnitId(callSigns.apply(buffer.getShort() & 0xFFFF));
+            position.setLatitude(buffer.getInt() / COORDINATE_SCALE);
+            position.setLongitude(buffer.getInt() / COORDINATE_SCALE);
+            position.setHeading(fromShort(buffer.getShort()));
+            position.setSpeed(fromShort(buffer.getShort()));
+            int status = buffer.get() & 0xFF;
+            position.setStatus(status != NO_STATUS ? STATUSES[status].name() : null);
+            int timeOffset = buffer.getInt();
+            position.setTimestamp(timeOffset != NO_TIME
+                    ? LocalDateTime.ofInstant(Instant.ofEpochMilli(baseTime + timeOffset * TIME_UNIT_MS), ZoneId.systemDefault())
+                    : null);
+            positions.add(position);
+        }
+        return positions;
+    }
+
+    private static short toShort(Double value) {
+        return value != null ? (short) Math.round(value * MOTION_SCALE) : Short.MIN_VALUE;
+    }
+
+    private static Double fromShort(short value) {
+        return value != Short.MIN_VALUE ? value / MOTION_SCALE : null;
+    }
+
+    private static int toTimeOffset(long millis) {
+        long units = Math.round(millis / (double) TIME_UNIT_MS);
+        return (int) Math.max(Integer.MIN_VALUE + 1, Math.min(Integer.MAX_VALUE, units));
+    }
+
+    private static long toEpochMilli(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
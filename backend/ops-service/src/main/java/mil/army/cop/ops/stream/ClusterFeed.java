@@ -0,0 +1,110 @@
+package mil.army.cop.ops.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mil.army.cop.ops.dto.UnitClusterDto;
+import mil.army.cop.ops.state.UnitClusterIndex;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Aggregated unit clusters for one subscriber viewing the map zoomed out.
+ *
+ * Each flush reads the operation's {@link UnitClusterIndex} cells at the subscriber's
+ * zoom level that overlap its region and sends one {@code clusters} frame holding the cells whose
+ * version changed since this subscriber was last sent them, plus the IDs of cells that
+ * emptied or left the region. Like {@link DeltaPositionFeed}, a flush is skipped while
+ * the previous frame is still in the outbox. Frames carry no ID: a reconnecting client
+ * simply gets every cell again. Frame layout:
+ * {@code {"t":<epoch ms>,"z":<zoom>,"c":[<UnitClusterDto>...],"r":["z/x/y",...]}}.
+ */
+public class ClusterFeed {
+
+    private final SseSubscriber subscriber;
+    private final UnitClusterIndex clusterIndex;
+    private final UUID operationId;
+    private final ObjectMapper objectMapper;
+    private final int zoom;
+
+    // Null means every cell
+    private volatile Envelope bounds;
+    // Cell ID -> version last sent; only touched by flush()
+    private final Map<String, Long> sent = new HashMap<>();
+    private volatile ScheduledFuture<?> schedule;
+
+    public ClusterFeed(SseSubscriber subscriber, UnitClusterIndex clusterIndex, UUID operationId,
+                       ObjectMapper objectMapper, int zoom, Geometry region) {
+        this.subscriber = subscriber;
+        this.clusterIndex = clusterIndex;
+        this.operationId = operationId;
+        this.objectMapper = objectMapper;
+        this.zoom = zoom;
+        setRegion(region);
+    }
+
+    public void setRegion(Geometry region) {
+        this.bounds = region != null ? region.getEnvelopeInternal() : null;
+    }
+
+    public void setSchedule(ScheduledFuture<?> schedule) {
+        this.schedule = schedule;
+    }
+
+    public void cancel() {
+        ScheduledFuture<?> current = schedule;
+        if (current != null) {
+            current.cancel(false);
+        }
+    }
+
+    /**
+     * Sends the cells that changed since the last flush.
+     *
+     * @return the frame offered to the subscriber, or {@code null} if nothing was sent
+     */
+    public SseFrame flush() throws JsonProcessingException {
+        if (subscriber.isClosed() || subscriber.getPendingFrames() > 0) {
+            return null;
+        }
+        List<UnitClusterIndex.Snapshot> snapshots = clusterIndex.clusters(operationId, zoom, bounds);
+
+        List<UnitClusterDto> changed = new ArrayList<>();
+        Map<String, Long> current = new HashMap<>(snapshots.size() * 2);
+        for (UnitClusterIndex.Snapshot snapshot : snapshots) {
+            String id = snapshot.cluster().getId();
+            current.put(id, snapshot.version());
+            Long previous = sent.get(id);
+            if (previous == null || previous != snapshot.version()) {
+                changed.add(snapshot.cluster());
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        for (String id : sent.keySet()) {
+            if (!current.containsKey(id)) {
+                removed.add(id);
+            }
+        }
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return null;
+        }
+        sent.clear();
+        sent.putAll(current);
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("t", System.currentTimeMillis());
+        payload.put("z", zoom);
+        payload.put("c", changed);
+        payload.put("r", removed);
+        SseFrame frame = SseFrame.of("clusters", objectMapper.writeValueAsBytes(payload));
+        subscriber.offer(null, frame);
+        return frame;
+    }
+}
@@ -0,0 +1,159 @@
+package mil.army.cop.ops.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mil.army.cop.ops.dto.UnitPositionDto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Rate-limited, delta-encoded position delivery for one subscriber.
+ *
+ * Reports are coalesced per unit (latest wins) and flushed at most once per interval as
+ * a single {@code position_delta} frame. Each unit entry carries only the fields that
+ * differ from what this subscriber was last sent; a unit with no visible change is left
+ * out. Coordinates are rounded to 1e-6 degrees (about 10 cm) and heading/speed to one
+ * decimal, so sensor jitter below that resolution produces no traffic.
+ *
+ * A flush is skipped while the previous frame is still in the subscriber's outbox,
+ * which keeps the baseline equal to what was actually handed to the socket; reports
+ * keep coalescing until the client catches up.
+ *
+ * The frame ID is the highest stream sequence folded into it, so a reconnect resumes
+ * from there. Frame layout: {@code {"t":<epoch ms>,"u":[{"id":"ALPHA-1","lat":..,"lon":..,"hdg":..,"spd":..,"st":..}]}}.
+ */
+public class DeltaPositionFeed {
+
+    private static final double COORDINATE_SCALE = 1e6;
+    private static final double MOTION_SCALE = 10;
+
+    private final SseSubscriber subscriber;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, UnitPositionDto> pending = new LinkedHashMap<>();
+    // Highest stream sequence offered so far, sent as the frame ID; guarded by pending
+    private long sequence = -1;
+    // Only touched by flush(), which the scheduler never runs concurrently with itself
+    private final Map<String, Sent> sent = new HashMap<>();
+    private volatile ScheduledFuture<?> schedule;
+
+    public DeltaPositionFeed(SseSubscriber subscriber, ObjectMapper objectMapper) {
+        this.subscriber = subscriber;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param sequence the position's sequence in the operation's stream
+     */
+    public void offer(UnitPositionDto position, long sequence) {
+        synchronized (pending) {
+            pending.put(position.getUnitId(), position);
+            this.sequence = Math.max(this.sequence, sequence);
+        }
+    }
+
+    public void setSchedule(ScheduledFuture<?> schedule) {
+        this.schedule = schedule;
+    }
+
+    public void cancel() {
+        ScheduledFuture<?> current = schedule;
+        if (current != null) {
+            current.cancel(false);
+        }
+    }
+
+    /**
+     * Sends the changes accumulated since the last flush.
+     *
+     * @return the frame offered to the subscriber, or {@code null} if nothing was sent
+     */
+    public SseFrame flush() throws JsonProcessingException {
+        if (subscriber.isClosed() || subscriber.getPendingFrames() > 0) {
+            return null;
+        }
+        List<UnitPositionDto> positions;
+        long frameId;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return null;
+            }
+            positions = new ArrayList<>(pending.values());
+            pending.clear();
+            frameId = sequence;
+        }
+
+        List<Map<String, Object>> changes = new ArrayList<>(positions.size());
+        for (UnitPositionDto position : positions) {
+            Sent current = Sent.of(position);
+            Map<String, Object> change = current.diff(sent.get(position.getUnitId()));
+            if (change != null) {
+                change.put("id", position.getUnitId());
+                changes.add(change);
+                sent.put(position.getUnitId(), current);
+            }
+        }
+        if (changes.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("t", System.currentTimeMillis());
+        payload.put("u", changes);
+        SseFrame frame = SseFrame.of("position_delta", frameId, objectMapper.writeValueAsBytes(payload));
+        subscriber.offer(null, frame);
+        return frame;
+    }
+
+    /**
+     * Quantized values last sent for one unit.
+     */
+    private record Sent(Long latitude, Long longitude, Long heading, Long speed, String status) {
+
+        static Sent of(UnitPositionDto position) {
+            return new Sent(quantize(position.getLatitude(), COORDINATE_SCALE),
+                    quantize(position.getLongitude(), COORDINATE_SCALE),
+                    quantize(position.getHeading(), MOTION_SCALE),
+                    quantize(position.getSpeed(), MOTION_SCALE),
+                    position.getStatus());
+        }
+
+        /**
+         * Fields that differ from {@code previous}, or all of them if there is none;
+         * {@code null} if nothing changed.
+         */
+        Map<String, Object> diff(Sent previous) {
+            Map<String, Object> change = new LinkedHashMap<>();
+            if (previous == null || !Objects.equals(latitude, previous.latitude)) {
+                change.put("lat", restore(latitude, COORDINATE_SCALE));
+            }
+            if (previous == null || !Objects.equals(longitude, previous.longitude)) {
+                change.put("lon", restore(longitude, COORDINATE_SCALE));
+            }
+            if (previous == null || !Objects.equals(heading, previous.heading)) {
+                change.put("hdg", restore(heading, MOTION_SCALE));
+            }
+            if (previous == null || !Objects.equals(speed, previous.speed)) {
+                change.put("spd", restore(speed, MOTION_SCALE));
+            }
+            if (previous == null || !Objects.equals(status, previous.status)) {
+                change.put("st", status);
+            }
+            return change.isEmpty() ? null : change;
+        }
+
+        private static Long quantize(Double value, double scale) {
+            return value != null ? Math.round(value * scale) : null;
+        }
+
+        private static Double restore(Long value, double scale) {
+            return value != null ? value / scale : null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package mil.army.cop.ops.stream;
+
+import mil.army.cop.ops.dto.UnitPositionDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recent stream traffic of one operation, kept so reconnecting clients can resume.
+ *
+ * Outlives the operation's subscribers: a client that drops and reconnects while it is
+ * the only one watching must still find the positions it missed.
+ */
+public class OperationStreamHistory {
+
+    private final StreamJournal<UnitPositionDto> positions;
+    private final StreamJournal<SseFrame> events;
+    // Latest broadcast position per unit, the basis of resume snapshots
+    private final Map<String, UnitPositionDto> latestPositions = new ConcurrentHashMap<>();
+
+    public OperationStreamHistory(int capacity) {
+        this.positions = new StreamJournal<>(capacity);
+        this.events = new StreamJournal<>(capacity);
+    }
+
+    public long recordPosition(UnitPositionDto position) {
+        latestPositions.put(position.getUnitId(), position);
+        return positions.append(sequence -> position);
+    }
+
+    /**
+     * @return the sequence of the last position in the batch
+     */
+    public long recordPositions(List<UnitPositionDto> batch) {
+        long sequence = positions.lastSequence();
+        for (UnitPositionDto position : batch) {
+            sequence = recordPosition(position);
+        }
+        return sequence;
+    }
+
+    /**
+     * Frames an event with the next event sequence as its ID and journals it.
+     */
+    public SseFrame recordEvent(String eventName, byte[] data) {
+        SseFrame[] frame = new SseFrame[1];
+        events.append(sequence -> frame[0] = SseFrame.of(eventName, sequence, data));
+        return frame[0];
+    }
+
+    public StreamJournal<UnitPositionDto> getPositions() { return positions; }
+
+    public StreamJournal<SseFrame> getEvents() { return events; }
+
+    public Collection<UnitPositionDto> getLatestPositions() { return latestPositions.values(); }
+}
@@ -0,0 +1,11 @@
+package mil.army.cop.ops.stream;
+
+/**
+ * Encoding of position payloads on a stream, chosen by the client at subscribe time.
+ */
+public enum PositionFormat {
+    // UnitPositionDto JSON
+    JSON,
+    // Base64 of a BinaryPositionCodec frame
+    BINARY
+}
@@ -0,0 +1,129 @@
+package mil.army.cop.ops.stream;
+
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The position subscribers of one operation and the regions they are watching.
+ */
+public class PositionStream {
+
+    private final Map<UUID, SseSubscriber> subscribers = new ConcurrentHashMap<>();
+    private final Map<UUID, DeltaPositionFeed> deltaFeeds = new ConcurrentHashMap<>();
+    private final Map<UUID, ClusterFeed> clusterFeeds = new ConcurrentHashMap<>();
+    private final Set<SseSubscriber> binarySubscribers = ConcurrentHashMap.newKeySet();
+    private final Set<SseSubscriber> smoothingSubscribers = ConcurrentHashMap.newKeySet();
+    private final SubscriberRegionIndex regions = new SubscriberRegionIndex();
+    private final UnitDictionary unitDictionary = new UnitDictionary();
+
+    /**
+     * @param deltaFeed the subscriber's delta feed, or {@code null} for full frames
+     * @param smoothing whether the subscriber also receives predicted positions
+     */
+    public void add(SseSubscriber subscriber, Geometry region, PositionFormat format, DeltaPositionFeed deltaFeed,
+                    boolean smoothing) {
+        if (deltaFeed != null) {
+            deltaFeeds.put(subscriber.getId(), deltaFeed);
+        }
+        if (format == PositionFormat.BINARY) {
+            binarySubscribers.add(subscriber);
+        }
+        if (smoothing) {
+            smoothingSubscribers.add(subscriber);
+        }
+        regions.put(subscriber, region);
+        subscribers.put(subscriber.getId(), subscriber);
+    }
+
+    /**
+     * Adds a subscriber that only receives {@link ClusterFeed} frames, so it is kept out
+     * of the region index that position broadcasts are matched against.
+     */
+    public void addClustered(SseSubscriber subscriber, ClusterFeed clusterFeed) {
+        clusterFeeds.put(subscriber.getId(), clusterFeed);
+        subscribers.put(subscriber.getId(), subscriber);
+    }
+
+    public void remove(SseSubscriber subscriber) {
+        subscribers.remove(subscriber.getId());
+        regions.remove(subscriber);
+        binarySubscribers.remove(subscriber);
+        smoothingSubscribers.remove(subscriber);
+        DeltaPositionFeed deltaFeed = deltaFeeds.remove(subscriber.getId());
+        if (deltaFeed != null) {
+            deltaFeed.cancel();
+        }
+        ClusterFeed clusterFeed = clusterFeeds.remove(subscriber.getId());
+        if (clusterFeed != null) {
+            clusterFeed.cancel();
+        }
+    }
+
+    public boolean updateRegion(UUID subscriptionId, Geometry region) {
+        SseSubscriber subscriber = subscribers.get(subscriptionId);
+        if (subscriber == null) {
+            return false;
+        }
+        ClusterFeed clusterFeed = clusterFeeds.get(subscriptionId);
+        if (clusterFeed != null) {
+            clusterFeed.setRegion(region);
+            return true;
+        }
+        regions.put(subscriber, region);
+        return true;
+    }
+
+    public Optional<SseSubscriber> get(UUID subscriptionId) {
+        return Optional.ofNullable(subscribers.get(subscriptionId));
+    }
+
+    public boolean isBinary(SseSubscriber subscriber) {
+        return binarySubscribers.contains(subscriber);
+    }
+
+    public Set<SseSubscriber> getBinarySubscribers() {
+        return binarySubscribers;
+    }
+
+    public Set<SseSubscriber> getSmoothingSubscribers() {
+        return smoothingSubscribers;
+    }
+
+    public UnitDictionary getUnitDictionary() {
+        return unitDictionary;
+    }
+
+    public DeltaPositionFeed getDeltaFeed(SseSubscriber subscriber) {
+        return deltaFeeds.get(subscriber.getId());
+    }
+
+    public boolean isClustered(SseSubscriber subscriber) {
+        return clusterFeeds.containsKey(subscriber.getId());
+    }
+
+    /**
+     * Subscribers whose region contains the given position.
+     */
+    public List<SseSubscriber> subscribersAt(double longitude, double latitude) {
+        return regions.match(longitude, latitude);
+    }
+
+    public boolean isVisible(SseSubscriber subscriber, double longitude, double latitude) {
+        return regions.covers(subscriber, longitude, latitude);
+    }
+
+    public Collection<SseSubscriber> getSubscribers() {
+        return subscribers.values();
+    }
+
+    public boolean isEmpty() {
+        return subscribers.isEmpty();
+    }
+}
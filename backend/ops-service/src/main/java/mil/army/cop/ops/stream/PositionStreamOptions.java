@@ -0,0 +1,50 @@
+package mil.army.cop.ops.stream;
+
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * What a client asked for when opening a position stream.
+ */
+public class PositionStreamOptions {
+    // Null means the operation's area of interest
+    private Geometry region;
+    // Null means full position_update frames for every report
+    private Long deltaIntervalMs;
+    // Last-Event-ID sent by a reconnecting client
+    private Long lastEventId;
+    private PositionFormat format = PositionFormat.JSON;
+    // Also send dead-reckoned position_predicted frames between reports
+    private boolean smoothing;
+    // Grid level of the clusters sent instead of positions, null for positions
+    private Integer clusterZoom;
+    private long clusterIntervalMs;
+
+    // Constructors
+    public PositionStreamOptions() {}
+
+    // Getters and Setters
+    public Geometry getRegion() { return region; }
+    public void setRegion(Geometry region) { this.region = region; }
+
+    public Long getDeltaIntervalMs() { return deltaIntervalMs; }
+    public void setDeltaIntervalMs(Long deltaIntervalMs) { this.deltaIntervalMs = deltaIntervalMs; }
+
+    public Long getLastEventId() { return lastEventId; }
+    public void setLastEventId(Long lastEventId) { this.lastEventId = lastEventId; }
+
+    public PositionFormat getFormat() { return format; }
+    public void setFormat(PositionFormat format) { this.format = format; }
+
+    public boolean isSmoothing() { return smoothing; }
+    public void setSmoothing(boolean smoothing) { this.smoothing = smoothing; }
+
+    public Integer getClusterZoom() { return clusterZoom; }
+    public void setClusterZoom(Integer clusterZoom) { this.clusterZoom = clusterZoom; }
+
+    public long getClusterIntervalMs() { return clusterIntervalMs; }
+    public void setClusterIntervalMs(long clusterIntervalMs) { this.clusterIntervalMs = clusterIntervalMs; }
+
+    public boolean isDelta() { return deltaIntervalMs != null; }
+
+    public boolean isClustered() { return clusterZoom != null; }
+}
@@ -0,0 +1,115 @@
+package mil.army.cop.ops.stream;
+
+import mil.army.cop.shared.dto.GeoJsonDto;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the region formats accepted by the position stream and geofence endpoints.
+ */
+public final class Regions {
+
+    private Regions() {}
+
+    /**
+     * Parses {@code minLon,minLat,maxLon,maxLat}.
+     */
+    public static Geometry fromBbox(String bbox, GeometryFactory geometryFactory) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("bbox must be minLon,minLat,maxLon,maxLat");
+        }
+        double minLon = Double.parseDouble(parts[0].trim());
+        double minLat = Double.parseDouble(parts[1].trim());
+        double maxLon = Double.parseDouble(parts[2].trim());
+        double maxLat = Double.parseDouble(parts[3].trim());
+        if (minLon > maxLon || minLat > maxLat) {
+            throw new IllegalArgumentException("bbox minimums must not exceed maximums");
+        }
+        return geometryFactory.toGeometry(new Envelope(minLon, maxLon, minLat, maxLat));
+    }
+
+    /**
+     * Converts a GeoJSON {@code Polygon} (outer ring plus optional holes) to JTS.
+     */
+    public static Geometry fromGeoJson(GeoJsonDto geoJson, GeometryFactory geometryFactory) {
+        if (geoJson == null || !"Polygon".equalsIgnoreCase(geoJson.getType())
+                || !(geoJson.getCoordinates() instanceof List<?> rings) || rings.isEmpty()) {
+            throw new IllegalArgumentException("Region must be a GeoJSON Polygon");
+        }
+        LinearRing shell = toRing(rings.get(0), geometryFactory);
+        LinearRing[] holes = new LinearRing[rings.size() - 1];
+        for (int i = 1; i < rings.size(); i++) {
+            holes[i - 1] = toRing(rings.get(i), geometryFactory);
+        }
+        Polygon polygon = geometryFactory.createPolygon(shell, holes);
+        if (!polygon.isValid()) {
+            throw new IllegalArgumentException("Region polygon is not valid");
+        }
+        return polygon;
+    }
+
+    /**
+     * Converts a GeoJSON {@code LineString} to JTS.
+     */
+    public static LineString lineFromGeoJson(GeoJsonDto geoJson, GeometryFactory geometryFactory) {
+        if (geoJson == null || !"LineString".equalsIgnoreCase(geoJson.getType())
+                || !(geoJson.getCoordinates() instanceof List<?> positions) || positions.size() < 2) {
+            throw new IllegalArgumentException("Line must be a GeoJSON LineString of at least two positions");
+        }
+        return geometryFactory.createLineString(toCoordinates(positions));
+    }
+
+    /**
+     * Converts a JTS {@code Polygon} or {@code LineString} back to GeoJSON.
+     */
+    public static GeoJsonDto toGeoJson(Geometry geometry) {
+        if (geometry instanceof Polygon polygon) {
+            List<List<List<Double>>> rings = new ArrayList<>();
+            rings.add(toPositions(polygon.getExteriorRing().getCoordinates()));
+            for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                rings.add(toPositions(polygon.getInteriorRingN(i).getCoordinates()));
+            }
+            return new GeoJsonDto("Polygon", rings, null);
+        }
+        if (geometry instanceof LineString line) {
+            return new GeoJsonDto("LineString", toPositions(line.getCoordinates()), null);
+        }
+        throw new IllegalArgumentException("Unsupported geometry type: " + geometry.getGeometryType());
+    }
+
+    private static LinearRing toRing(Object ring, GeometryFactory geometryFactory) {
+        if (!(ring instanceof List<?> positions) || positions.size() < 4) {
+            throw new IllegalArgumentException("Polygon rings need at least four positions");
+        }
+        return geometryFactory.createLinearRing(toCoordinates(positions));
+    }
+
+    private static Coordinate[] toCoordinates(List<?> positions) {
+        Coordinate[] coordinates = new Coordinate[positions.size()];
+        for (int i = 0; i < positions.size(); i++) {
+            if (!(positions.get(i) instanceof List<?> position) || position.size() < 2
+                    || !(position.get(0) instanceof Number lon) || !(position.get(1) instanceof Number lat)) {
+                throw new IllegalArgumentException("Positions must be [longitude, latitude]");
+            }
+            coordinates[i] = new Coordinate(lon.doubleValue(), lat.doubleValue());
+        }
+        return coordinates;
+    }
+
+    private static List<List<Double>> toPositions(Coordinate[] coordinates) {
+        List<List<Double>> positions = new ArrayList<>(coordinates.length);
+        for (Coordinate coordinate : coordinates) {
+            positions.add(List.of(coordinate.x, coordinate.y));
+        }
+        return positions;
+    }
+}
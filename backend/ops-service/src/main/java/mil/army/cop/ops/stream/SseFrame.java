@@ -0,0 +1,87 @@
+package mil.army.cop.ops.stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * A server-sent event encoded once into its final wire form.
+ *
+ * The same frame can be written to any number of {@link SseEmitter}s; each write
+ * copies the pre-framed bytes to the response without touching Jackson again.
+ */
+public final class SseFrame {
+
+    private static final byte[] ID_PREFIX = "id:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVENT_PREFIX = "event:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DATA_PREFIX = "data:".getBytes(StandardCharsets.UTF_8);
+
+    private final String eventName;
+    private final byte[] bytes;
+    private final Set<ResponseBodyEmitter.DataWithMediaType> items;
+
+    private SseFrame(String eventName, byte[] bytes) {
+        this.eventName = eventName;
+        this.bytes = bytes;
+        this.items = Set.of(new ResponseBodyEmitter.DataWithMediaType(bytes, MediaType.TEXT_EVENT_STREAM));
+    }
+
+    /**
+     * Frames an already serialized payload as {@code event:<name>} followed by one
+     * {@code data:} line per line of payload.
+     */
+    public static SseFrame of(String eventName, byte[] data) {
+        return of(eventName, null, data);
+    }
+
+    /**
+     * Like {@link #of(String, byte[])}, preceded by an {@code id:} line when {@code id} is
+     * not {@code null}; browsers echo the last one back as {@code Last-Event-ID} on reconnect.
+     */
+    public static SseFrame of(String eventName, Long id, byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length + eventName.length() + 40);
+        if (id != null) {
+            out.writeBytes(ID_PREFIX);
+            out.writeBytes(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+            out.write('\n');
+        }
+        out.writeBytes(EVENT_PREFIX);
+        out.writeBytes(eventName.getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+
+        int lineStart = 0;
+        for (int i = 0; i <= data.length; i++) {
+            if (i == data.length || data[i] == '\n') {
+                out.writeBytes(DATA_PREFIX);
+                out.write(data, lineStart, i - lineStart);
+                out.write('\n');
+                lineStart = i + 1;
+            }
+        }
+        out.write('\n');
+
+        return new SseFrame(eventName, out.toByteArray());
+    }
+
+    /**
+     * An SSE comment line, ignored by clients; keeps idle connections alive through proxies.
+     */
+    public static SseFrame comment(String text) {
+        return new SseFrame(null, (":" + text + "\n\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void writeTo(SseEmitter emitter) throws IOException {
+        emitter.send(items);
+    }
+
+    public String getEventName() { return eventName; }
+
+    public byte[] getBytes() { return bytes; }
+
+    public int size() { return bytes.length; }
+}
@@ -0,0 +1,157 @@
+package mil.army.cop.ops.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One SSE client together with its bounded outbox.
+ *
+ * Broadcasters only enqueue frames; the delivery executor drains the outbox and
+ * performs the blocking socket writes, one drain task per subscriber at a time.
+ * Frames offered with a coalescing key (the unit call sign for position updates)
+ * replace any frame for that key still waiting in the outbox, and when the outbox is
+ * full the oldest pending frame is dropped, so a slow client only ever loses stale
+ * data and never back-pressures the producer.
+ */
+public class SseSubscriber {
+
+    private final UUID id = UUID.randomUUID();
+    private final SseEmitter emitter;
+    private final Executor deliveryExecutor;
+    private final int outboxCapacity;
+
+    private final LinkedHashMap<Object, SseFrame> outbox = new LinkedHashMap<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    // System.nanoTime() when the write in progress started, 0 when none is
+    private volatile long writeStartedNanos;
+    private volatile boolean closed;
+    private volatile Runnable closeHandler = () -> {};
+
+    public SseSubscriber(SseEmitter emitter, Executor deliveryExecutor, int outboxCapacity) {
+        this.emitter = emitter;
+        this.deliveryExecutor = deliveryExecutor;
+        this.outboxCapacity = outboxCapacity;
+    }
+
+    /**
+     * Queues a frame for delivery.
+     *
+     * @param coalesceKey frames sharing a key replace each other while pending; {@code null} never coalesces
+     */
+    public void offer(String coalesceKey, SseFrame frame) {
+        if (closed) {
+            return;
+        }
+        synchronized (outbox) {
+            Object key = coalesceKey != null ? coalesceKey : new Object();
+            outbox.remove(key);
+            outbox.put(key, frame);
+            if (outbox.size() > outboxCapacity) {
+                Iterator<Map.Entry<Object, SseFrame>> eldest = outbox.entrySet().iterator();
+                eldest.next();
+                eldest.remove();
+                droppedFrames.incrementAndGet();
+            }
+        }
+        scheduleDrain();
+    }
+
+    public void onClose(Runnable closeHandler) {
+        this.closeHandler = closeHandler;
+    }
+
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        synchronized (outbox) {
+            outbox.clear();
+        }
+        closeHandler.run();
+    }
+
+    /**
+     * Closes the subscriber and completes its emitter with {@code cause}. The emitter is
+     * locked for the duration of a write, so completing it is handed to the delivery
+     * executor rather than blocking the caller behind a stalled write.
+     */
+    public void fail(Throwable cause) {
+        close();
+        deliveryExecutor.execute(() -> {
+            try {
+                emitter.completeWithError(cause);
+            } catch (Exception e) {
+                // Already completed
+            }
+        });
+    }
+
+    public UUID getId() { return id; }
+
+    public SseEmitter getEmitter() { return emitter; }
+
+    public boolean isClosed() { return closed; }
+
+    public long getDroppedFrames() { return droppedFrames.get(); }
+
+    /**
+     * Whether a single write has been blocked for longer than {@code timeoutNanos}, which
+     * is how a half-open connection shows up once its socket buffer has filled.
+     */
+    public boolean isStalled(long timeoutNanos) {
+        long started = writeStartedNanos;
+        return started != 0 && System.nanoTime() - started > timeoutNanos;
+    }
+
+    public int getPendingFrames() {
+        synchronized (outbox) {
+            return outbox.size();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            deliveryExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        do {
+            SseFrame frame;
+            while ((frame = poll()) != null) {
+                writeStartedNanos = System.nanoTime();
+                try {
+                    frame.writeTo(emitter);
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                    return;
+                } finally {
+                    writeStartedNanos = 0;
+                }
+            }
+            draining.set(false);
+        } while (!closed && getPendingFrames() > 0 && draining.compareAndSet(false, true));
+    }
+
+    private SseFrame poll() {
+        synchronized (outbox) {
+            Iterator<SseFrame> frames = outbox.values().iterator();
+            if (!frames.hasNext()) {
+                return null;
+            }
+            SseFrame frame = frames.next();
+            frames.remove();
+            return frame;
+        }
+    }
+}
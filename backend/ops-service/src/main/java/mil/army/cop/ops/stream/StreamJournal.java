@@ -0,0 +1,73 @@
+package mil.army.cop.ops.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+
+/**
+ * Fixed-size ring of the most recent entries of a stream, each stamped with a
+ * monotonically increasing sequence number that is sent to clients as the SSE {@code id}.
+ *
+ * Each journal numbers from its own random 17-bit prefix, so an ID issued before a
+ * restart or by another replica almost certainly falls outside the range this journal
+ * holds and is answered with a snapshot rather than a wrong replay. The prefix sits at
+ * bit 36, leaving 2^36 entries per journal, so every ID stays below 2^53
+ * ({@code Number.MAX_SAFE_INTEGER}) and survives clients that parse it as a number.
+ */
+public class StreamJournal<T> {
+
+    static final int PREFIX_BITS = 17;
+    static final int PREFIX_SHIFT = 36;
+
+    private final Object[] entries;
+    private final long firstSequence;
+    private long nextSequence;
+
+    public StreamJournal(int capacity) {
+        this.entries = new Object[capacity];
+        this.firstSequence = ThreadLocalRandom.current().nextLong(1, 1L << PREFIX_BITS) << PREFIX_SHIFT;
+        this.nextSequence = firstSequence;
+    }
+
+    /**
+     * Appends the entry built for the next sequence number and returns that number.
+     */
+    public synchronized long append(LongFunction<T> entryFactory) {
+        long sequence = nextSequence++;
+        entries[slot(sequence)] = entryFactory.apply(sequence);
+        return sequence;
+    }
+
+    public synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Entries appended after {@code lastSeen}.
+     *
+     * @return {@code null} if some of them have already been overwritten, or if
+     *         {@code lastSeen} was not issued by this journal
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized Replay<T> since(long lastSeen) {
+        long oldestHeld = Math.max(firstSequence, nextSequence - entries.length);
+        if (lastSeen < oldestHeld - 1 || lastSeen >= nextSequence) {
+            return null;
+        }
+        List<T> missed = new ArrayList<>((int) (nextSequence - 1 - lastSeen));
+        for (long sequence = lastSeen + 1; sequence < nextSequence; sequence++) {
+            missed.add((T) entries[slot(sequence)]);
+        }
+        return new Replay<>(missed, nextSequence - 1);
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % entries.length);
+    }
+
+    /**
+     * @param lastSequence the sequence of the newest entry at the time of the replay
+     */
+    public record Replay<T>(List<T> entries, long lastSequence) {}
+}
@@ -0,0 +1,131 @@
+package mil.army.cop.ops.stream;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.quadtree.Quadtree;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Spatial index of the regions that position subscribers are watching.
+ *
+ * Region envelopes live in a JTS {@link Quadtree}, so matching a position only touches
+ * subscribers whose envelope contains it; non-rectangular regions are then confirmed
+ * against a {@link PreparedGeometry}. Subscribers without a region match everything.
+ */
+public class SubscriberRegionIndex {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private final Quadtree tree = new Quadtree();
+    private final Map<SseSubscriber, Region> regions = new HashMap<>();
+    private final Set<SseSubscriber> unrestricted = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Sets or replaces the subscriber's region; {@code null} means the whole operation.
+     */
+    public void put(SseSubscriber subscriber, Geometry region) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(subscriber);
+            if (region == null || region.isEmpty()) {
+                unrestricted.add(subscriber);
+            } else {
+                Region entry = new Region(subscriber, region);
+                regions.put(subscriber, entry);
+                tree.insert(entry.envelope, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(SseSubscriber subscriber) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(subscriber);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SseSubscriber> match(double longitude, double latitude) {
+        Coordinate coordinate = new Coordinate(longitude, latitude);
+        lock.readLock().lock();
+        try {
+            List<SseSubscriber> matches = new ArrayList<>(unrestricted);
+            @SuppressWarnings("unchecked")
+            List<Region> candidates = tree.query(new Envelope(coordinate));
+            for (Region candidate : candidates) {
+                if (candidate.contains(coordinate)) {
+                    matches.add(candidate.subscriber);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the given subscriber's region contains the position.
+     */
+    public boolean covers(SseSubscriber subscriber, double longitude, double latitude) {
+        lock.readLock().lock();
+        try {
+            if (unrestricted.contains(subscriber)) {
+                return true;
+            }
+            Region region = regions.get(subscriber);
+            return region != null && region.contains(new Coordinate(longitude, latitude));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(SseSubscriber subscriber) {
+        Region existing = regions.remove(subscriber);
+        if (existing != null) {
+            tree.remove(existing.envelope, existing);
+        } else {
+            unrestricted.remove(subscriber);
+        }
+    }
+
+    private static class Region {
+        private final SseSubscriber subscriber;
+        private final Envelope envelope;
+        private final PreparedGeometry prepared;
+
+        Region(SseSubscriber subscriber, Geometry geometry) {
+            this.subscriber = subscriber;
+            this.envelope = geometry.getEnvelopeInternal();
+            // Rectangles are fully decided by the envelope test
+            this.prepared = geometry.isRectangle() ? null : PreparedGeometryFactory.prepare(geometry);
+        }
+
+        boolean contains(Coordinate coordinate) {
+            if (!envelope.covers(coordinate)) {
+                return false;
+            }
+            if (prepared == null) {
+                return true;
+            }
+            Point point = GEOMETRY_FACTORY.createPoint(coordinate);
+            return prepared.covers(point);
+        }
+    }
+}
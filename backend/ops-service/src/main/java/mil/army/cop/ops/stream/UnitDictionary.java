@@ -0,0 +1,53 @@
+package mil.army.cop.ops.stream;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Call sign to small integer ID mapping used by the binary position format.
+ *
+ * IDs are assigned on first use and never reused within a stream. Callers that publish
+ * new entries must hold the dictionary's monitor from {@link #intern} until the entries
+ * are queued to every binary subscriber, so no subscriber sees an ID before its name.
+ */
+public class UnitDictionary {
+
+    private static final int MAX_ID = 0xFFFF;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /**
+     * Assigns IDs to any call signs not seen before.
+     *
+     * @return the new entries, ID to call sign; empty if all were known
+     */
+    public synchronized Map<Integer, String> intern(Collection<String> callSigns) {
+        Map<Integer, String> added = new LinkedHashMap<>();
+        for (String callSign : callSigns) {
+            if (!ids.containsKey(callSign)) {
+                if (ids.size() > MAX_ID) {
+                    throw new IllegalStateException("Unit dictionary is full");
+                }
+                int id = ids.size();
+                ids.put(callSign, id);
+                added.put(id, callSign);
+            }
+        }
+        return added;
+    }
+
+    public synchronized int idOf(String callSign) {
+        return ids.get(callSign);
+    }
+
+    /**
+     * All entries, ID to call sign.
+     */
+    public synchronized Map<Integer, String> entries() {
+        Map<Integer, String> entries = new LinkedHashMap<>();
+        ids.forEach((callSign, id) -> entries.put(id, callSign));
+        return entries;
+    }
+}
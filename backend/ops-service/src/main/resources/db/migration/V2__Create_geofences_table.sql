@@ -0,0 +1,13 @@
+-- User-defined boundaries (polygons) and phase lines (lines) watched for unit crossings
+CREATE TABLE ops.geofences (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    operation_id UUID NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    geometry GEOMETRY(GEOMETRY, 4326) NOT NULL,
+    created_by VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (operation_id) REFERENCES ops.operations(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_geofences_operation ON ops.geofences(operation_id);
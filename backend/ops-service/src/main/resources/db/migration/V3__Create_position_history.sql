@@ -0,0 +1,14 @@
+-- Append-only history of every position report, one partition per day.
+-- Partitions are created ahead of time, compacted and dropped by PositionHistoryService.
+CREATE TABLE ops.position_history (
+    unit_call_sign VARCHAR(100) NOT NULL,
+    operation_id UUID,
+    recorded_at TIMESTAMP NOT NULL,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    heading DOUBLE PRECISION,
+    speed DOUBLE PRECISION
+) PARTITION BY RANGE (recorded_at);
+
+CREATE INDEX idx_position_history_unit_time ON ops.position_history(unit_call_sign, recorded_at);
+CREATE INDEX idx_position_history_operation_time ON ops.position_history(operation_id, recorded_at);
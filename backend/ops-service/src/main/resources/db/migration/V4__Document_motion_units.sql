@@ -0,0 +1,5 @@
+-- Units of the reported motion fields; dead reckoning relies on speed being m/s.
+COMMENT ON COLUMN ops.units.heading IS 'Degrees clockwise from true north';
+COMMENT ON COLUMN ops.units.speed IS 'Ground speed in metres per second';
+COMMENT ON COLUMN ops.position_history.heading IS 'Degrees clockwise from true north';
+COMMENT ON COLUMN ops.position_history.speed IS 'Ground speed in metres per second';
@@ -0,0 +1,90 @@
+package mil.army.cop.ops.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import mil.army.cop.ops.dto.UnitPositionDto;
+import mil.army.cop.ops.stream.SseFrame;
+import mil.army.cop.ops.stream.SseSubscriber;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broadcast cost of one gateway tick: per-vehicle frames versus one coalesced batch frame.
+ *
+ * Measures encoding plus enqueueing into subscriber outboxes; the database write is
+ * excluded because it needs a running PostGIS instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkPositionBroadcastBenchmark {
+
+    @Param({"10", "50"})
+    private int vehicles;
+
+    @Param({"100"})
+    private int subscribers;
+
+    private ObjectMapper objectMapper;
+    private List<UnitPositionDto> positions;
+    private List<SseSubscriber> outboxes;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+        positions = new ArrayList<>();
+        for (int i = 0; i < vehicles; i++) {
+            UnitPositionDto positionDto = new UnitPositionDto();
+            positionDto.setUnitId("CONVOY-" + i);
+            positionDto.setLatitude(38.9 + i * 0.001);
+            positionDto.setLongitude(-77.03 - i * 0.001);
+            positionDto.setHeading(90.0);
+            positionDto.setSpeed(15.0);
+            positionDto.setStatus("FRIENDLY");
+            positionDto.setTimestamp(LocalDateTime.now());
+            positions.add(positionDto);
+        }
+
+        // Outboxes are never drained, so they sit at capacity as with a saturated client
+        outboxes = new ArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            outboxes.add(new SseSubscriber(new SseEmitter(), task -> {}, 256));
+        }
+    }
+
+    @Benchmark
+    public void singleUpdates() throws Exception {
+        for (UnitPositionDto positionDto : positions) {
+            SseFrame frame = SseFrame.of("position_update", objectMapper.writeValueAsBytes(positionDto));
+            for (SseSubscriber subscriber : outboxes) {
+                subscriber.offer(positionDto.getUnitId(), frame);
+            }
+        }
+    }
+
+    @Benchmark
+    public void batchUpdate() throws Exception {
+        SseFrame frame = SseFrame.of("position_batch", objectMapper.writeValueAsBytes(positions));
+        for (SseSubscriber subscriber : outboxes) {
+            subscriber.offer(null, frame);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BulkPositionBroadcastBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package mil.army.cop.ops.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import mil.army.cop.ops.dto.UnitPositionDto;
+import mil.army.cop.ops.stream.BinaryPositionCodec;
+import mil.army.cop.ops.stream.SseFrame;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode cost of one position batch frame as JSON versus base64 binary.
+ *
+ * Wire bytes per update for each format are printed once during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionWireFormatBenchmark {
+
+    @Param({"1", "50"})
+    private int vehicles;
+
+    private ObjectMapper objectMapper;
+    private List<UnitPositionDto> positions;
+    private Map<String, Integer> unitIds;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+        positions = new ArrayList<>();
+        unitIds = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < vehicles; i++) {
+            UnitPositionDto positionDto = new UnitPositionDto();
+            positionDto.setUnitId("CONVOY-" + i);
+            positionDto.setLatitude(38.8976763 + i * 0.0001234);
+            positionDto.setLongitude(-77.0365298 - i * 0.0001234);
+            positionDto.setHeading(271.5);
+            positionDto.setSpeed(15.2);
+            positionDto.setStatus("FRIENDLY");
+            positionDto.setTimestamp(now.plusNanos(i * 1_000_000L));
+            positions.add(positionDto);
+            unitIds.put(positionDto.getUnitId(), i);
+        }
+
+        System.out.printf("%nbytes/update with %d vehicles: json=%.1f binary=%.1f%n", vehicles,
+                json().size() / (double) vehicles, binary().size() / (double) vehicles);
+    }
+
+    @Benchmark
+    public SseFrame json() throws Exception {
+        return SseFrame.of("position_batch", 1L, objectMapper.writeValueAsBytes(positions));
+    }
+
+    @Benchmark
+    public SseFrame binary() {
+        byte[] payload = BinaryPositionCodec.encode(positions, unitIds::get);
+        return SseFrame.of("position_batch", 1L, Base64.getEncoder().encode(payload));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PositionWireFormatBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package mil.army.cop.ops.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import mil.army.cop.ops.dto.UnitPositionDto;
+import mil.army.cop.ops.stream.SseFrame;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding CPU per position broadcast as the number of subscribers grows.
+ *
+ * Socket writes are identical for both strategies, so only the serialization and
+ * framing work done on the broadcasting thread is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SseBroadcastBenchmark {
+
+    @Param({"1", "50", "400"})
+    private int subscribers;
+
+    private ObjectMapper objectMapper;
+    private UnitPositionDto positionDto;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+        positionDto = new UnitPositionDto();
+        positionDto.setUnitId("ALPHA-1");
+        positionDto.setLatitude(38.9072);
+        positionDto.setLongitude(-77.0369);
+        positionDto.setHeading(271.5);
+        positionDto.setSpeed(12.4);
+        positionDto.setStatus("FRIENDLY");
+        positionDto.setTimestamp(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public void serializePerSubscriber(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < subscribers; i++) {
+            blackhole.consume(SseEmitter.event()
+                    .name("position_update")
+                    .data(objectMapper.writeValueAsString(positionDto))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public void serializeOnce(Blackhole blackhole) throws Exception {
+        SseFrame frame = SseFrame.of("position_update", objectMapper.writeValueAsBytes(positionDto));
+        for (int i = 0; i < subscribers; i++) {
+            blackhole.consume(frame);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SseBroadcastBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
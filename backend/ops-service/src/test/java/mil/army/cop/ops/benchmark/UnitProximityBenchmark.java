@@ -0,0 +1,63 @@
+package mil.army.cop.ops.benchmark;
+
+import mil.army.cop.ops.state.UnitSpatialIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the live unit grid index with units spread over a 2x2 degree area
+ * of operations. Sample mode reports the p99 alongside the mean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnitProximityBenchmark {
+
+    @Param({"10000"})
+    private int units;
+
+    private UnitSpatialIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new UnitSpatialIndex(0.05);
+        Random random = new Random(7);
+        for (int i = 0; i < units; i++) {
+            index.update("U-" + i, 38.0 + random.nextDouble() * 2, -78.0 + random.nextDouble() * 2);
+        }
+    }
+
+    @Benchmark
+    public List<UnitSpatialIndex.Match> withinTenKm() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return index.withinRadius(38.0 + random.nextDouble() * 2, -78.0 + random.nextDouble() * 2, 10.0, callSign -> true);
+    }
+
+    @Benchmark
+    public List<UnitSpatialIndex.Match> nearestTen() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return index.nearest(38.0 + random.nextDouble() * 2, -78.0 + random.nextDouble() * 2, 10, callSign -> true);
+    }
+
+    @Benchmark
+    public void update() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        index.update("U-" + random.nextInt(units), 38.0 + random.nextDouble() * 2, -78.0 + random.nextDouble() * 2);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UnitProximityBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
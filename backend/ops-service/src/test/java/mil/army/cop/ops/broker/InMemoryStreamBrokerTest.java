@@ -0,0 +1,52 @@
+package mil.army.cop.ops.broker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import mil.army.cop.ops.dto.UnitPositionDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryStreamBrokerTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @Test
+    void publish_ShouldReachEveryNodeOnHub() {
+        InMemoryStreamBroker.Hub hub = new InMemoryStreamBroker.Hub();
+        InMemoryStreamBroker nodeA = new InMemoryStreamBroker(hub);
+        InMemoryStreamBroker nodeB = new InMemoryStreamBroker(hub);
+        List<String> receivedByA = new ArrayList<>();
+        List<String> receivedByB = new ArrayList<>();
+        nodeA.subscribe(message -> receivedByA.add(message.getOrigin()));
+        nodeB.subscribe(message -> receivedByB.add(message.getOrigin()));
+
+        nodeA.publish(new StreamMessage("node-a", UUID.randomUUID(), StreamMessage.Kind.POSITION_UPDATE));
+
+        assertThat(receivedByA).containsExactly("node-a");
+        assertThat(receivedByB).containsExactly("node-a");
+    }
+
+    @Test
+    void streamMessage_ShouldSurviveJsonRoundTrip() throws Exception {
+        UnitPositionDto position = new UnitPositionDto();
+        position.setUnitId("ALPHA-1");
+        position.setLatitude(38.9);
+        position.setLongitude(-77.03);
+        position.setTimestamp(LocalDateTime.of(2024, 5, 1, 12, 0));
+        StreamMessage message = new StreamMessage("node-a", UUID.randomUUID(), StreamMessage.Kind.OPERATION_EVENT);
+        message.setPositions(List.of(position));
+        message.setEventType("unit_status");
+        message.setEventData(objectMapper.valueToTree(Map.of("status", "ENEMY")));
+
+        StreamMessage decoded = objectMapper.readValue(objectMapper.writeValueAsBytes(message), StreamMessage.class);
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(message);
+    }
+}
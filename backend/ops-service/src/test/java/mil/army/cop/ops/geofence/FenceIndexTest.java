@@ -0,0 +1,69 @@
+package mil.army.cop.ops.geofence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FenceIndexTest {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+    private Fence boundary;
+    private Fence phaseLine;
+    private FenceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        boundary = new Fence(UUID.randomUUID(), "OBJ GOLD", Fence.Kind.BOUNDARY,
+                geometryFactory.toGeometry(new Envelope(-77.1, -77.0, 38.9, 39.0)));
+        // North-south line at longitude -77.2
+        phaseLine = new Fence(UUID.randomUUID(), "PL RED", Fence.Kind.PHASE_LINE,
+                geometryFactory.createLineString(new Coordinate[] {
+                        new Coordinate(-77.2, 38.8), new Coordinate(-77.2, 39.1)}));
+        index = new FenceIndex(List.of(boundary, phaseLine), geometryFactory);
+    }
+
+    @Test
+    void evaluate_MovingIntoBoundary_ShouldReportEntered() {
+        List<FenceCrossing> crossings = index.evaluate(38.95, -76.95, 38.95, -77.05);
+
+        assertThat(crossings).containsExactly(new FenceCrossing(boundary, FenceCrossing.Transition.ENTERED));
+    }
+
+    @Test
+    void evaluate_MovingOutOfBoundary_ShouldReportExited() {
+        List<FenceCrossing> crossings = index.evaluate(38.95, -77.05, 39.05, -77.05);
+
+        assertThat(crossings).containsExactly(new FenceCrossing(boundary, FenceCrossing.Transition.EXITED));
+    }
+
+    @Test
+    void evaluate_MovingInsideBoundary_ShouldReportNothing() {
+        assertThat(index.evaluate(38.95, -77.05, 38.96, -77.04)).isEmpty();
+    }
+
+    @Test
+    void evaluate_PathAcrossPhaseLine_ShouldReportCrossed() {
+        List<FenceCrossing> crossings = index.evaluate(38.95, -77.25, 38.96, -77.15);
+
+        assertThat(crossings).containsExactly(new FenceCrossing(phaseLine, FenceCrossing.Transition.CROSSED));
+    }
+
+    @Test
+    void evaluate_LeavingPositionOnPhaseLine_ShouldNotReportAgain() {
+        assertThat(index.evaluate(38.95, -77.25, 38.95, -77.2)).hasSize(1);
+        assertThat(index.evaluate(38.95, -77.2, 38.95, -77.15)).isEmpty();
+    }
+
+    @Test
+    void evaluate_FarFromAllFences_ShouldReportNothing() {
+        assertThat(index.evaluate(40.0, -75.0, 40.1, -75.1)).isEmpty();
+        assertThat(FenceIndex.EMPTY.evaluate(38.95, -76.95, 38.95, -77.05)).isEmpty();
+    }
+}
@@ -0,0 +1,56 @@
+package mil.army.cop.ops.history;
+
+import mil.army.cop.ops.dto.TrackPointDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrackSimplifierTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+
+    @Test
+    void simplify_StraightLine_ShouldKeepOnlyEndpoints() {
+        List<TrackPointDto> track = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            track.add(point(38.9, -77.0 + i * 0.0001, i));
+        }
+
+        List<TrackPointDto> simplified = TrackSimplifier.simplify(track, 1.0);
+
+        assertThat(simplified).containsExactly(track.get(0), track.get(99));
+    }
+
+    @Test
+    void simplify_Turn_ShouldKeepCornerWithItsTimestamp() {
+        List<TrackPointDto> track = new ArrayList<>();
+        for (int i = 0; i <= 50; i++) {
+            track.add(point(38.9, -77.0 + i * 0.0001, i));
+        }
+        for (int i = 1; i <= 50; i++) {
+            track.add(point(38.9 + i * 0.0001, -76.995, 50 + i));
+        }
+
+        List<TrackPointDto> simplified = TrackSimplifier.simplify(track, 5.0);
+
+        assertThat(simplified).containsExactly(track.get(0), track.get(50), track.get(100));
+        assertThat(simplified.get(1).getTimestamp()).isEqualTo(START.plusSeconds(50));
+    }
+
+    @Test
+    void simplify_DeviationBelowTolerance_ShouldBeDropped() {
+        // The middle point is about 11 m off the line between its neighbours
+        List<TrackPointDto> track = List.of(point(38.9, -77.0, 0), point(38.9001, -76.999, 1), point(38.9, -76.998, 2));
+
+        assertThat(TrackSimplifier.simplify(track, 20.0)).hasSize(2);
+        assertThat(TrackSimplifier.simplify(track, 5.0)).hasSize(3);
+    }
+
+    private TrackPointDto point(double latitude, double longitude, int second) {
+        return new TrackPointDto(latitude, longitude, 90.0, 10.0, START.plusSeconds(second));
+    }
+}
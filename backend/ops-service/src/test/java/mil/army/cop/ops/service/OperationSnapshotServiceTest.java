@@ -0,0 +1,116 @@
+package mil.army.cop.ops.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mil.army.cop.ops.dto.OperationSnapshotDto;
+import mil.army.cop.ops.repository.OperationRepository;
+import mil.army.cop.shared.integration.ServiceClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OperationSnapshotServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UUID operationId = UUID.randomUUID();
+    private final Authentication hq = new TestingAuthenticationToken("hq1", null, "ROLE_HQ");
+
+    private OperationSnapshotService service;
+    private ServiceClient serviceClient;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        OperationRepository operationRepository = mock(OperationRepository.class);
+        when(operationRepository.existsById(operationId)).thenReturn(true);
+        when(operationRepository.findAssignedUnitsById(operationId)).thenReturn(Set.of());
+        UnitProximityService unitProximityService = mock(UnitProximityService.class);
+        when(unitProximityService.getUnits(any())).thenReturn(List.of());
+
+        serviceClient = mock(ServiceClient.class);
+        JsonNode tasks = objectMapper.readTree("[{\"id\":1,\"status\":\"ASSIGNED\"},{\"id\":2,\"status\":\"DONE\"}]");
+        when(serviceClient.callTaskServiceAsync(anyString(), eq(HttpMethod.GET), any(), eq(JsonNode.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(ResponseEntity.ok(tasks)));
+        when(serviceClient.callMessageServiceAsync(anyString(), eq(HttpMethod.GET), any(), eq(JsonNode.class)))
+                .thenAnswer(invocation -> CompletableFuture.failedFuture(new IllegalStateException("connection refused")));
+        // Never answers
+        when(serviceClient.callReplayServiceAsync(anyString(), eq(HttpMethod.GET), any(), eq(JsonNode.class)))
+                .thenAnswer(invocation -> new CompletableFuture<>());
+
+        executor = Executors.newFixedThreadPool(8);
+        service = new OperationSnapshotService();
+        ReflectionTestUtils.setField(service, "operationRepository", operationRepository);
+        ReflectionTestUtils.setField(service, "unitProximityService", unitProximityService);
+        ReflectionTestUtils.setField(service, "serviceClient", serviceClient);
+        ReflectionTestUtils.setField(service, "snapshotExecutor", executor);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "cacheTtlMs", 60_000L);
+        ReflectionTestUtils.setField(service, "recentLimit", 20);
+        for (String timeout : List.of("units", "tasks", "channels", "events")) {
+            ReflectionTestUtils.setField(service, timeout + "TimeoutMs", 200L);
+        }
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getSnapshot_WithFailingAndSlowParts_ShouldReturnTheRestWithinTimeout() {
+        long started = System.nanoTime();
+        OperationSnapshotDto snapshot = service.getSnapshot(operationId, hq).orElseThrow();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(elapsedMs).isLessThan(1000);
+        assertThat(snapshot.getTasks()).hasSize(1);
+        assertThat(snapshot.getChannels()).isNull();
+        assertThat(snapshot.getEvents()).isNull();
+        assertThat(snapshot.getUnavailable()).containsEntry("channels", "connection refused")
+                .containsEntry("events", "timeout")
+                .doesNotContainKeys("units", "tasks");
+    }
+
+    @Test
+    void getSnapshot_WhenComplete_ShouldCacheSharedPartsPerRoleSetAndChannelsPerUser() {
+        when(serviceClient.callMessageServiceAsync(anyString(), eq(HttpMethod.GET), any(), eq(JsonNode.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(ResponseEntity.ok(objectMapper.createArrayNode())));
+        when(serviceClient.callReplayServiceAsync(anyString(), eq(HttpMethod.GET), any(), eq(JsonNode.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(ResponseEntity.ok(objectMapper.createObjectNode())));
+
+        OperationSnapshotDto first = service.getSnapshot(operationId, hq).orElseThrow();
+        OperationSnapshotDto again = service.getSnapshot(operationId, hq).orElseThrow();
+        OperationSnapshotDto second = service.getSnapshot(operationId, new TestingAuthenticationToken("hq2", null, "ROLE_HQ")).orElseThrow();
+        service.getSnapshot(operationId, new TestingAuthenticationToken("obs", null, "ROLE_OBSERVER"));
+
+        assertThat(first.getUnavailable()).isEmpty();
+        assertThat(second.getTasks()).isSameAs(first.getTasks());
+        assertThat(again.getChannels()).isSameAs(first.getChannels());
+        assertThat(second.getChannels()).isNotSameAs(first.getChannels());
+        verify(serviceClient, times(2)).callTaskServiceAsync(anyString(), eq(HttpMethod.GET), any(), eq(JsonNode.class));
+        verify(serviceClient, times(3)).callMessageServiceAsync(anyString(), eq(HttpMethod.GET), any(), eq(JsonNode.class));
+    }
+}
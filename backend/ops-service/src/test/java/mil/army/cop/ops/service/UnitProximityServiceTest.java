@@ -0,0 +1,70 @@
+package mil.army.cop.ops.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mil.army.cop.ops.dto.NearbyUnitDto;
+import mil.army.cop.ops.entity.Unit;
+import mil.army.cop.ops.repository.UnitRepository;
+import mil.army.cop.ops.state.LiveUnitStore;
+import mil.army.cop.ops.state.UnitSpatialIndex;
+import mil.army.cop.ops.state.UnitState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnitProximityServiceTest {
+
+    private final UnitRepository unitRepository = mock(UnitRepository.class);
+    private final LiveUnitStore liveUnitStore = mock(LiveUnitStore.class);
+    private final UnitSpatialIndex spatialIndex = new UnitSpatialIndex(0.05);
+    private final Unit unit = new Unit("ALPHA-1", "INFANTRY", Unit.UnitStatus.FRIENDLY,
+            new GeometryFactory().createPoint(new Coordinate(-77.0, 38.9)), "cdr");
+    private UnitProximityService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UnitProximityService();
+        ReflectionTestUtils.setField(service, "spatialIndex", spatialIndex);
+        ReflectionTestUtils.setField(service, "liveUnitStore", liveUnitStore);
+        ReflectionTestUtils.setField(service, "unitRepository", unitRepository);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "source", "memory");
+        ReflectionTestUtils.setField(service, "nearestOversample", 4);
+        service.registerMetrics();
+        when(liveUnitStore.get("ALPHA-1")).thenReturn(Optional.of(UnitState.from(unit)));
+    }
+
+    @Test
+    void findNearest_WithEmptyIndex_ShouldQueryDatabaseWithOversampledCandidates() {
+        when(unitRepository.findNearest(anyDouble(), anyDouble(), anyInt(), anyInt(), any())).thenReturn(List.of(unit));
+
+        List<NearbyUnitDto> nearest = service.findNearest(38.9, -77.0, 5, null);
+
+        assertThat(nearest).extracting(NearbyUnitDto::getCallSign).containsExactly("ALPHA-1");
+        verify(unitRepository).findNearest(eq(38.9), eq(-77.0), eq(5), eq(20), any());
+    }
+
+    @Test
+    void findNearest_WithPopulatedIndex_ShouldNotQueryDatabase() {
+        spatialIndex.update("ALPHA-1", 38.9, -77.0);
+
+        List<NearbyUnitDto> nearest = service.findNearest(38.9, -77.0, 5, null);
+
+        assertThat(nearest).extracting(NearbyUnitDto::getCallSign).containsExactly("ALPHA-1");
+        verify(unitRepository, never()).findNearest(anyDouble(), anyDouble(), anyInt(), anyInt(), any());
+    }
+}
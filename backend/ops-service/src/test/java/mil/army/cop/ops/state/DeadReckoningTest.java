@@ -0,0 +1,57 @@
+package mil.army.cop.ops.state;
+
+import mil.army.cop.ops.dto.UnitPositionDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DeadReckoningTest {
+
+    private static final LocalDateTime REPORTED = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+
+    @Test
+    void extrapolate_MovingEast_ShouldAdvanceLongitudeBySpeedTimesElapsed() {
+        UnitPositionDto predicted = DeadReckoning.extrapolate(report(90.0, 10.0), REPORTED.plusSeconds(10), 30);
+
+        assertThat(predicted.getLatitude()).isCloseTo(0.0, within(1e-9));
+        // 100 m at the equator is 100 / 111195 degrees
+        assertThat(predicted.getLongitude()).isCloseTo(100 / 111_194.93, within(1e-7));
+        assertThat(predicted.getTimestamp()).isEqualTo(REPORTED.plusSeconds(10));
+        assertThat(predicted.getUnitId()).isEqualTo("ALPHA-1");
+    }
+
+    @Test
+    void extrapolate_MovingNorth_ShouldMatchHaversineDistance() {
+        UnitPositionDto last = report(0.0, 15.0);
+        last.setLatitude(38.9);
+        last.setLongitude(-77.0);
+
+        UnitPositionDto predicted = DeadReckoning.extrapolate(last, REPORTED.plusSeconds(20), 30);
+
+        assertThat(predicted.getLongitude()).isCloseTo(-77.0, within(1e-9));
+        assertThat(UnitSpatialIndex.distanceKm(38.9, -77.0, predicted.getLatitude(), predicted.getLongitude()))
+                .isCloseTo(0.3, within(1e-3));
+    }
+
+    @Test
+    void extrapolate_StationaryOrOldReport_ShouldReturnNull() {
+        assertThat(DeadReckoning.extrapolate(report(90.0, 0.0), REPORTED.plusSeconds(5), 30)).isNull();
+        assertThat(DeadReckoning.extrapolate(report(null, 10.0), REPORTED.plusSeconds(5), 30)).isNull();
+        assertThat(DeadReckoning.extrapolate(report(90.0, 10.0), REPORTED.plusSeconds(31), 30)).isNull();
+    }
+
+    private UnitPositionDto report(Double heading, Double speed) {
+        UnitPositionDto position = new UnitPositionDto();
+        position.setUnitId("ALPHA-1");
+        position.setLatitude(0.0);
+        position.setLongitude(0.0);
+        position.setHeading(heading);
+        position.setSpeed(speed);
+        position.setStatus("FRIENDLY");
+        position.setTimestamp(REPORTED);
+        return position;
+    }
+}
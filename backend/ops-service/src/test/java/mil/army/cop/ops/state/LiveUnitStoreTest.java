@@ -0,0 +1,76 @@
+package mil.army.cop.ops.state;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mil.army.cop.ops.dto.UnitPositionDto;
+import mil.army.cop.ops.entity.Unit;
+import mil.army.cop.ops.repository.UnitRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LiveUnitStoreTest {
+
+    private static final LocalDateTime REPORTED_AT = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private final UnitRepository unitRepository = mock(UnitRepository.class);
+    private final UnitStateWriter unitStateWriter = mock(UnitStateWriter.class);
+    private final UnitSpatialIndex spatialIndex = new UnitSpatialIndex(0.05);
+    private LiveUnitStore store;
+
+    @BeforeEach
+    void setUp() {
+        Unit unit = new Unit("ALPHA-1", "INFANTRY", Unit.UnitStatus.FRIENDLY,
+                new GeometryFactory().createPoint(new Coordinate(-77.0, 38.9)), "cdr");
+        unit.setLastUpdate(REPORTED_AT);
+        when(unitRepository.findAll()).thenReturn(List.of(unit));
+
+        store = new LiveUnitStore();
+        ReflectionTestUtils.setField(store, "unitRepository", unitRepository);
+        ReflectionTestUtils.setField(store, "unitStateWriter", unitStateWriter);
+        ReflectionTestUtils.setField(store, "spatialIndex", spatialIndex);
+        ReflectionTestUtils.setField(store, "clusterIndex", new UnitClusterIndex(12, 4));
+        ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "writeBehind", true);
+        ReflectionTestUtils.setField(store, "maxBatchSize", 500);
+        store.load();
+    }
+
+    @Test
+    void applyRemotePositions_ShouldUpdateStateAndIndexWithoutWriting() {
+        store.applyRemotePositions(List.of(position(39.5, -76.5, REPORTED_AT.plusSeconds(5))));
+
+        assertThat(store.get("ALPHA-1")).get().extracting(UnitState::getLatitude).isEqualTo(39.5);
+        assertThat(spatialIndex.withinRadius(39.5, -76.5, 1.0, callSign -> true))
+                .extracting(UnitSpatialIndex.Match::callSign).containsExactly("ALPHA-1");
+        store.flush();
+        verify(unitStateWriter, never()).write(any());
+    }
+
+    @Test
+    void applyRemotePositions_OlderThanHeld_ShouldBeIgnored() {
+        store.applyRemotePositions(List.of(position(39.5, -76.5, REPORTED_AT.minusSeconds(5))));
+
+        assertThat(store.get("ALPHA-1")).get().extracting(UnitState::getLatitude).isEqualTo(38.9);
+    }
+
+    private static UnitPositionDto position(double latitude, double longitude, LocalDateTime timestamp) {
+        UnitPositionDto position = new UnitPositionDto();
+        position.setUnitId("ALPHA-1");
+        position.setLatitude(latitude);
+        position.setLongitude(longitude);
+        position.setTimestamp(timestamp);
+        return position;
+    }
+}
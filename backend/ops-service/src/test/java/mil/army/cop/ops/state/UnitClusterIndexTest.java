@@ -0,0 +1,168 @@
+package mil.army.cop.ops.state;
+
+import mil.army.cop.ops.dto.UnitClusterDto;
+import mil.army.cop.ops.entity.Unit;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class UnitClusterIndexTest {
+
+    private static final UUID OPERATION = UUID.randomUUID();
+
+    private final UnitClusterIndex index = new UnitClusterIndex(12, 4);
+
+    @Test
+    void clusters_ShouldCountByStatusWithCentroidAndDominantType() {
+        index.assign(OPERATION, List.of(
+                unit("ALPHA-1", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.90, -77.00),
+                unit("ALPHA-2", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.92, -77.02),
+                unit("RED-1", "ARMOR", Unit.UnitStatus.ENEMY, 38.94, -77.04)));
+
+        List<UnitClusterIndex.Snapshot> clusters = index.clusters(OPERATION, 4, null);
+
+        assertThat(clusters).hasSize(1);
+        UnitClusterDto cluster = clusters.get(0).cluster();
+        assertThat(cluster.getCount()).isEqualTo(3);
+        assertThat(cluster.getFriendly()).isEqualTo(2);
+        assertThat(cluster.getEnemy()).isEqualTo(1);
+        assertThat(cluster.getNeutral()).isZero();
+        assertThat(cluster.getLatitude()).isCloseTo(38.92, offset(1e-9));
+        assertThat(cluster.getLongitude()).isCloseTo(-77.02, offset(1e-9));
+        assertThat(cluster.getDominantUnitType()).isEqualTo("INFANTRY");
+    }
+
+    @Test
+    void update_WhenUnitMovesToAnotherCell_ShouldMoveItsContribution() {
+        index.assign(OPERATION, List.of(
+                unit("ALPHA-1", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.9, -77.0),
+                unit("ALPHA-2", "ARMOR", Unit.UnitStatus.FRIENDLY, 38.9, -77.0)));
+        long before = index.clusters(OPERATION, 8, null).get(0).version();
+
+        index.update(unit("ALPHA-1", "INFANTRY", Unit.UnitStatus.FRIENDLY, 10.0, 20.0));
+
+        List<UnitClusterIndex.Snapshot> clusters = index.clusters(OPERATION, 8, null);
+        assertThat(clusters).hasSize(2);
+        assertThat(clusters).extracting(snapshot -> snapshot.cluster().getCount()).containsOnly(1);
+        UnitClusterIndex.Snapshot origin = clusters.stream()
+                .filter(snapshot -> snapshot.cluster().getLatitude() > 30)
+                .findFirst().orElseThrow();
+        assertThat(origin.cluster().getDominantUnitType()).isEqualTo("ARMOR");
+        assertThat(origin.version()).isGreaterThan(before);
+    }
+
+    @Test
+    void clusters_ShouldMatchRecountFromScratchAfterRandomMoves() {
+        Random random = new Random(7);
+        double[][] positions = new double[500][];
+        List<UnitState> initial = new ArrayList<>();
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new double[] {38 + random.nextDouble() * 2, -78 + random.nextDouble() * 2};
+            initial.add(unit("U-" + i, "INFANTRY", Unit.UnitStatus.FRIENDLY, positions[i][0], positions[i][1]));
+        }
+        index.assign(OPERATION, initial);
+        for (int step = 0; step < 5000; step++) {
+            int i = random.nextInt(positions.length);
+            positions[i] = new double[] {38 + random.nextDouble() * 2, -78 + random.nextDouble() * 2};
+            index.update(unit("U-" + i, "INFANTRY", Unit.UnitStatus.FRIENDLY, positions[i][0], positions[i][1]));
+        }
+
+        UnitClusterIndex recount = new UnitClusterIndex(12, 4);
+        List<UnitState> moved = new ArrayList<>();
+        for (int i = 0; i < positions.length; i++) {
+            moved.add(unit("U-" + i, "INFANTRY", Unit.UnitStatus.FRIENDLY, positions[i][0], positions[i][1]));
+        }
+        recount.assign(OPERATION, moved);
+        assertThat(index.clusters(OPERATION, 9, null)).extracting(snapshot -> snapshot.cluster().getId() + ":" + snapshot.cluster().getCount())
+                .containsExactlyInAnyOrderElementsOf(recount.clusters(OPERATION, 9, null).stream()
+                        .map(snapshot -> snapshot.cluster().getId() + ":" + snapshot.cluster().getCount())
+                        .toList());
+    }
+
+    @Test
+    void clusters_WithBounds_ShouldOnlyReturnOverlappingCells() {
+        index.assign(OPERATION, List.of(
+                unit("ALPHA-1", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.9, -77.0),
+                unit("BRAVO-1", "INFANTRY", Unit.UnitStatus.NEUTRAL, 10.0, 20.0)));
+
+        List<UnitClusterIndex.Snapshot> clusters = index.clusters(OPERATION, 6, new Envelope(-78, -76, 38, 40));
+
+        assertThat(clusters).hasSize(1);
+        assertThat(clusters.get(0).cluster().getFriendly()).isEqualTo(1);
+    }
+
+    @Test
+    void clusters_WithTwoOperationsInSameCell_ShouldOnlyCountEachOperationsUnits() {
+        UUID other = UUID.randomUUID();
+        UnitState shared = unit("ALPHA-1", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.90, -77.00);
+        index.assign(OPERATION, List.of(shared, unit("ALPHA-2", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.91, -77.01)));
+        index.assign(other, List.of(shared, unit("RED-1", "ARMOR", Unit.UnitStatus.ENEMY, 38.92, -77.02)));
+
+        index.update(unit("ALPHA-2", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.93, -77.03));
+
+        UnitClusterDto own = index.clusters(OPERATION, 4, null).get(0).cluster();
+        UnitClusterDto others = index.clusters(other, 4, null).get(0).cluster();
+        assertThat(own.getCount()).isEqualTo(2);
+        assertThat(own.getEnemy()).isZero();
+        assertThat(others.getCount()).isEqualTo(2);
+        assertThat(others.getFriendly()).isEqualTo(1);
+        assertThat(others.getEnemy()).isEqualTo(1);
+        assertThat(index.clusters(UUID.randomUUID(), 4, null)).isEmpty();
+    }
+
+    @Test
+    void assign_ShouldTakeUnassignedUnitsOutOfTheOperation() {
+        index.assign(OPERATION, List.of(
+                unit("ALPHA-1", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.90, -77.00),
+                unit("ALPHA-2", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.91, -77.01)));
+
+        index.assign(OPERATION, List.of(unit("ALPHA-1", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.90, -77.00)));
+        index.update(unit("ALPHA-2", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.92, -77.02));
+
+        assertThat(index.clusters(OPERATION, 4, null)).extracting(snapshot -> snapshot.cluster().getCount())
+                .containsExactly(1);
+    }
+
+    @Test
+    void assign_WithNoUnits_ShouldKeepTheOperationLoadedAndEmpty() {
+        index.assign(OPERATION, List.of(unit("ALPHA-1", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.90, -77.00)));
+
+        index.assign(OPERATION, List.of());
+
+        assertThat(index.isAssigned(OPERATION)).isTrue();
+        assertThat(index.getOperationIds()).contains(OPERATION);
+        assertThat(index.clusters(OPERATION, 4, null)).isEmpty();
+    }
+
+    @Test
+    void getAssignedUnits_ShouldFollowTheLatestAssignment() {
+        index.assign(OPERATION, List.of(
+                unit("ALPHA-1", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.90, -77.00),
+                unit("ALPHA-2", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.91, -77.01)));
+        index.assign(OPERATION, List.of(unit("ALPHA-2", "INFANTRY", Unit.UnitStatus.FRIENDLY, 38.91, -77.01)));
+
+        assertThat(index.getAssignedUnits(OPERATION)).containsExactly("ALPHA-2");
+        assertThat(index.getAssignedUnits(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void resolveZoom_ShouldMapCellSizeToClosestLevelAndRejectAmbiguousRequests() {
+        // Zoom 4 cells are 360 / (16 * 4) = 5.625 degrees
+        assertThat(index.resolveZoom(null, 5.0)).isEqualTo(4);
+        assertThat(index.resolveZoom(20, null)).isEqualTo(12);
+        assertThatThrownBy(() -> index.resolveZoom(3, 1.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.resolveZoom(null, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private UnitState unit(String callSign, String unitType, Unit.UnitStatus status, double latitude, double longitude) {
+        return new UnitState(null, callSign, unitType, status, latitude, longitude, null, null, null, null);
+    }
+}
@@ -0,0 +1,86 @@
+package mil.army.cop.ops.state;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnitSpatialIndexTest {
+
+    private UnitSpatialIndex index;
+    private double[][] positions;
+
+    @BeforeEach
+    void setUp() {
+        index = new UnitSpatialIndex(0.05);
+        Random random = new Random(42);
+        positions = new double[2000][];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new double[] {38.5 + random.nextDouble(), -77.5 + random.nextDouble()};
+            index.update("U-" + i, positions[i][0], positions[i][1]);
+        }
+    }
+
+    @Test
+    void withinRadius_ShouldMatchBruteForceNearestFirst() {
+        List<UnitSpatialIndex.Match> matches = index.withinRadius(39.0, -77.0, 10.0, callSign -> true);
+
+        List<String> expected = IntStream.range(0, positions.length)
+                .filter(i -> UnitSpatialIndex.distanceKm(39.0, -77.0, positions[i][0], positions[i][1]) <= 10.0)
+                .mapToObj(i -> "U-" + i)
+                .collect(Collectors.toList());
+        assertThat(matches).extracting(UnitSpatialIndex.Match::callSign).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(matches).isSortedAccordingTo(Comparator.comparingDouble(UnitSpatialIndex.Match::distanceKm));
+    }
+
+    @Test
+    void nearest_ShouldMatchBruteForceWithFilter() {
+        List<UnitSpatialIndex.Match> matches = index.nearest(39.2, -77.3, 7, callSign -> callSign.endsWith("3"));
+
+        List<String> expected = IntStream.range(0, positions.length)
+                .filter(i -> ("U-" + i).endsWith("3"))
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> UnitSpatialIndex.distanceKm(39.2, -77.3, positions[i][0], positions[i][1])))
+                .limit(7)
+                .map(i -> "U-" + i)
+                .collect(Collectors.toList());
+        assertThat(matches).extracting(UnitSpatialIndex.Match::callSign).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void nearest_FarOutsidePopulatedArea_ShouldStillFindUnits() {
+        assertThat(index.nearest(10.0, 10.0, 3, callSign -> true)).hasSize(3);
+    }
+
+    @Test
+    void within_ShouldReturnUnitsInsidePolygon() {
+        GeometryFactory geometryFactory = new GeometryFactory();
+        Envelope envelope = new Envelope(-77.2, -77.1, 38.8, 38.9);
+
+        List<String> matches = index.within(geometryFactory.toGeometry(envelope), callSign -> true);
+
+        List<String> expected = IntStream.range(0, positions.length)
+                .filter(i -> envelope.contains(positions[i][1], positions[i][0]))
+                .mapToObj(i -> "U-" + i)
+                .collect(Collectors.toList());
+        assertThat(matches).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void update_MovedUnit_ShouldLeaveOldCell() {
+        index.update("MOVER", 39.0, -77.0);
+        index.update("MOVER", 38.6, -77.4);
+
+        assertThat(index.withinRadius(39.0, -77.0, 1.0, "MOVER"::equals)).isEmpty();
+        assertThat(index.withinRadius(38.6, -77.4, 1.0, "MOVER"::equals)).hasSize(1);
+        assertThat(index.size()).isEqualTo(positions.length + 1);
+    }
+}
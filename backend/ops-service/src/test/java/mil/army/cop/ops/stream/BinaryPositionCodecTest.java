@@ -0,0 +1,53 @@
+package mil.army.cop.ops.stream;
+
+import mil.army.cop.ops.dto.UnitPositionDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryPositionCodecTest {
+
+    private final Map<String, Integer> ids = Map.of("ALPHA-1", 0, "BRAVO-2", 1);
+    private final List<String> callSigns = List.of("ALPHA-1", "BRAVO-2");
+
+    @Test
+    void decode_ShouldRestoreEncodedPositions() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0, 0);
+        UnitPositionDto moving = position("ALPHA-1", 38.8976763, -77.0365298, 271.5, 12.3, "FRIENDLY", now);
+        UnitPositionDto parked = position("BRAVO-2", -33.8567844, 151.213108, null, null, null, now.minusSeconds(90));
+
+        byte[] frame = BinaryPositionCodec.encode(List.of(moving, parked), ids::get);
+        List<UnitPositionDto> decoded = BinaryPositionCodec.decode(frame, callSigns::get);
+
+        assertThat(frame).hasSize(BinaryPositionCodec.HEADER_SIZE + 2 * BinaryPositionCodec.ENTRY_SIZE);
+        assertThat(decoded).usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(moving, parked);
+    }
+
+    @Test
+    void decode_WithMissingTimestamp_ShouldKeepItMissing() {
+        UnitPositionDto neverReported = position("ALPHA-1", 1.0, 2.0, 0.0, 0.0, "UNKNOWN", null);
+
+        List<UnitPositionDto> decoded = BinaryPositionCodec.decode(
+                BinaryPositionCodec.encode(List.of(neverReported), ids::get), callSigns::get);
+
+        assertThat(decoded.get(0).getTimestamp()).isNull();
+    }
+
+    private UnitPositionDto position(String unitId, double latitude, double longitude, Double heading,
+                                     Double speed, String status, LocalDateTime timestamp) {
+        UnitPositionDto positionDto = new UnitPositionDto();
+        positionDto.setUnitId(unitId);
+        positionDto.setLatitude(latitude);
+        positionDto.setLongitude(longitude);
+        positionDto.setHeading(heading);
+        positionDto.setSpeed(speed);
+        positionDto.setStatus(status);
+        positionDto.setTimestamp(timestamp);
+        return positionDto;
+    }
+}
@@ -0,0 +1,118 @@
+package mil.army.cop.ops.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import mil.army.cop.ops.dto.UnitPositionDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeltaPositionFeedTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    // Drains run inline; an emitter without a handler buffers what is written to it
+    private final SseSubscriber subscriber = new SseSubscriber(new SseEmitter(), Runnable::run, 10);
+    private final DeltaPositionFeed feed = new DeltaPositionFeed(subscriber, objectMapper);
+    private long sequence = 1;
+
+    @Test
+    void flush_WithSeveralReportsForOneUnit_ShouldSendOnlyLatest() throws Exception {
+        feed.offer(position("ALPHA-1", 38.9, -77.03, 90.0), sequence++);
+        feed.offer(position("ALPHA-1", 38.91, -77.04, 95.0), sequence++);
+
+        JsonNode units = payload(feed.flush()).get("u");
+
+        assertThat(units).hasSize(1);
+        assertThat(units.get(0).get("lat").asDouble()).isEqualTo(38.91);
+        assertThat(units.get(0).get("hdg").asDouble()).isEqualTo(95.0);
+    }
+
+    @Test
+    void flush_ShouldStampFrameWithHighestSequenceOffered() throws Exception {
+        feed.offer(position("ALPHA-1", 38.9, -77.03, 90.0), 41);
+        feed.offer(position("BRAVO-2", 38.9, -77.03, 90.0), 42);
+
+        String frame = new String(feed.flush().getBytes(), StandardCharsets.UTF_8);
+
+        assertThat(frame).startsWith("id:42\nevent:position_delta\n");
+    }
+
+    @Test
+    void flush_AfterInitialFrame_ShouldSendOnlyChangedFields() throws Exception {
+        feed.offer(position("ALPHA-1", 38.9, -77.03, 90.0), sequence++);
+        feed.flush();
+
+        feed.offer(position("ALPHA-1", 38.9, -77.031, 90.0), sequence++);
+        JsonNode unit = payload(feed.flush()).get("u").get(0);
+
+        assertThat(unit.get("id").asText()).isEqualTo("ALPHA-1");
+        assertThat(unit.get("lon").asDouble()).isEqualTo(-77.031);
+        assertThat(unit.has("lat")).isFalse();
+        assertThat(unit.has("hdg")).isFalse();
+        assertThat(unit.has("st")).isFalse();
+    }
+
+    @Test
+    void flush_WithChangeBelowResolution_ShouldSendNothing() throws Exception {
+        feed.offer(position("ALPHA-1", 38.9, -77.03, 90.0), sequence++);
+        feed.flush();
+
+        feed.offer(position("ALPHA-1", 38.90000001, -77.03, 90.01), sequence++);
+
+        assertThat(feed.flush()).isNull();
+    }
+
+    @Test
+    void flush_WhilePreviousFrameUndelivered_ShouldKeepCoalescing() throws Exception {
+        SseSubscriber stalled = new SseSubscriber(new SseEmitter(), task -> {}, 10);
+        DeltaPositionFeed stalledFeed = new DeltaPositionFeed(stalled, objectMapper);
+        stalledFeed.offer(position("ALPHA-1", 38.9, -77.03, 90.0), sequence++);
+        stalledFeed.flush();
+
+        stalledFeed.offer(position("ALPHA-1", 38.91, -77.03, 90.0), sequence++);
+
+        assertThat(stalledFeed.flush()).isNull();
+        assertThat(stalled.getPendingFrames()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_ForMovingUnits_ShouldBeMuchSmallerThanFullFrames() throws Exception {
+        long fullBytes = 0;
+        for (int i = 0; i < 100; i++) {
+            UnitPositionDto moved = position("UNIT-" + i, 38.9, -77.03 - i * 0.001, 90.0);
+            feed.offer(position("UNIT-" + i, 38.9, -77.0 - i * 0.001, 90.0), sequence++);
+            fullBytes += SseFrame.of("position_update", objectMapper.writeValueAsBytes(moved)).size();
+        }
+        feed.flush();
+        for (int i = 0; i < 100; i++) {
+            feed.offer(position("UNIT-" + i, 38.9, -77.03 - i * 0.001, 90.0), sequence++);
+        }
+
+        SseFrame delta = feed.flush();
+
+        assertThat(delta.size() * 3L).isLessThan(fullBytes);
+    }
+
+    private JsonNode payload(SseFrame frame) throws Exception {
+        String text = new String(frame.getBytes(), StandardCharsets.UTF_8);
+        String data = text.substring(text.indexOf("data:") + 5).trim();
+        return objectMapper.readTree(data);
+    }
+
+    private UnitPositionDto position(String unitId, double latitude, double longitude, double heading) {
+        UnitPositionDto positionDto = new UnitPositionDto();
+        positionDto.setUnitId(unitId);
+        positionDto.setLatitude(latitude);
+        positionDto.setLongitude(longitude);
+        positionDto.setHeading(heading);
+        positionDto.setSpeed(12.0);
+        positionDto.setStatus("FRIENDLY");
+        positionDto.setTimestamp(LocalDateTime.now());
+        return positionDto;
+    }
+}
@@ -0,0 +1,26 @@
+package mil.army.cop.ops.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseFrameTest {
+
+    @Test
+    void of_ShouldFramePayloadAsSingleEvent() {
+        SseFrame frame = SseFrame.of("position_update", "{\"unitId\":\"ALPHA-1\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(new String(frame.getBytes(), StandardCharsets.UTF_8))
+                .isEqualTo("event:position_update\ndata:{\"unitId\":\"ALPHA-1\"}\n\n");
+    }
+
+    @Test
+    void of_WithMultiLinePayload_ShouldEmitOneDataLinePerLine() {
+        SseFrame frame = SseFrame.of("task_created", "{\n  \"id\": 1\n}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(new String(frame.getBytes(), StandardCharsets.UTF_8))
+                .isEqualTo("event:task_created\ndata:{\ndata:  \"id\": 1\ndata:}\n\n");
+    }
+}
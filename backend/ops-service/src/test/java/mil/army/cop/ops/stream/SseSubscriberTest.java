@@ -0,0 +1,136 @@
+package mil.army.cop.ops.stream;
+
+import mil.army.cop.ops.config.StreamConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class SseSubscriberTest {
+
+    // Collects drain tasks instead of running them so the outbox can be inspected
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+
+    @Test
+    void offer_WithSameUnit_ShouldKeepOnlyLatestFrame() {
+        SseSubscriber subscriber = new SseSubscriber(new SseEmitter(), pendingDrains::add, 10);
+
+        subscriber.offer("ALPHA-1", frame("1"));
+        subscriber.offer("ALPHA-1", frame("2"));
+        subscriber.offer("BRAVO-2", frame("3"));
+
+        assertThat(subscriber.getPendingFrames()).isEqualTo(2);
+        assertThat(subscriber.getDroppedFrames()).isZero();
+        assertThat(pendingDrains).hasSize(1);
+    }
+
+    @Test
+    void offer_WhenOutboxFull_ShouldDropOldestFrame() {
+        SseSubscriber subscriber = new SseSubscriber(new SseEmitter(), pendingDrains::add, 2);
+
+        subscriber.offer("ALPHA-1", frame("1"));
+        subscriber.offer("BRAVO-2", frame("2"));
+        subscriber.offer("CHARLIE-3", frame("3"));
+
+        assertThat(subscriber.getPendingFrames()).isEqualTo(2);
+        assertThat(subscriber.getDroppedFrames()).isEqualTo(1);
+    }
+
+    @Test
+    void close_ShouldDiscardPendingFramesAndNotifyOnce() {
+        SseSubscriber subscriber = new SseSubscriber(new SseEmitter(), pendingDrains::add, 10);
+        List<String> closed = new ArrayList<>();
+        subscriber.onClose(() -> closed.add("closed"));
+        subscriber.offer(null, frame("1"));
+
+        subscriber.close();
+        subscriber.close();
+        subscriber.offer(null, frame("2"));
+
+        assertThat(subscriber.getPendingFrames()).isZero();
+        assertThat(closed).hasSize(1);
+    }
+
+    @Test
+    void isStalled_WhenWriteBlocksPastTimeout_ShouldReportStall() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter blockingEmitter = new SseEmitter() {
+            @Override
+            public synchronized void send(Set<DataWithMediaType> items) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        SseSubscriber subscriber = new SseSubscriber(blockingEmitter, task -> new Thread(task).start(), 10);
+        assertThat(subscriber.isStalled(0)).isFalse();
+
+        subscriber.offer(null, frame("1"));
+        writing.await();
+        Thread.sleep(5);
+
+        assertThat(subscriber.isStalled(TimeUnit.MILLISECONDS.toNanos(1))).isTrue();
+        assertThat(subscriber.isStalled(TimeUnit.MINUTES.toNanos(1))).isFalse();
+        release.countDown();
+    }
+
+    @Test
+    void drain_WhileAnotherSubscriberIsBlockedInAWrite_ShouldStillDeliverAndEvictWithoutBlocking() throws Exception {
+        ExecutorService deliveryExecutor = new StreamConfig().sseDeliveryExecutor(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter blockingEmitter = new SseEmitter() {
+            @Override
+            public synchronized void send(Set<DataWithMediaType> items) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        CountDownLatch delivered = new CountDownLatch(2);
+        SseEmitter healthyEmitter = new SseEmitter() {
+            @Override
+            public synchronized void send(Set<DataWithMediaType> items) {
+                delivered.countDown();
+            }
+        };
+        try {
+            SseSubscriber stalled = new SseSubscriber(blockingEmitter, deliveryExecutor, 10);
+            SseSubscriber healthy = new SseSubscriber(healthyEmitter, deliveryExecutor, 10);
+            stalled.offer(null, frame("1"));
+            assertThat(writing.await(1, TimeUnit.SECONDS)).isTrue();
+
+            healthy.offer(null, frame("2"));
+            healthy.offer(null, frame("3"));
+            assertThat(delivered.await(1, TimeUnit.SECONDS)).isTrue();
+
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> stalled.fail(new IOException("stalled")));
+            assertThat(stalled.isClosed()).isTrue();
+        } finally {
+            release.countDown();
+            deliveryExecutor.shutdownNow();
+        }
+    }
+
+    private SseFrame frame(String data) {
+        return SseFrame.of("position_update", data.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,63 @@
+package mil.army.cop.ops.stream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamJournalTest {
+
+    private final StreamJournal<String> journal = new StreamJournal<>(3);
+
+    @Test
+    void since_WithGapInBuffer_ShouldReturnOnlyMissedEntries() {
+        long first = journal.append(sequence -> "a");
+        journal.append(sequence -> "b");
+        long last = journal.append(sequence -> "c");
+
+        StreamJournal.Replay<String> replay = journal.since(first);
+
+        assertThat(replay.entries()).containsExactly("b", "c");
+        assertThat(replay.lastSequence()).isEqualTo(last);
+    }
+
+    @Test
+    void since_WithLatestSequence_ShouldReturnNothingMissed() {
+        long last = journal.append(sequence -> "a");
+
+        assertThat(journal.since(last).entries()).isEmpty();
+    }
+
+    @Test
+    void since_WhenGapOverwritten_ShouldReturnNull() {
+        long first = journal.append(sequence -> "a");
+        journal.append(sequence -> "b");
+        journal.append(sequence -> "c");
+        journal.append(sequence -> "d");
+        journal.append(sequence -> "e");
+
+        assertThat(journal.since(first)).isNull();
+        assertThat(journal.since(first + 1).entries()).containsExactly("c", "d", "e");
+    }
+
+    @Test
+    void since_WithIdFromAnotherProcess_ShouldReturnNull() {
+        long last = journal.append(sequence -> "a");
+
+        assertThat(journal.since(42)).isNull();
+        assertThat(journal.since(last + 1000)).isNull();
+    }
+
+    @Test
+    void append_ShouldIssueIdsThatAreExactAsJavaScriptNumbers() {
+        long maxSafeInteger = (1L << 53) - 1;
+        long highestPossible = (((1L << StreamJournal.PREFIX_BITS) - 1) << StreamJournal.PREFIX_SHIFT)
+                + (1L << StreamJournal.PREFIX_SHIFT) - 1;
+        assertThat(highestPossible).isLessThanOrEqualTo(maxSafeInteger);
+
+        for (int i = 0; i < 1000; i++) {
+            long id = new StreamJournal<String>(1).append(sequence -> "a");
+            assertThat(id).isPositive().isLessThanOrEqualTo(maxSafeInteger);
+            assertThat((long) (double) id).isEqualTo(id);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package mil.army.cop.ops.stream;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubscriberRegionIndexTest {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+    private final SubscriberRegionIndex index = new SubscriberRegionIndex();
+
+    @Test
+    void match_WithBboxRegion_ShouldOnlyMatchPositionsInside() {
+        SseSubscriber subscriber = subscriber();
+        index.put(subscriber, Regions.fromBbox("-77.1,38.8,-77.0,38.9", geometryFactory));
+
+        assertThat(index.match(-77.05, 38.85)).containsExactly(subscriber);
+        assertThat(index.match(-76.5, 38.85)).isEmpty();
+    }
+
+    @Test
+    void match_WithTriangleRegion_ShouldRejectPointsInsideEnvelopeOnly() {
+        SseSubscriber subscriber = subscriber();
+        Polygon triangle = geometryFactory.createPolygon(new Coordinate[] {
+                new Coordinate(0, 0), new Coordinate(10, 0), new Coordinate(0, 10), new Coordinate(0, 0)});
+        index.put(subscriber, triangle);
+
+        assertThat(index.match(2, 2)).containsExactly(subscriber);
+        assertThat(index.match(9, 9)).isEmpty();
+    }
+
+    @Test
+    void put_WithNewRegion_ShouldReplacePreviousRegion() {
+        SseSubscriber subscriber = subscriber();
+        SseSubscriber unrestricted = subscriber();
+        index.put(subscriber, Regions.fromBbox("0,0,1,1", geometryFactory));
+        index.put(unrestricted, null);
+
+        index.put(subscriber, Regions.fromBbox("5,5,6,6", geometryFactory));
+
+        assertThat(index.match(0.5, 0.5)).containsExactly(unrestricted);
+        assertThat(index.match(5.5, 5.5)).containsExactlyInAnyOrder(subscriber, unrestricted);
+
+        index.remove(subscriber);
+        assertThat(index.match(5.5, 5.5)).containsExactly(unrestricted);
+    }
+
+    private SseSubscriber subscriber() {
+        return new SseSubscriber(new SseEmitter(), task -> {}, 10);
+    }
+}
@@ -0,0 +1,21 @@
+package mil.army.cop.shared.integration;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown without calling a service whose circuit breaker is open or whose concurrency
+ * limit is reached.
+ */
+public class CallRejectedException extends RestClientException {
+
+    private final String target;
+
+    public CallRejectedException(String target, String reason) {
+        super("Call to " + target + " rejected: " + reason);
+        this.target = target;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+}
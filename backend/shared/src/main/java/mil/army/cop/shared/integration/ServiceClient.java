@@ -1,20 +1,75 @@
 package mil.army.cop.shared.integration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Calls between COP services.
+ *
+ * Every target service has its own JDK {@link HttpClient}, so each keeps a separate pool
+ * of keep-alive connections (HTTP/2 where the peer supports it) and a slow service cannot
+ * take connections from the others. The {@code callXxxServiceAsync} methods never block
+ * the caller; the {@code callXxxService} methods wait for them. The caller's JWT is read
+ * on the calling thread, before the request leaves it.
+ *
+ * Failures surface as with {@code RestTemplate}: {@link HttpClientErrorException} or
+ * {@link HttpServerErrorException} for 4xx/5xx responses and
+ * {@link ResourceAccessException} for connect failures and timeouts. Latency is recorded
+ * per target in the {@code cop.client.requests} histogram.
+ *
+ * Each target also has a {@link CircuitBreaker}, opened by I/O errors and 5xx responses,
+ * and a bound on calls in flight, so one degraded service fails fast instead of holding
+ * every caller's threads. Refused calls throw {@link CallRejectedException}, or with
+ * {@code fallback=empty} answer 503 without a body, as do I/O failures. GETs to a target
+ * with a {@code hedge-delay-ms} get a second attempt when the first is slower than that.
+ * Every setting is read as {@code app.services.<target>.<key>} with
+ * {@code app.services.client.<key>} as the default for all targets.
+ */
 @Component
 public class ServiceClient {
 
-    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final Map<String, Target> targets = new ConcurrentHashMap<>();
 
     @Value("${app.services.auth-service.url:http://localhost:8081}")
     private String authServiceUrl;
@@ -37,57 +92,324 @@ public class ServiceClient {
     @Value("${app.services.replay-service.url:http://localhost:8087}")
     private String replayServiceUrl;
 
-    public ServiceClient(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    @Value("${app.services.client.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.services.client.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @Value("${app.services.client.http2:true}")
+    private boolean http2;
+
+    public ServiceClient(ObjectMapper objectMapper, MeterRegistry meterRegistry, Environment environment) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    void createTargets() {
+        for (String name : new String[] {"auth-service", "ops-service", "cop-service", "task-service",
+                "report-service", "message-service", "replay-service"}) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+            CircuitBreaker breaker = new CircuitBreaker(
+                    setting(name, "breaker.window-size", Integer.class, 20),
+                    setting(name, "breaker.minimum-calls", Integer.class, 10),
+                    setting(name, "breaker.failure-rate-threshold", Double.class, 0.5),
+                    Duration.ofMillis(setting(name, "breaker.open-ms", Long.class, 10000L)),
+                    setting(name, "breaker.half-open-calls", Integer.class, 3));
+            Target target = new Target(name, httpClient, breaker,
+                    setting(name, "max-concurrent", Integer.class, 64),
+                    setting(name, "hedge-delay-ms", Long.class, 0L),
+                    "empty".equalsIgnoreCase(setting(name, "fallback", String.class, "throw")));
+            targets.put(name, target);
+
+            Gauge.builder("cop.client.breaker.state", breaker, b -> b.getState().ordinal())
+                    .description("Circuit breaker state: 0 closed, 1 half-open, 2 open")
+                    .tag("target", name)
+                    .register(meterRegistry);
+            Gauge.builder("cop.client.in-flight", target, t -> t.maxConcurrent - t.permits.availablePermits())
+                    .description("Calls in flight, bounded by max-concurrent")
+                    .tag("target", name)
+                    .register(meterRegistry);
+        }
     }
 
     public <T> ResponseEntity<T> callAuthService(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
-        return callService(authServiceUrl, endpoint, method, body, responseType);
+        return await(callAuthServiceAsync(endpoint, method, body, responseType));
     }
 
     public <T> ResponseEntity<T> callOpsService(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
-        return callService(opsServiceUrl, endpoint, method, body, responseType);
+        return await(callOpsServiceAsync(endpoint, method, body, responseType));
     }
 
     public <T> ResponseEntity<T> callCopService(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
-        return callService(copServiceUrl, endpoint, method, body, responseType);
+        return await(callCopServiceAsync(endpoint, method, body, responseType));
     }
 
     public <T> ResponseEntity<T> callTaskService(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
-        return callService(taskServiceUrl, endpoint, method, body, responseType);
+        return await(callTaskServiceAsync(endpoint, method, body, responseType));
     }
 
     public <T> ResponseEntity<T> callReportService(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
-        return callService(reportServiceUrl, endpoint, method, body, responseType);
+        return await(callReportServiceAsync(endpoint, method, body, responseType));
     }
 
     public <T> ResponseEntity<T> callMessageService(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
-        return callService(messageServiceUrl, endpoint, method, body, responseType);
+        return await(callMessageServiceAsync(endpoint, method, body, responseType));
     }
 
     public <T> ResponseEntity<T> callReplayService(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
-        return callService(replayServiceUrl, endpoint, method, body, responseType);
+        return await(callReplayServiceAsync(endpoint, method, body, responseType));
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> callAuthServiceAsync(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
+        return callServiceAsync("auth-service", authServiceUrl, endpoint, method, body, responseType);
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> callOpsServiceAsync(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
+        return callServiceAsync("ops-service", opsServiceUrl, endpoint, method, body, responseType);
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> callCopServiceAsync(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
+        return callServiceAsync("cop-service", copServiceUrl, endpoint, method, body, responseType);
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> callTaskServiceAsync(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
+        return callServiceAsync("task-service", taskServiceUrl, endpoint, method, body, responseType);
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> callReportServiceAsync(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
+        return callServiceAsync("report-service", reportServiceUrl, endpoint, method, body, responseType);
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> callMessageServiceAsync(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
+        return callServiceAsync("message-service", messageServiceUrl, endpoint, method, body, responseType);
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> callReplayServiceAsync(String endpoint, HttpMethod method, Object body, Class<T> responseType) {
+        return callServiceAsync("replay-service", replayServiceUrl, endpoint, method, body, responseType);
+    }
+
+    private <T> CompletableFuture<ResponseEntity<T>> callServiceAsync(String targetName, String baseUrl, String endpoint,
+                                                                      HttpMethod method, Object body, Class<T> responseType) {
+        Target target = targets.get(targetName);
+        HttpRequest request;
+        try {
+            request = createRequest(baseUrl + endpoint, method, body);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new RestClientException("Could not write request body", e));
+        }
+
+        // The permit is taken first so a rejected call cannot use up a half-open trial
+        if (!target.permits.tryAcquire()) {
+            return reject(target, "bulkhead");
+        }
+        if (!target.breaker.tryAcquire()) {
+            target.permits.release();
+            return reject(target, "breaker");
+        }
+
+        CompletableFuture<HttpResponse<byte[]>> response = target.hedgeDelayMs > 0 && method == HttpMethod.GET
+                ? sendHedged(target, request)
+                : send(target, request, null);
+        return response.handle((result, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause != null || result.statusCode() >= 500) {
+                target.breaker.onFailure();
+            } else {
+                target.breaker.onSuccess();
+            }
+            if (cause != null) {
+                if (target.emptyFallback) {
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+                }
+                throw new ResourceAccessException("I/O error on " + method + " request for \"" + request.uri()
+                        + "\": " + cause.getMessage(), cause instanceof IOException io ? io : new IOException(cause));
+            }
+            return toResponseEntity(result, responseType);
+        });
+    }
+
+    /**
+     * One attempt; releases the attempt's concurrency permit when it ends.
+     *
+     * @param exchanges collects the underlying exchange so it can be cancelled, or {@code null}
+     */
+    private CompletableFuture<HttpResponse<byte[]>> send(Target target, HttpRequest request,
+                                                         List<CompletableFuture<?>> exchanges) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<HttpResponse<byte[]>> response = target.httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (exchanges != null) {
+            exchanges.add(response);
+        }
+        return response.whenComplete((result, error) -> {
+            target.permits.release();
+            sample.stop(Timer.builder("cop.client.requests")
+                    .description("Latency of calls to other COP services")
+                    .tag("target", target.name)
+                    .tag("method", request.method())
+                    .tag("status", result != null ? String.valueOf(result.statusCode())
+                            : error instanceof CancellationException ? "CANCELLED" : "IO_ERROR")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        });
+    }
+
+    /**
+     * Sends a second attempt if the first has not answered within the hedge delay and a
+     * permit is free. The first successful response wins and the other attempt is
+     * cancelled; an error or 5xx only counts once no attempt is left.
+     */
+    private CompletableFuture<HttpResponse<byte[]>> sendHedged(Target target, HttpRequest request) {
+        CompletableFuture<HttpResponse<byte[]>> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        List<CompletableFuture<?>> exchanges = new CopyOnWriteArrayList<>();
+        BiConsumer<HttpResponse<byte[]>, Throwable> settle = (response, error) -> {
+            boolean last = outstanding.decrementAndGet() == 0;
+            if (error == null && (response.statusCode() < 500 || last)) {
+                result.complete(response);
+            } else if (last) {
+                result.completeExceptionally(error);
+            }
+        };
+
+        send(target, request, exchanges).whenComplete(settle);
+        CompletableFuture.delayedExecutor(target.hedgeDelayMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (result.isDone() || !target.permits.tryAcquire()) {
+                return;
+            }
+            if (outstanding.getAndUpdate(count -> count == 0 ? 0 : count + 1) == 0) {
+                target.permits.release();
+                return;
+            }
+            Counter.builder("cop.client.hedged")
+                    .description("Second attempts sent because the first was slower than the hedge delay")
+                    .tag("target", target.name)
+                    .register(meterRegistry)
+                    .increment();
+            send(target, request, exchanges).whenComplete(settle);
+            if (result.isDone()) {
+                exchanges.forEach(exchange -> exchange.cancel(true));
+            }
+        });
+        result.whenComplete((response, error) -> exchanges.forEach(exchange -> exchange.cancel(true)));
+        return result;
+    }
+
+    private <T> CompletableFuture<ResponseEntity<T>> reject(Target target, String reason) {
+        Counter.builder("cop.client.rejected")
+                .description("Calls refused without being sent, by reason (breaker or bulkhead)")
+                .tag("target", target.name)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return target.emptyFallback
+                ? CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build())
+                : CompletableFuture.failedFuture(new CallRejectedException(target.name,
+                        "bulkhead".equals(reason) ? "concurrency limit reached" : "circuit open"));
+    }
+
+    private HttpRequest createRequest(String url, HttpMethod method, Object body) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(readTimeoutMs));
+        createAuthHeaders().forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+        HttpRequest.BodyPublisher publisher = body != null
+                ? HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))
+                : HttpRequest.BodyPublishers.noBody();
+        return builder.method(method.name(), publisher).build();
+    }
+
+    private <T> ResponseEntity<T> toResponseEntity(HttpResponse<byte[]> response, Class<T> responseType) {
+        HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        byte[] bytes = response.body();
+
+        if (status.is4xxClientError()) {
+            throw HttpClientErrorException.create(status, "", headers, bytes, StandardCharsets.UTF_8);
+        }
+        if (status.is5xxServerError()) {
+            throw HttpServerErrorException.create(status, "", headers, bytes, StandardCharsets.UTF_8);
+        }
+        return new ResponseEntity<>(readBody(bytes, responseType), headers, status);
     }
 
-    private <T> ResponseEntity<T> callService(String baseUrl, String endpoint, HttpMethod method, Object body, Class<T> responseType) {
-        String url = baseUrl + endpoint;
-        HttpHeaders headers = createAuthHeaders();
-        HttpEntity<?> entity = new HttpEntity<>(body, headers);
-        
-        return restTemplate.exchange(url, method, entity, responseType);
+    @SuppressWarnings("unchecked")
+    private <T> T readBody(byte[] bytes, Class<T> responseType) {
+        if (bytes == null || bytes.length == 0 || responseType == null || responseType == Void.class) {
+            return null;
+        }
+        if (responseType == byte[].class) {
+            return (T) bytes;
+        }
+        if (responseType == String.class) {
+            return (T) new String(bytes, StandardCharsets.UTF_8);
+        }
+        try {
+            return objectMapper.readValue(bytes, responseType);
+        } catch (IOException e) {
+            throw new RestClientException("Could not read response body as " + responseType.getSimpleName(), e);
+        }
+    }
+
+    private <T> ResponseEntity<T> await(CompletableFuture<ResponseEntity<T>> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
     private HttpHeaders createAuthHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.set("Content-Type", "application/json");
-        
+        headers.set("Accept", "application/json");
+
         // Forward JWT token from current security context
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof Jwt) {
             Jwt jwt = (Jwt) authentication.getPrincipal();
             headers.setBearerAuth(jwt.getTokenValue());
         }
-        
+
         return headers;
     }
+
+    // app.services.<target>.<key>, falling back to app.services.client.<key>
+    private <T> T setting(String target, String key, Class<T> type, T defaultValue) {
+        T value = environment.getProperty("app.services." + target + "." + key, type);
+        return value != null ? value : environment.getProperty("app.services.client." + key, type, defaultValue);
+    }
+
+    /**
+     * Connection pool, circuit breaker and concurrency limit of one target service.
+     */
+    private static final class Target {
+        private final String name;
+        private final HttpClient httpClient;
+        private final CircuitBreaker breaker;
+        private final int maxConcurrent;
+        private final Semaphore permits;
+        private final long hedgeDelayMs;
+        private final boolean emptyFallback;
+
+        private Target(String name, HttpClient httpClient, CircuitBreaker breaker, int maxConcurrent,
+                       long hedgeDelayMs, boolean emptyFallback) {
+            this.name = name;
+            this.httpClient = httpClient;
+            this.breaker = breaker;
+            this.maxConcurrent = maxConcurrent;
+            this.permits = new Semaphore(maxConcurrent);
+            this.hedgeDelayMs = hedgeDelayMs;
+            this.emptyFallback = emptyFallback;
+        }
+    }
 }
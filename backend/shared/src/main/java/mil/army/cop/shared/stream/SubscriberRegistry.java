@@ -0,0 +1,180 @@
+package mil.army.cop.shared.stream;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Live subscribers (SSE emitters, WebSocket sessions) grouped by a key such as the
+ * operation ID.
+ *
+ * Each group keeps its members in fixed-size chunks plus a hash index of their positions.
+ * A connect or disconnect finds its subscriber in O(1) and publishes a new snapshot that
+ * shares every chunk except the one or two it touched (a removal moves the last member
+ * into the freed slot, so order is not preserved); only the chunk table, one reference
+ * per 64 members, is copied. A reconnect storm therefore stays linear in
+ * the number of reconnects, and broadcasts read the published snapshot without copying or
+ * locking.
+ * A broadcast running during a connect or disconnect may or may not include that
+ * subscriber. Changes to a group are serialized by the map, and empty groups are
+ * dropped atomically with the last removal.
+ */
+public class SubscriberRegistry<K, S> {
+
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final Map<K, Group<S>> groups = new ConcurrentHashMap<>();
+
+    public void add(K key, S subscriber) {
+        groups.compute(key, (k, group) -> {
+            Group<S> target = group != null ? group : new Group<>();
+            target.add(subscriber);
+            return target;
+        });
+    }
+
+    /**
+     * @return {@code true} if the subscriber was registered under the key
+     */
+    public boolean remove(K key, S subscriber) {
+        boolean[] removed = new boolean[1];
+        groups.computeIfPresent(key, (k, group) -> {
+            removed[0] = group.remove(subscriber);
+            return group.isEmpty() ? null : group;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Snapshot of the key's subscribers, safe to iterate while others connect and
+     * disconnect; empty if there are none.
+     */
+    public List<S> get(K key) {
+        Group<S> group = groups.get(key);
+        return group != null ? group.snapshot() : Collections.emptyList();
+    }
+
+    public void forEachGroup(BiConsumer<K, List<S>> action) {
+        groups.forEach((key, group) -> action.accept(key, group.snapshot()));
+    }
+
+    public int size() {
+        return groups.values().stream().mapToInt(Group::size).sum();
+    }
+
+    private static final class Group<S> {
+        // Only touched inside the map's compute, which serializes changes per key
+        private final Map<S, Integer> positions = new HashMap<>();
+        private volatile Snapshot<S> snapshot = new Snapshot<>(new Object[0][], 0);
+
+        void add(S subscriber) {
+            Snapshot<S> current = snapshot;
+            int position = current.size;
+            if (positions.putIfAbsent(subscriber, position) != null) {
+                return;
+            }
+            int chunk = position >>> CHUNK_SHIFT;
+            Object[][] chunks;
+            if (chunk == current.chunks.length) {
+                chunks = Arrays.copyOf(current.chunks, chunk + 1);
+                chunks[chunk] = new Object[CHUNK_SIZE];
+            } else {
+                chunks = current.chunks.clone();
+                chunks[chunk] = chunks[chunk].clone();
+            }
+            chunks[chunk][position & CHUNK_MASK] = subscriber;
+            snapshot = new Snapshot<>(chunks, position + 1);
+        }
+
+        @SuppressWarnings("unchecked")
+        boolean remove(S subscriber) {
+            Integer position = positions.remove(subscriber);
+            if (position == null) {
+                return false;
+            }
+            Snapshot<S> current = snapshot;
+            int last = current.size - 1;
+            int lastChunk = last >>> CHUNK_SHIFT;
+            // The last chunk goes once it no longer holds anyone
+            Object[][] chunks = (last & CHUNK_MASK) == 0
+                    ? Arrays.copyOf(current.chunks, lastChunk)
+                    : current.chunks.clone();
+            if (position != last) {
+                // The last member takes the removed one's slot
+                S moved = (S) current.chunks[lastChunk][last & CHUNK_MASK];
+                int chunk = position >>> CHUNK_SHIFT;
+                chunks[chunk] = chunks[chunk].clone();
+                chunks[chunk][position & CHUNK_MASK] = moved;
+                positions.put(moved, position);
+            }
+            if (lastChunk < chunks.length) {
+                if (chunks[lastChunk] == current.chunks[lastChunk]) {
+                    chunks[lastChunk] = chunks[lastChunk].clone();
+                }
+                chunks[lastChunk][last & CHUNK_MASK] = null;
+            }
+            snapshot = new Snapshot<>(chunks, last);
+            return true;
+        }
+
+        Snapshot<S> snapshot() {
+            return snapshot;
+        }
+
+        boolean isEmpty() {
+            return positions.isEmpty();
+        }
+
+        int size() {
+            return snapshot.size;
+        }
+    }
+
+    /**
+     * Read-only view of a published set of chunks; chunks are never written once published.
+     */
+    private static final class Snapshot<S> extends AbstractList<S> implements RandomAccess {
+        private final Object[][] chunks;
+        private final int size;
+
+        Snapshot(Object[][] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public S get(int index) {
+            Objects.checkIndex(index, size);
+            return (S) chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEach(Consumer<? super S> action) {
+            int remaining = size;
+            for (Object[] chunk : chunks) {
+                int count = Math.min(remaining, CHUNK_SIZE);
+                for (int i = 0; i < count; i++) {
+                    action.accept((S) chunk[i]);
+                }
+                remaining -= count;
+            }
+        }
+    }
+}
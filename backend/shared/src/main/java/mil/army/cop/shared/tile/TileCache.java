@@ -0,0 +1,95 @@
+package mil.army.cop.shared.tile;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Encoded map tiles, bounded by total size and invalidated by the features that change.
+ *
+ * A moved point only invalidates the tile containing it at each zoom level, so panning
+ * around a busy area keeps hitting the cache for every tile whose contents have not
+ * changed. Larger features invalidate every cached tile they overlap.
+ */
+public class TileCache {
+
+    private final Cache<TileKey, byte[]> tiles;
+    private final int maxZoom;
+
+    public TileCache(long maxBytes, int maxZoom) {
+        this(maxBytes, maxZoom, null);
+    }
+
+    /**
+     * @param maxBytes total size of the cached tiles
+     * @param maxZoom highest zoom level tiles are served for
+     * @param maxAge how long a tile is served without being rendered again, for changes
+     *               this node is not told about (such as another replica's writes);
+     *               {@code null} to rely on invalidation alone
+     */
+    public TileCache(long maxBytes, int maxZoom, Duration maxAge) {
+        this.maxZoom = maxZoom;
+        Caffeine<TileKey, byte[]> builder = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((TileKey key, byte[] tile) -> tile.length + 64)
+                .recordStats();
+        if (maxAge != null) {
+            builder.expireAfterWrite(maxAge);
+        }
+        this.tiles = builder.build();
+    }
+
+    /**
+     * The cached tile, rendered by {@code renderer} on a miss. Concurrent requests for the
+     * same missing tile wait for a single render.
+     */
+    public byte[] get(TileKey key, Function<TileKey, byte[]> renderer) {
+        if (key.z() > maxZoom) {
+            throw new IllegalArgumentException("Zoom must not exceed " + maxZoom);
+        }
+        return tiles.get(key, renderer);
+    }
+
+    /**
+     * Invalidates the tiles containing each position, given as {@code {longitude, latitude}}.
+     */
+    public void invalidatePoints(Collection<double[]> positions) {
+        if (positions.isEmpty() || tiles.estimatedSize() == 0) {
+            return;
+        }
+        Set<TileKey> stale = new HashSet<>();
+        for (double[] position : positions) {
+            for (int z = 0; z <= maxZoom; z++) {
+                stale.add(TileKey.containing(position[0], position[1], z));
+            }
+        }
+        tiles.invalidateAll(stale);
+    }
+
+    /**
+     * Invalidates every cached tile overlapping a WGS84 bounding box.
+     */
+    public void invalidateEnvelope(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+        tiles.asMap().keySet().removeIf(key -> key.intersects(minLongitude, minLatitude, maxLongitude, maxLatitude));
+    }
+
+    public void invalidateAll() {
+        tiles.invalidateAll();
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    /**
+     * The underlying cache, for binding metrics.
+     */
+    public Cache<TileKey, byte[]> getNativeCache() {
+        return tiles;
+    }
+}
@@ -0,0 +1,50 @@
+package mil.army.cop.shared.tile;
+
+/**
+ * A web mercator map tile in the XYZ scheme used by Mapbox Vector Tiles.
+ */
+public record TileKey(int z, int x, int y) {
+
+    // Web mercator is undefined at the poles and clipped here
+    private static final double MAX_LATITUDE = 85.0511287798066;
+
+    public TileKey {
+        if (z < 0 || z > 30) {
+            throw new IllegalArgumentException("Zoom must be between 0 and 30");
+        }
+        int tiles = 1 << z;
+        if (x < 0 || x >= tiles || y < 0 || y >= tiles) {
+            throw new IllegalArgumentException("Tile " + z + "/" + x + "/" + y + " is outside the tile grid");
+        }
+    }
+
+    /**
+     * The tile at zoom {@code z} containing a WGS84 position.
+     */
+    public static TileKey containing(double longitude, double latitude, int z) {
+        return new TileKey(z, tileX(longitude, z), tileY(latitude, z));
+    }
+
+    /**
+     * Whether this tile overlaps a WGS84 bounding box.
+     */
+    public boolean intersects(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+        return tileX(minLongitude, z) <= x && x <= tileX(maxLongitude, z)
+                // Tile rows count down from the north
+                && tileY(maxLatitude, z) <= y && y <= tileY(minLatitude, z);
+    }
+
+    static int tileX(double longitude, int z) {
+        int tiles = 1 << z;
+        int x = (int) Math.floor((longitude + 180.0) / 360.0 * tiles);
+        return Math.max(0, Math.min(tiles - 1, x));
+    }
+
+    static int tileY(double latitude, int z) {
+        int tiles = 1 << z;
+        double clamped = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        double mercator = Math.log(Math.tan(clamped) + 1 / Math.cos(clamped));
+        int y = (int) Math.floor((1 - mercator / Math.PI) / 2 * tiles);
+        return Math.max(0, Math.min(tiles - 1, y));
+    }
+}
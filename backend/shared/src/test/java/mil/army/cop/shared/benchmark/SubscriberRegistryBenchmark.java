@@ -0,0 +1,110 @@
+package mil.army.cop.shared.benchmark;
+
+import mil.army.cop.shared.stream.SubscriberRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscriber churn (a reconnect storm) running alongside broadcasts, for the former
+ * CopyOnWriteArrayList-per-key registry and {@link SubscriberRegistry}.
+ *
+ * Each group runs three broadcaster threads iterating one operation's subscribers and one
+ * thread disconnecting and reconnecting a random subscriber. The churn score is the rate
+ * of reconnects, which for a copy-on-write list falls with the size of the operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubscriberRegistryBenchmark {
+
+    private static final String OPERATION = "op-1";
+
+    @State(Scope.Group)
+    public static class CopyOnWriteRegistry {
+        @Param({"100", "1000", "10000"})
+        int subscribers;
+
+        final Map<String, CopyOnWriteArrayList<Object>> groups = new ConcurrentHashMap<>();
+        Object[] pool;
+
+        @Setup
+        public void setUp() {
+            pool = new Object[subscribers];
+            for (int i = 0; i < subscribers; i++) {
+                pool[i] = new Object();
+                groups.computeIfAbsent(OPERATION, k -> new CopyOnWriteArrayList<>()).add(pool[i]);
+            }
+        }
+    }
+
+    @State(Scope.Group)
+    public static class ConcurrentSetRegistry {
+        @Param({"100", "1000", "10000"})
+        int subscribers;
+
+        final SubscriberRegistry<String, Object> registry = new SubscriberRegistry<>();
+        Object[] pool;
+
+        @Setup
+        public void setUp() {
+            pool = new Object[subscribers];
+            for (int i = 0; i < subscribers; i++) {
+                pool[i] = new Object();
+                registry.add(OPERATION, pool[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("copyOnWrite")
+    @GroupThreads(3)
+    public void copyOnWriteBroadcast(CopyOnWriteRegistry state, Blackhole blackhole) {
+        CopyOnWriteArrayList<Object> subscribers = state.groups.get(OPERATION);
+        if (subscribers != null) {
+            subscribers.forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    @Group("copyOnWrite")
+    @GroupThreads(1)
+    public void copyOnWriteChurn(CopyOnWriteRegistry state) {
+        Object subscriber = state.pool[ThreadLocalRandom.current().nextInt(state.subscribers)];
+        CopyOnWriteArrayList<Object> subscribers = state.groups.get(OPERATION);
+        subscribers.remove(subscriber);
+        subscribers.add(subscriber);
+    }
+
+    @Benchmark
+    @Group("registry")
+    @GroupThreads(3)
+    public void registryBroadcast(ConcurrentSetRegistry state, Blackhole blackhole) {
+        state.registry.get(OPERATION).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    @Group("registry")
+    @GroupThreads(1)
+    public void registryChurn(ConcurrentSetRegistry state) {
+        Object subscriber = state.pool[ThreadLocalRandom.current().nextInt(state.subscribers)];
+        state.registry.remove(OPERATION, subscriber);
+        state.registry.add(OPERATION, subscriber);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SubscriberRegistryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
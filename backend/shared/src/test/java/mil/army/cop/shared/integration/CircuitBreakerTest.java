@@ -0,0 +1,72 @@
+package mil.army.cop.shared.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, Duration.ofSeconds(5), 2, now::get);
+
+    @Test
+    void onFailure_AtThresholdAfterMinimumCalls_ShouldOpen() {
+        record(true, false, true);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        record(false);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void tryAcquire_AfterOpenDuration_ShouldAllowTrialsAndCloseWhenTheySucceed() {
+        record(false, false, false, false);
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void onFailure_DuringTrial_ShouldOpenAgain() {
+        record(false, false, false, false);
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void onSuccess_ShouldAgeFailuresOutOfTheWindow() {
+        record(false, false, false);
+        record(true, true, true, true, true, true, true, true, true, true);
+        record(false);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    // true for success
+    private void record(boolean... outcomes) {
+        for (boolean success : outcomes) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            if (success) {
+                breaker.onSuccess();
+            } else {
+                breaker.onFailure();
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package mil.army.cop.shared.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServiceClientTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockEnvironment environment = new MockEnvironment();
+    private final AtomicInteger flakyCalls = new AtomicInteger();
+    private HttpServer server;
+    private ServiceClient serviceClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/echo", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            String response = "{\"method\":\"" + exchange.getRequestMethod() + "\",\"body\":" + (body.length > 0 ? new String(body, StandardCharsets.UTF_8) : "null") + "}";
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length());
+            exchange.getResponseBody().write(response.getBytes(StandardCharsets.UTF_8));
+            exchange.close();
+        });
+        server.createContext("/api/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.createContext("/api/slow", exchange -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        // Only the first call is slow
+        server.createContext("/api/flaky", exchange -> {
+            if (flakyCalls.getAndIncrement() == 0) {
+                try {
+                    Thread.sleep(150);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+
+        environment.setProperty("app.services.task-service.breaker.minimum-calls", "2");
+        environment.setProperty("app.services.task-service.breaker.window-size", "2");
+        serviceClient = createClient();
+    }
+
+    private ServiceClient createClient() {
+        ServiceClient client = new ServiceClient(new ObjectMapper(), meterRegistry, environment);
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        ReflectionTestUtils.setField(client, "taskServiceUrl", url);
+        ReflectionTestUtils.setField(client, "replayServiceUrl", url);
+        ReflectionTestUtils.setField(client, "connectTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(client, "readTimeoutMs", 200L);
+        ReflectionTestUtils.setField(client, "http2", false);
+        client.createTargets();
+        return client;
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void callAsync_ShouldSendJsonBodyAndDecodeResponse() {
+        CompletableFuture<ResponseEntity<JsonNode>> future = serviceClient.callTaskServiceAsync("/api/echo",
+                HttpMethod.POST, Map.of("title", "Recon"), JsonNode.class);
+
+        ResponseEntity<JsonNode> response = future.join();
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getBody().get("method").asText()).isEqualTo("POST");
+        assertThat(response.getBody().get("body").get("title").asText()).isEqualTo("Recon");
+        assertThat(meterRegistry.find("cop.client.requests").tag("target", "task-service").tag("status", "200").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void call_WithErrorStatus_ShouldThrowLikeRestTemplate() {
+        assertThatThrownBy(() -> serviceClient.callTaskService("/api/missing", HttpMethod.GET, null, JsonNode.class))
+                .isInstanceOf(HttpClientErrorException.class)
+                .satisfies(e -> assertThat(((HttpClientErrorException) e).getStatusCode().value()).isEqualTo(404));
+    }
+
+    @Test
+    void call_PastReadTimeout_ShouldThrowResourceAccessException() {
+        assertThatThrownBy(() -> serviceClient.callTaskService("/api/slow", HttpMethod.GET, null, Void.class))
+                .isInstanceOf(ResourceAccessException.class);
+        assertThat(meterRegistry.find("cop.client.requests").tag("status", "IO_ERROR").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void call_AfterRepeatedFailures_ShouldBeRejectedWithoutSending() {
+        server.stop(0);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> serviceClient.callTaskService("/api/echo", HttpMethod.GET, null, JsonNode.class))
+                    .isInstanceOf(ResourceAccessException.class);
+        }
+
+        assertThatThrownBy(() -> serviceClient.callTaskService("/api/echo", HttpMethod.GET, null, JsonNode.class))
+                .isInstanceOf(CallRejectedException.class);
+        assertThat(meterRegistry.find("cop.client.rejected").tag("reason", "breaker").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("cop.client.breaker.state").tag("target", "task-service").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void call_WithEmptyFallback_ShouldAnswerServiceUnavailableInsteadOfThrowing() {
+        server.stop(0);
+        environment.setProperty("app.services.task-service.fallback", "empty");
+        ServiceClient client = createClient();
+
+        ResponseEntity<JsonNode> response = client.callTaskService("/api/echo", HttpMethod.GET, null, JsonNode.class);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(503);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void call_OverMaxConcurrent_ShouldBeRejected() {
+        environment.setProperty("app.services.task-service.max-concurrent", "1");
+        ServiceClient client = createClient();
+
+        CompletableFuture<ResponseEntity<Void>> slow = client.callTaskServiceAsync("/api/slow", HttpMethod.GET, null, Void.class);
+
+        assertThatThrownBy(() -> client.callTaskService("/api/echo", HttpMethod.GET, null, JsonNode.class))
+                .isInstanceOf(CallRejectedException.class)
+                .hasMessageContaining("concurrency limit");
+        slow.exceptionally(e -> null).join();
+    }
+
+    @Test
+    void call_WithHedgeDelay_ShouldAnswerFromSecondAttemptWhenFirstIsSlow() {
+        environment.setProperty("app.services.replay-service.hedge-delay-ms", "20");
+        ServiceClient client = createClient();
+
+        long started = System.nanoTime();
+        ResponseEntity<Void> response = client.callReplayService("/api/flaky", HttpMethod.GET, null, Void.class);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(response.getStatusCode().value()).isEqualTo(204);
+        assertThat(elapsedMs).isLessThan(150);
+        assertThat(meterRegistry.find("cop.client.hedged").tag("target", "replay-service").counter().count()).isEqualTo(1);
+    }
+}
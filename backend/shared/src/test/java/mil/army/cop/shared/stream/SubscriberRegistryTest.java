@@ -0,0 +1,72 @@
+package mil.army.cop.shared.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubscriberRegistryTest {
+
+    private final SubscriberRegistry<String, String> registry = new SubscriberRegistry<>();
+
+    @Test
+    void get_WithUnknownKey_ShouldReturnEmptySet() {
+        assertThat(registry.get("op-1")).isEmpty();
+    }
+
+    @Test
+    void remove_DuringIteration_ShouldNotFailOrRepeat() {
+        registry.add("op-1", "a");
+        registry.add("op-1", "b");
+        registry.add("op-1", "c");
+
+        List<String> visited = new ArrayList<>();
+        for (String subscriber : registry.get("op-1")) {
+            visited.add(subscriber);
+            registry.remove("op-1", subscriber);
+        }
+
+        assertThat(visited).containsExactlyInAnyOrder("a", "b", "c");
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    void add_AfterLastRemoval_ShouldStartNewGroup() {
+        registry.add("op-1", "a");
+        assertThat(registry.remove("op-1", "a")).isTrue();
+        assertThat(registry.remove("op-1", "a")).isFalse();
+
+        registry.add("op-1", "b");
+
+        assertThat(registry.get("op-1")).containsExactly("b");
+    }
+
+    @Test
+    void addAndRemove_AcrossChunks_ShouldKeepEveryOtherMemberAndOldSnapshots() {
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 300; i++) {
+            registry.add("op-1", "s" + i);
+            expected.add("s" + i);
+        }
+        List<String> before = registry.get("op-1");
+
+        for (int i = 0; i < 300; i += 3) {
+            registry.remove("op-1", "s" + i);
+            expected.remove("s" + i);
+        }
+        for (int i = 299; i >= 200; i--) {
+            registry.remove("op-1", "s" + i);
+            expected.remove("s" + i);
+        }
+
+        List<String> after = new ArrayList<>();
+        registry.get("op-1").forEach(after::add);
+        assertThat(after).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(registry.get("op-1")).hasSize(expected.size());
+        assertThat(before).hasSize(300).doesNotContainNull();
+    }
+}
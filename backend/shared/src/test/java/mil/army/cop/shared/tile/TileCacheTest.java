@@ -0,0 +1,75 @@
+package mil.army.cop.shared.tile;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TileCacheTest {
+
+    // Washington, DC
+    private static final double LON = -77.0369;
+    private static final double LAT = 38.9072;
+
+    @Test
+    void containing_ShouldMatchKnownTile() {
+        assertThat(TileKey.containing(LON, LAT, 0)).isEqualTo(new TileKey(0, 0, 0));
+        assertThat(TileKey.containing(LON, LAT, 10)).isEqualTo(new TileKey(10, 292, 391));
+    }
+
+    @Test
+    void get_SecondRequest_ShouldNotRenderAgain() {
+        TileCache cache = new TileCache(1 << 20, 18);
+        AtomicInteger renders = new AtomicInteger();
+
+        cache.get(new TileKey(10, 292, 391), key -> render(renders));
+        cache.get(new TileKey(10, 292, 391), key -> render(renders));
+
+        assertThat(renders).hasValue(1);
+    }
+
+    @Test
+    void invalidatePoints_ShouldOnlyDropTilesContainingThePoint() {
+        TileCache cache = new TileCache(1 << 20, 18);
+        AtomicInteger renders = new AtomicInteger();
+        TileKey containing = TileKey.containing(LON, LAT, 14);
+        TileKey neighbour = new TileKey(14, containing.x() + 1, containing.y());
+        cache.get(containing, key -> render(renders));
+        cache.get(neighbour, key -> render(renders));
+
+        cache.invalidatePoints(List.<double[]>of(new double[] {LON, LAT}));
+
+        assertThat(cache.getNativeCache().getIfPresent(containing)).isNull();
+        assertThat(cache.getNativeCache().getIfPresent(neighbour)).isNotNull();
+    }
+
+    @Test
+    void invalidateEnvelope_ShouldDropOverlappingTilesAtEveryZoom() {
+        TileCache cache = new TileCache(1 << 20, 18);
+        AtomicInteger renders = new AtomicInteger();
+        TileKey world = new TileKey(0, 0, 0);
+        TileKey local = TileKey.containing(LON, LAT, 12);
+        TileKey elsewhere = TileKey.containing(2.35, 48.85, 12);
+        List.of(world, local, elsewhere).forEach(key -> cache.get(key, k -> render(renders)));
+
+        cache.invalidateEnvelope(LON - 0.01, LAT - 0.01, LON + 0.01, LAT + 0.01);
+
+        assertThat(cache.getNativeCache().asMap()).containsOnlyKeys(elsewhere);
+    }
+
+    @Test
+    void get_BeyondMaxZoom_ShouldBeRejected() {
+        TileCache cache = new TileCache(1 << 20, 16);
+
+        assertThatThrownBy(() -> cache.get(new TileKey(17, 0, 0), key -> new byte[0]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private byte[] render(AtomicInteger renders) {
+        renders.incrementAndGet();
+        return new byte[] {1, 2, 3};
+    }
+}
@@ -0,0 +1,25 @@
+package mil.army.cop.task.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mil.army.cop.shared.tile.TileCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class TileConfig {
+
+    // Task layer vector tiles, invalidated as tasks are saved
+    @Bean
+    public TileCache taskTileCache(@Value("${app.tasks.tiles.cache-max-bytes:33554432}") long maxBytes,
+                                   @Value("${app.tasks.tiles.max-zoom:20}") int maxZoom,
+                                   @Value("${app.tasks.tiles.max-age-s:300}") long maxAgeSeconds,
+                                   MeterRegistry meterRegistry) {
+        TileCache cache = new TileCache(maxBytes, maxZoom, Duration.ofSeconds(maxAgeSeconds));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.getNativeCache(), "tasks.tiles");
+        return cache;
+    }
+}
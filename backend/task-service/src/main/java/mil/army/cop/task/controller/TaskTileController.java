@@ -0,0 +1,33 @@
+package mil.army.cop.task.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import mil.army.cop.task.service.TaskTileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/tasks/tiles")
+@Tag(name = "Task Map Tiles", description = "Mapbox Vector Tiles for the task layer")
+public class TaskTileController {
+
+    private static final String MVT = "application/vnd.mapbox-vector-tile";
+
+    @Autowired
+    private TaskTileService taskTileService;
+
+    @GetMapping(value = "/{z}/{x}/{y}.mvt", produces = MVT)
+    @Operation(summary = "Task layer vector tile (204 when the tile is empty)")
+    @PreAuthorize("hasRole('HQ') or hasRole('UNIT')")
+    public ResponseEntity<byte[]> getTaskTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        byte[] tile = taskTileService.getTaskTile(z, x, y);
+        return tile.length > 0 ? ResponseEntity.ok(tile) : ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidTile(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
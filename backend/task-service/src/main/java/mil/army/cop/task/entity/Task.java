@@ -12,6 +12,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "tasks", schema = "tasks")
+@EntityListeners(TaskTileInvalidator.class)
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -42,6 +43,10 @@ public class Task {
 
     private Geometry location;
 
+    // Location as last loaded or saved, so a moved task also refreshes the tiles it left
+    @Transient
+    private Geometry savedLocation;
+
     @Column(nullable = false)
     private LocalDateTime dueDate;
 
@@ -99,6 +104,9 @@ public class Task {
     public Geometry getLocation() { return location; }
     public void setLocation(Geometry location) { this.location = location; }
 
+    public Geometry getSavedLocation() { return savedLocation; }
+    public void setSavedLocation(Geometry savedLocation) { this.savedLocation = savedLocation; }
+
     public LocalDateTime getDueDate() { return dueDate; }
     public void setDueDate(LocalDateTime dueDate) { this.dueDate = dueDate; }
 
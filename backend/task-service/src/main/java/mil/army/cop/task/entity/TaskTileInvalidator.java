@@ -0,0 +1,69 @@
+package mil.army.cop.task.entity;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import mil.army.cop.shared.tile.TileCache;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drops cached task layer tiles whenever a task is created, changed or deleted,
+ * whichever code path saved it.
+ *
+ * Invalidation waits for the transaction to commit, so a tile rendered in between
+ * cannot be cached with the old state.
+ */
+@Component
+public class TaskTileInvalidator {
+
+    @Autowired
+    @Qualifier("taskTileCache")
+    private TileCache tileCache;
+
+    @PostLoad
+    public void rememberLocation(Task task) {
+        task.setSavedLocation(task.getLocation());
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidateTiles(Task task) {
+        List<Geometry> changed = new ArrayList<>(2);
+        if (task.getSavedLocation() != null) {
+            changed.add(task.getSavedLocation());
+        }
+        if (task.getLocation() != null && task.getLocation() != task.getSavedLocation()) {
+            changed.add(task.getLocation());
+        }
+        task.setSavedLocation(task.getLocation());
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        Runnable invalidate = () -> changed.forEach(geometry -> {
+            Envelope envelope = geometry.getEnvelopeInternal();
+            tileCache.invalidateEnvelope(envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY());
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate.run();
+                }
+            });
+        } else {
+            invalidate.run();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package mil.army.cop.task.repository;
+
+import mil.army.cop.shared.tile.TileKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Renders the task layer as Mapbox Vector Tiles with PostGIS {@code ST_AsMVT}.
+ */
+@Repository
+public class TaskTileRepository {
+
+    private static final String TASK_TILE = "SELECT ST_AsMVT(tile, 'tasks', 4096, 'geom') FROM ("
+            + "SELECT ST_AsMVTGeom(ST_Transform(location, 3857), ST_TileEnvelope(?, ?, ?), 4096, 64, true) AS geom, "
+            + "id::text AS id, title, status, priority, operation_id::text AS operation_id, "
+            + "assigned_to_unit, due_date::text AS due_date "
+            + "FROM tasks.tasks "
+            + "WHERE location && ST_Transform(ST_TileEnvelope(?, ?, ?, margin => 64.0 / 4096), 4326)"
+            + ") AS tile WHERE geom IS NOT NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The {@code tasks} layer of a tile; empty when no task geometry touches it.
+     */
+    public byte[] findTaskTile(TileKey key) {
+        byte[] tile = jdbcTemplate.queryForObject(TASK_TILE, byte[].class,
+                key.z(), key.x(), key.y(), key.z(), key.x(), key.y());
+        return tile != null ? tile : new byte[0];
+    }
+}
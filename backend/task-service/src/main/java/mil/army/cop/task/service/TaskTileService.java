@@ -0,0 +1,27 @@
+package mil.army.cop.task.service;
+
+import mil.army.cop.shared.tile.TileCache;
+import mil.army.cop.shared.tile.TileKey;
+import mil.army.cop.task.repository.TaskTileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves the task layer as cached vector tiles; see {@code TaskTileInvalidator} for how
+ * the cache follows task changes.
+ */
+@Service
+public class TaskTileService {
+
+    @Autowired
+    private TaskTileRepository taskTileRepository;
+
+    @Autowired
+    @Qualifier("taskTileCache")
+    private TileCache tileCache;
+
+    public byte[] getTaskTile(int z, int x, int y) {
+        return tileCache.get(new TileKey(z, x, y), taskTileRepository::findTaskTile);
+    }
+}
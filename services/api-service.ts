@@ -15,8 +15,8 @@ export interface PositionUpdate {
   featureId: string
   coordinates: [number, number]
   timestamp: string
-  speed?: number
-  heading?: number
+  speed?: number // metres per second
+  heading?: number // degrees clockwise from north
   status?: string
 }
 